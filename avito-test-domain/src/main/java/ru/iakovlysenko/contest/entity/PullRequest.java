@@ -16,13 +16,16 @@ import java.util.List;
 
 /**
  * Сущность, представляющая пулл реквест.
+ * <p>
+ * Таблица секционирована по статусу: открытые PR лежат в горячей секции, слитые - в холодных секциях по годам
+ * создания. Уникальность ID и выдачу ключей обеспечивает несекционированный словарь {@code pull_request_ids}.
  *
  * @author Iakov Lysenko
  */
 @Entity
 @Table(name = "pull_requests", indexes = {
-    @Index(name = "idx_pull_requests_author_id", columnList = "author_id"),
-    @Index(name = "idx_pull_requests_status", columnList = "status")
+    @Index(name = "idx_pull_requests_id", columnList = "id"),
+    @Index(name = "idx_pull_requests_author_key", columnList = "author_key")
 })
 @Getter
 @Setter
@@ -34,10 +37,17 @@ import java.util.List;
 public class PullRequest {
 
     /**
-     * Уникальный идентификатор.
+     * Внутренний ключ, по которому на пулл реквест ссылаются назначения.
+     * Выдается словарем {@code pull_request_ids} при вставке PR.
      */
     @Id
-    @Column(name = "id", length = 255)
+    @Column(name = "pull_request_key")
+    private Long pullRequestKey;
+
+    /**
+     * Уникальный идентификатор.
+     */
+    @Column(name = "id", nullable = false, updatable = false, length = 255)
     @EqualsAndHashCode.Include
     @ToString.Include
     private String id;
@@ -53,7 +63,7 @@ public class PullRequest {
      * Автор пулл реквеста.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "author_id", nullable = false, foreignKey = @ForeignKey(name = "fk_pull_requests_author"))
+    @JoinColumn(name = "author_key", nullable = false, foreignKey = @ForeignKey(name = "fk_pull_requests_author_key"))
     private User author;
 
     /**
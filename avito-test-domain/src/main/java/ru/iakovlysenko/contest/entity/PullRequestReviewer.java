@@ -8,6 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.iakovlysenko.contest.enums.PrStatus;
 
 import java.time.LocalDateTime;
 
@@ -18,8 +19,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "pull_request_reviewers", indexes = {
-    @Index(name = "idx_pr_reviewers_reviewer_id", columnList = "reviewer_id"),
-    @Index(name = "idx_pr_reviewers_pr_id", columnList = "pull_request_id")
+    @Index(name = "idx_pr_reviewers_reviewer_key_created_pr", columnList = "reviewer_key, created_at, pull_request_key")
 })
 @Getter
 @Setter
@@ -32,35 +32,35 @@ import java.time.LocalDateTime;
 public class PullRequestReviewer {
 
     /**
-     * Идентификатор пулл реквеста.
+     * Внутренний ключ пулл реквеста.
      */
     @Id
-    @Column(name = "pull_request_id", nullable = false, length = 255)
+    @Column(name = "pull_request_key", nullable = false)
     @EqualsAndHashCode.Include
     @ToString.Include
-    private String pullRequestId;
+    private Long pullRequestKey;
 
     /**
-     * Идентификатор ревьювера.
+     * Внутренний ключ ревьювера.
      */
     @Id
-    @Column(name = "reviewer_id", nullable = false, length = 255)
+    @Column(name = "reviewer_key", nullable = false)
     @EqualsAndHashCode.Include
     @ToString.Include
-    private String reviewerId;
+    private Long reviewerKey;
 
     /**
      * Пулл реквест, на который назначен ревьювер.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "pull_request_id", nullable = false, insertable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_pr_reviewers_pr"))
+    @JoinColumn(name = "pull_request_key", nullable = false, insertable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_pr_reviewers_pr_key"))
     private PullRequest pullRequest;
 
     /**
      * Ревьювер, назначенный на пулл реквест.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "reviewer_id", nullable = false, insertable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_pr_reviewers_user"))
+    @JoinColumn(name = "reviewer_key", nullable = false, insertable = false, updatable = false, foreignKey = @ForeignKey(name = "fk_pr_reviewers_user_key"))
     private User reviewer;
 
     /**
@@ -69,10 +69,38 @@ public class PullRequestReviewer {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Статус пулл реквеста, копия {@link PullRequest#getStatus()}.
+     * Ключ секционирования: назначения на открытые PR лежат в горячей секции, на слитые - в холодных секциях
+     * по годам назначения. Обновляется вместе со статусом пулл реквеста при слиянии, и строка переезжает в холодную секцию.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pull_request_status", nullable = false, length = 20)
+    @Builder.Default
+    private PrStatus pullRequestStatus = PrStatus.OPEN;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
 
+    /**
+     * Получает идентификатор пулл реквеста.
+     *
+     * @return идентификатор пулл реквеста или null, если пулл реквест не установлен
+     */
+    public String getPullRequestId() {
+        return pullRequest != null ? pullRequest.getId() : null;
+    }
+
+    /**
+     * Получает идентификатор ревьювера.
+     *
+     * @return идентификатор ревьювера или null, если ревьювер не установлен
+     */
+    public String getReviewerId() {
+        return reviewer != null ? reviewer.getId() : null;
+    }
+
 }
 
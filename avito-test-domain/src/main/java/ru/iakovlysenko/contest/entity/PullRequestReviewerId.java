@@ -19,16 +19,16 @@ import java.io.Serializable;
 public class PullRequestReviewerId implements Serializable {
 
     /**
-     * Идентификатор пулл реквеста.
+     * Внутренний ключ пулл реквеста.
      */
     @EqualsAndHashCode.Include
-    private String pullRequestId;
+    private Long pullRequestKey;
 
     /**
-     * Идентификатор ревьювера.
+     * Внутренний ключ ревьювера.
      */
     @EqualsAndHashCode.Include
-    private String reviewerId;
+    private Long reviewerKey;
 
 }
 
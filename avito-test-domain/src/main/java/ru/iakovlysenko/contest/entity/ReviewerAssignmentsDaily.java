@@ -0,0 +1,61 @@
+package ru.iakovlysenko.contest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Сущность, представляющая количество назначений ревьювера за день - свертку таблицы pull_request_reviewers.
+ * <p>
+ * Заполняется триггерами базы данных при вставке и удалении назначений в той же транзакции,
+ * поэтому приложение её только читает.
+ *
+ * @author Iakov Lysenko
+ */
+@Entity
+@Immutable
+@Table(name = "reviewer_assignments_daily", indexes = {
+    @Index(name = "idx_reviewer_assignments_daily_day", columnList = "day")
+})
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(ReviewerAssignmentsDailyId.class)
+public class ReviewerAssignmentsDaily {
+
+    /**
+     * Внутренний ключ ревьювера.
+     */
+    @Id
+    @Column(name = "reviewer_key", nullable = false)
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    private Long reviewerKey;
+
+    /**
+     * День, в который созданы назначения.
+     */
+    @Id
+    @Column(name = "day", nullable = false)
+    @EqualsAndHashCode.Include
+    @ToString.Include
+    private LocalDate day;
+
+    /**
+     * Количество назначений ревьювера, созданных за день и не удаленных.
+     */
+    @Column(name = "assignments_count", nullable = false)
+    @ToString.Include
+    private Long assignmentsCount;
+
+}
@@ -0,0 +1,34 @@
+package ru.iakovlysenko.contest.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Составной ключ для сущности {@link ReviewerAssignmentsDaily}.
+ *
+ * @author Iakov Lysenko
+ */
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewerAssignmentsDailyId implements Serializable {
+
+    /**
+     * Внутренний ключ ревьювера.
+     */
+    @EqualsAndHashCode.Include
+    private Long reviewerKey;
+
+    /**
+     * День назначения.
+     */
+    @EqualsAndHashCode.Include
+    private LocalDate day;
+
+}
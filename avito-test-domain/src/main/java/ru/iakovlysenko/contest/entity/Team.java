@@ -19,7 +19,9 @@ import java.util.List;
  * @author Iakov Lysenko
  */
 @Entity
-@Table(name = "teams")
+@Table(name = "teams", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_teams_team_name", columnNames = "team_name")
+})
 @Getter
 @Setter
 @ToString(onlyExplicitlyIncluded = true)
@@ -30,12 +32,19 @@ import java.util.List;
 public class Team {
 
     /**
-     * Уникальное название команды.
+     * Внутренний ключ команды, по которому на неё ссылаются пользователи.
      */
     @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "team_key")
+    private Long teamKey;
+
+    /**
+     * Уникальное название команды.
+     */
     @EqualsAndHashCode.Include
     @ToString.Include
-    @Column(name = "team_name", length = 255)
+    @Column(name = "team_name", nullable = false, updatable = false, length = 255)
     private String teamName;
 
     /**
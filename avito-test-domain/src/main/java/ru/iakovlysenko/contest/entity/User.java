@@ -19,8 +19,10 @@ import java.util.List;
  * @author Iakov Lysenko
  */
 @Entity
-@Table(name = "users", indexes = {
-    @Index(name = "idx_users_team_name", columnList = "team_name"),
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_users_id", columnNames = "id")
+}, indexes = {
+    @Index(name = "idx_users_team_key", columnList = "team_key"),
     @Index(name = "idx_users_is_active", columnList = "is_active")
 })
 @Getter
@@ -33,10 +35,17 @@ import java.util.List;
 public class User {
 
     /**
-     * Уникальный идентификатор пользователя.
+     * Внутренний ключ пользователя, по которому на него ссылаются пулл реквесты и назначения.
      */
     @Id
-    @Column(name = "id", length = 255)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "user_key")
+    private Long userKey;
+
+    /**
+     * Уникальный идентификатор пользователя.
+     */
+    @Column(name = "id", nullable = false, updatable = false, length = 255)
     @EqualsAndHashCode.Include
     @ToString.Include
     private String id;
@@ -52,7 +61,7 @@ public class User {
      * Команда, к которой принадлежит пользователь.
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "team_name", nullable = false, foreignKey = @ForeignKey(name = "fk_users_team"))
+    @JoinColumn(name = "team_key", nullable = false, foreignKey = @ForeignKey(name = "fk_users_team_key"))
     private Team team;
 
     /**
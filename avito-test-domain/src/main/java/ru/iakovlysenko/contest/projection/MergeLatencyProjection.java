@@ -0,0 +1,19 @@
+package ru.iakovlysenko.contest.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция слитого пулл реквеста для расчета времени до слияния.
+ * Заполняется конструктором прямо из JPQL-запроса, без загрузки управляемых сущностей.
+ *
+ * @param teamName имя команды автора пулл реквеста
+ * @param createdAt время создания пулл реквеста
+ * @param mergedAt время слияния пулл реквеста
+ * @author Iakov Lysenko
+ */
+public record MergeLatencyProjection(
+        String teamName,
+        LocalDateTime createdAt,
+        LocalDateTime mergedAt
+) {
+}
@@ -0,0 +1,38 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для назначения ревьювера на открытый пулл реквест.
+ * Используется при массовом переназначении ревью деактивированных пользователей.
+ *
+ * @author Iakov Lysenko
+ */
+public interface OpenReviewAssignmentProjection {
+
+    /**
+     * Идентификатор пулл реквеста.
+     *
+     * @return идентификатор пулл реквеста
+     */
+    String getPullRequestId();
+
+    /**
+     * Идентификатор автора пулл реквеста.
+     *
+     * @return идентификатор автора
+     */
+    String getAuthorId();
+
+    /**
+     * Идентификатор назначенного ревьювера.
+     *
+     * @return идентификатор ревьювера
+     */
+    String getReviewerId();
+
+    /**
+     * Имя команды назначенного ревьювера.
+     *
+     * @return имя команды ревьювера
+     */
+    String getReviewerTeamName();
+}
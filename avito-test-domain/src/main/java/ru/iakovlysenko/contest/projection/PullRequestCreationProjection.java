@@ -0,0 +1,44 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для результата атомарного создания пулл реквеста.
+ *
+ * @author Iakov Lysenko
+ */
+public interface PullRequestCreationProjection {
+
+    /**
+     * Признак того, что ID пулл реквеста был занят до запроса.
+     *
+     * @return true, если пулл реквест с таким ID уже существует
+     */
+    Boolean getPullRequestExists();
+
+    /**
+     * Идентификатор автора.
+     *
+     * @return идентификатор автора; null, если автор не найден
+     */
+    String getAuthorId();
+
+    /**
+     * Имя команды автора.
+     *
+     * @return имя команды
+     */
+    String getTeamName();
+
+    /**
+     * Флаг активности автора.
+     *
+     * @return true, если автор активен
+     */
+    Boolean getIsActive();
+
+    /**
+     * Признак того, что пулл реквест вставлен.
+     *
+     * @return true, если пулл реквест создан; false, если ID уже занят, автор не найден или не активен
+     */
+    Boolean getInserted();
+}
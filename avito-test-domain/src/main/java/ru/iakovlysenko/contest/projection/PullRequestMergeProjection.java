@@ -0,0 +1,69 @@
+package ru.iakovlysenko.contest.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция для строки результата слияния пулл реквеста.
+ * Запрос возвращает по одной строке на каждого назначенного ревьювера (или одну строку без ревьювера),
+ * поля пулл реквеста в строках одинаковые.
+ *
+ * @author Iakov Lysenko
+ */
+public interface PullRequestMergeProjection {
+
+    /**
+     * Идентификатор пулл реквеста.
+     *
+     * @return идентификатор пулл реквеста
+     */
+    String getId();
+
+    /**
+     * Название пулл реквеста.
+     *
+     * @return название пулл реквеста
+     */
+    String getPullRequestName();
+
+    /**
+     * Идентификатор автора.
+     *
+     * @return идентификатор автора
+     */
+    String getAuthorId();
+
+    /**
+     * Имя команды автора.
+     *
+     * @return имя команды автора
+     */
+    String getAuthorTeamName();
+
+    /**
+     * Время создания пулл реквеста.
+     *
+     * @return время создания
+     */
+    LocalDateTime getCreatedAt();
+
+    /**
+     * Время слияния пулл реквеста.
+     *
+     * @return время слияния
+     */
+    LocalDateTime getMergedAt();
+
+    /**
+     * Признак того, что пулл реквест слит этим запросом, а не ранее.
+     *
+     * @return true, если статус изменен этим запросом
+     */
+    Boolean getMergedNow();
+
+    /**
+     * Идентификатор назначенного ревьювера.
+     *
+     * @return идентификатор ревьювера или null, если ревьюверы не назначены
+     */
+    String getReviewerId();
+}
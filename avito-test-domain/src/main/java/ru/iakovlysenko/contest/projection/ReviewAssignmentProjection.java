@@ -0,0 +1,26 @@
+package ru.iakovlysenko.contest.projection;
+
+import ru.iakovlysenko.contest.enums.PrStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция назначения ревьювера с краткой информацией о пулл реквесте.
+ * Заполняется конструктором прямо из JPQL-запроса, без загрузки управляемых сущностей.
+ * Используется для эндпоинта /users/getReview
+ *
+ * @param pullRequestId идентификатор пулл реквеста
+ * @param pullRequestName название пулл реквеста
+ * @param authorId идентификатор автора пулл реквеста
+ * @param status статус пулл реквеста
+ * @param assignedAt время назначения ревьювера
+ * @author Iakov Lysenko
+ */
+public record ReviewAssignmentProjection(
+        String pullRequestId,
+        String pullRequestName,
+        String authorId,
+        PrStatus status,
+        LocalDateTime assignedAt
+) {
+}
@@ -0,0 +1,32 @@
+package ru.iakovlysenko.contest.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Проекция для количества назначений ревьювера за период.
+ *
+ * @author Iakov Lysenko
+ */
+public interface ReviewerAssignmentsPeriodProjection {
+
+    /**
+     * Идентификатор ревьювера.
+     *
+     * @return идентификатор ревьювера
+     */
+    String getReviewerId();
+
+    /**
+     * Первый день периода.
+     *
+     * @return первый день периода
+     */
+    LocalDate getPeriodStart();
+
+    /**
+     * Количество назначений ревьювера за период.
+     *
+     * @return количество назначений
+     */
+    Long getAssignmentsCount();
+}
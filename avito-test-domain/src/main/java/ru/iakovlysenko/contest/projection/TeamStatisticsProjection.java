@@ -0,0 +1,51 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для сводных показателей команды.
+ *
+ * @author Iakov Lysenko
+ */
+public interface TeamStatisticsProjection {
+
+    /**
+     * Имя команды.
+     *
+     * @return имя команды
+     */
+    String getTeamName();
+
+    /**
+     * Количество участников команды.
+     *
+     * @return количество участников
+     */
+    Long getMembersCount();
+
+    /**
+     * Количество открытых пулл реквестов авторов команды.
+     *
+     * @return количество открытых пулл реквестов
+     */
+    Long getOpenPullRequestsCount();
+
+    /**
+     * Количество пулл реквестов авторов команды в любом статусе.
+     *
+     * @return количество пулл реквестов
+     */
+    Long getPullRequestsCount();
+
+    /**
+     * Количество назначений ревьюверами участников команды.
+     *
+     * @return количество назначений участников
+     */
+    Long getAssignmentsCount();
+
+    /**
+     * Количество назначений ревьюверов на пулл реквесты авторов команды.
+     *
+     * @return количество назначений на пулл реквесты команды
+     */
+    Long getPullRequestReviewersCount();
+}
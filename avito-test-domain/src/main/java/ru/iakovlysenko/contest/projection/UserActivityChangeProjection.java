@@ -0,0 +1,30 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для результата массовой установки флага активности пользователей.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserActivityChangeProjection {
+
+    /**
+     * Идентификатор пользователя.
+     *
+     * @return идентификатор пользователя
+     */
+    String getId();
+
+    /**
+     * Имя команды пользователя.
+     *
+     * @return имя команды
+     */
+    String getTeamName();
+
+    /**
+     * Признак того, что флаг активности изменен этим запросом, а не был установлен ранее.
+     *
+     * @return true, если флаг изменен
+     */
+    Boolean getChanged();
+}
@@ -0,0 +1,16 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция итогов переноса строк импорта в таблицы пользователей и команд.
+ *
+ * @param teamsCreated количество созданных команд
+ * @param usersCreated количество созданных пользователей
+ * @param usersUpdated количество обновленных существующих пользователей
+ * @author Iakov Lysenko
+ */
+public record UserImportResultProjection(
+        long teamsCreated,
+        long usersCreated,
+        long usersUpdated
+) {
+}
@@ -0,0 +1,18 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проверенная строка массового импорта пользователей, передаваемая во временную таблицу командой COPY.
+ *
+ * @param id идентификатор пользователя
+ * @param username имя пользователя
+ * @param teamName имя команды пользователя
+ * @param isActive флаг активности пользователя
+ * @author Iakov Lysenko
+ */
+public record UserImportRowProjection(
+        String id,
+        String username,
+        String teamName,
+        boolean isActive
+) {
+}
@@ -0,0 +1,30 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для принадлежности пользователя команде.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserMembershipProjection {
+
+    /**
+     * Идентификатор пользователя.
+     *
+     * @return идентификатор пользователя
+     */
+    String getId();
+
+    /**
+     * Имя команды пользователя.
+     *
+     * @return имя команды
+     */
+    String getTeamName();
+
+    /**
+     * Флаг активности пользователя.
+     *
+     * @return true, если пользователь активен
+     */
+    Boolean getIsActive();
+}
@@ -0,0 +1,23 @@
+package ru.iakovlysenko.contest.projection;
+
+/**
+ * Проекция для результата удаления участников из команды.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserRemovalProjection {
+
+    /**
+     * Идентификатор пользователя.
+     *
+     * @return идентификатор пользователя
+     */
+    String getId();
+
+    /**
+     * Признак того, что пользователь удален. Пользователь с историей пулл реквестов или ревью не удаляется.
+     *
+     * @return true, если пользователь удален
+     */
+    Boolean getRemoved();
+}
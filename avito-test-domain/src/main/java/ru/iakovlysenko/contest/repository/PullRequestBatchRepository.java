@@ -0,0 +1,32 @@
+package ru.iakovlysenko.contest.repository;
+
+import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+
+import java.util.List;
+
+/**
+ * Репозиторий пакетной записи пулл реквестов через JDBC batch.
+ *
+ * @author Iakov Lysenko
+ */
+public interface PullRequestBatchRepository {
+
+    /**
+     * Пакетно вставляет пулл реквесты, пропуская те, чей ID уже занят в словаре {@code pull_request_ids}.
+     * Внутренний ключ пулл реквеста выдается словарем, а ключ автора определяется по его идентификатору в том же запросе.
+     *
+     * @param pullRequests пулл реквесты с заполненными id, названием, автором, статусом и временем создания
+     * @return количество вставленных строк для каждого пулл реквеста в порядке списка: 1 - вставлен, 0 - ID уже занят
+     */
+    int[] insertAllSkippingExisting(List<PullRequest> pullRequests);
+
+    /**
+     * Пакетно вставляет назначения ревьюверов.
+     * Внутренние ключи пулл реквеста и ревьювера определяются по их идентификаторам в том же запросе.
+     *
+     * @param reviewers назначения с заполненными пулл реквестом, ревьювером (достаточно идентификаторов),
+     *                  статусом и временем создания
+     */
+    void insertReviewers(List<PullRequestReviewer> reviewers);
+}
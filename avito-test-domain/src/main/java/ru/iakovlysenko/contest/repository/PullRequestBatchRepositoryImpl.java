@@ -0,0 +1,65 @@
+package ru.iakovlysenko.contest.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Реализация репозитория {@link PullRequestBatchRepository}.
+ *
+ * @author Iakov Lysenko
+ */
+@RequiredArgsConstructor
+public class PullRequestBatchRepositoryImpl implements PullRequestBatchRepository {
+
+    private static final String INSERT_PULL_REQUEST_SQL = """
+            WITH registered AS (
+                INSERT INTO pull_request_ids (id) VALUES (?)
+                ON CONFLICT (id) DO NOTHING
+                RETURNING pull_request_key, id
+            )
+            INSERT INTO pull_requests (pull_request_key, id, pull_request_name, author_key, status, created_at)
+            SELECT r.pull_request_key, r.id, ?, (SELECT user_key FROM users WHERE id = ?), ?, ?
+            FROM registered r
+            """;
+
+    private static final String INSERT_REVIEWER_SQL = """
+            INSERT INTO pull_request_reviewers (pull_request_key, reviewer_key, created_at, pull_request_status)
+            VALUES ((SELECT pull_request_key FROM pull_request_ids WHERE id = ?), (SELECT user_key FROM users WHERE id = ?), ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertAllSkippingExisting(List<PullRequest> pullRequests) {
+        if (pullRequests.isEmpty()) {
+            return new int[0];
+        }
+
+        return jdbcTemplate.batchUpdate(INSERT_PULL_REQUEST_SQL, pullRequests, pullRequests.size(), (ps, pullRequest) -> {
+            ps.setString(1, pullRequest.getId());
+            ps.setString(2, pullRequest.getPullRequestName());
+            ps.setString(3, pullRequest.getAuthorId());
+            ps.setString(4, pullRequest.getStatus().name());
+            ps.setTimestamp(5, Timestamp.valueOf(pullRequest.getCreatedAt()));
+        })[0];
+    }
+
+    @Override
+    public void insertReviewers(List<PullRequestReviewer> reviewers) {
+        if (reviewers.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_REVIEWER_SQL, reviewers, reviewers.size(), (ps, reviewer) -> {
+            ps.setString(1, reviewer.getPullRequestId());
+            ps.setString(2, reviewer.getReviewerId());
+            ps.setTimestamp(3, Timestamp.valueOf(reviewer.getCreatedAt()));
+            ps.setString(4, reviewer.getPullRequestStatus().name());
+        });
+    }
+}
@@ -1,14 +1,25 @@
 package ru.iakovlysenko.contest.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.projection.MergeLatencyProjection;
+import ru.iakovlysenko.contest.projection.PullRequestCreationProjection;
+import ru.iakovlysenko.contest.projection.PullRequestMergeProjection;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для {@link PullRequest}
@@ -16,7 +27,7 @@ import java.util.Optional;
  * @author Iakov Lysenko
  */
 @Repository
-public interface PullRequestRepository extends JpaRepository<PullRequest, String> {
+public interface PullRequestRepository extends JpaRepository<PullRequest, Long>, PullRequestBatchRepository {
 
     /**
      * Поиск PR по ID
@@ -32,27 +43,200 @@ public interface PullRequestRepository extends JpaRepository<PullRequest, String
      * @param id идентификатор PR
      * @return PR с загруженными ревьюверами
      */
-    @EntityGraph(attributePaths = {"reviewers", "author"})
+    @EntityGraph(attributePaths = {"reviewers", "reviewers.reviewer", "author"})
     @Query("SELECT pr FROM PullRequest pr WHERE pr.id = :id")
     Optional<PullRequest> findByIdWithReviewers(@Param("id") String id);
 
     /**
-     * Проверка существования PR по ID
+     * Атомарное создание открытого PR одним запросом: проверка занятости ID, чтение автора, регистрация ID
+     * в словаре {@code pull_request_ids} с пропуском при конфликте и вставка PR в горячую секцию под выданным ключом.
+     * Занятость ID сообщается независимо от автора, чтобы повторный ID всегда приводил к PR_EXISTS.
+     * При параллельном создании PR с одним ID вставка выполняется ровно один раз,
+     * остальные запросы дожидаются коммита и получают признак {@code inserted = false}.
      *
      * @param id идентификатор PR
-     * @return true, если PR существует
+     * @param pullRequestName название PR
+     * @param authorId идентификатор автора
+     * @param createdAt время создания PR
+     * @return признак занятости ID, автор (пустой, если не найден) и признак вставки PR.
+     *         PR не вставляется, если ID занят, автор не найден или не активен
      */
-    boolean existsById(String id);
+    @Transactional
+    @Query(value = """
+            WITH author AS (
+                SELECT u.user_key, u.id, t.team_name, u.is_active
+                FROM users u
+                JOIN teams t ON t.team_key = u.team_key
+                WHERE u.id = :authorId
+            ),
+            registered AS (
+                INSERT INTO pull_request_ids (id)
+                SELECT :id FROM author a WHERE a.is_active
+                ON CONFLICT (id) DO NOTHING
+                RETURNING pull_request_key, id
+            ),
+            inserted AS (
+                INSERT INTO pull_requests (pull_request_key, id, pull_request_name, author_key, status, created_at)
+                SELECT r.pull_request_key, r.id, :pullRequestName, a.user_key, 'OPEN', :createdAt
+                FROM registered r CROSS JOIN author a
+                RETURNING pull_request_key
+            )
+            SELECT EXISTS (SELECT 1 FROM pull_request_ids i WHERE i.id = :id) AS "pullRequestExists",
+                   a.id AS "authorId",
+                   a.team_name AS "teamName",
+                   a.is_active AS "isActive",
+                   EXISTS (SELECT 1 FROM inserted) AS "inserted"
+            FROM (SELECT 1) s
+            LEFT JOIN author a ON true
+            """, nativeQuery = true)
+    PullRequestCreationProjection insertIfAbsent(@Param("id") String id,
+                                                 @Param("pullRequestName") String pullRequestName,
+                                                 @Param("authorId") String authorId,
+                                                 @Param("createdAt") LocalDateTime createdAt);
 
     /**
-     * Поиск всех PR, где указанный пользователь назначен ревьювером, с загрузкой связей.
-     * Используется для эндпоинта /users/getReview
+     * Блокировка PR до конца транзакции по строкам словаря {@code pull_request_ids} в порядке ID.
+     * Строка PR при слиянии переезжает из горячей секции в холодную, и транзакция, ожидающая её блокировки,
+     * получила бы ошибку сериализации; строка словаря между секциями не перемещается.
+     * Вызывается отдельным запросом до чтения PR, чтобы следующий запрос увидел изменения транзакции,
+     * державшей блокировку.
      *
-     * @param reviewerId идентификатор ревьювера
-     * @return список PR с загруженными связями
+     * @param ids идентификаторы PR
+     * @return идентификаторы найденных PR
      */
-    @EntityGraph(attributePaths = {"author", "reviewers"})
-    @Query("SELECT DISTINCT pr FROM PullRequest pr JOIN pr.reviewers r WHERE r.reviewerId = :reviewerId")
-    List<PullRequest> findByReviewerIdWithDetails(@Param("reviewerId") String reviewerId);
-}
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "SELECT i.id FROM pull_request_ids i WHERE i.id IN (:ids) ORDER BY i.id FOR UPDATE", nativeQuery = true)
+    List<String> lockAllById(@Param("ids") Collection<String> ids);
+
+    /**
+     * Слияние PR одним запросом: условное обновление статуса PR и его назначений
+     * и чтение PR вместе с назначенными ревьюверами.
+     * До обновления блокируется строка PR в словаре {@code pull_request_ids}: она, в отличие от строки PR,
+     * не переезжает в холодную секцию, а после ожидания блокировки читается ее актуальная версия со временем слияния.
+     * Поэтому при параллельном слиянии статус меняется ровно один раз, а остальные запросы возвращают
+     * уже слитый PR с {@code mergedNow = false}. Обновления затрагивают только горячие секции.
+     *
+     * @param id идентификатор PR
+     * @param mergedAt время слияния, если PR ещё не слит
+     * @return по строке на каждого ревьювера PR (одна строка без ревьювера, если их нет); пусто, если PR не найден
+     */
+    @Transactional
+    @Query(value = """
+            WITH locked AS (
+                SELECT i.pull_request_key, i.id, i.merged_at
+                FROM pull_request_ids i
+                WHERE i.id = :id
+                FOR UPDATE
+            ),
+            merged AS (
+                UPDATE pull_requests pr
+                SET status = 'MERGED', merged_at = :mergedAt
+                FROM locked l
+                WHERE pr.status = 'OPEN' AND pr.pull_request_key = l.pull_request_key AND l.merged_at IS NULL
+                RETURNING pr.pull_request_key, pr.merged_at
+            ),
+            merged_ids AS (
+                UPDATE pull_request_ids i
+                SET merged_at = m.merged_at
+                FROM merged m
+                WHERE i.pull_request_key = m.pull_request_key
+            ),
+            merged_reviewers AS (
+                UPDATE pull_request_reviewers r
+                SET pull_request_status = 'MERGED'
+                FROM merged m
+                WHERE r.pull_request_status = 'OPEN' AND r.pull_request_key = m.pull_request_key
+            )
+            SELECT l.id AS "id",
+                   pr.pull_request_name AS "pullRequestName",
+                   a.id AS "authorId",
+                   t.team_name AS "authorTeamName",
+                   pr.created_at AS "createdAt",
+                   COALESCE(m.merged_at, l.merged_at) AS "mergedAt",
+                   m.pull_request_key IS NOT NULL AS "mergedNow",
+                   rv.id AS "reviewerId"
+            FROM locked l
+            JOIN pull_requests pr ON pr.pull_request_key = l.pull_request_key
+            JOIN users a ON a.user_key = pr.author_key
+            JOIN teams t ON t.team_key = a.team_key
+            LEFT JOIN merged m ON m.pull_request_key = l.pull_request_key
+            LEFT JOIN pull_request_reviewers r ON r.pull_request_status = pr.status AND r.pull_request_key = l.pull_request_key
+            LEFT JOIN users rv ON rv.user_key = r.reviewer_key
+            ORDER BY r.created_at, rv.id
+            """, nativeQuery = true)
+    List<PullRequestMergeProjection> mergeById(@Param("id") String id, @Param("mergedAt") LocalDateTime mergedAt);
+
+    /**
+     * Пакетное слияние PR одним запросом: условное обновление статуса всех найденных PR и их назначений
+     * и чтение их вместе с назначенными ревьюверами.
+     * Строки словаря блокируются в порядке ID, чтобы параллельные пакеты с пересекающимися PR не взаимоблокировались.
+     *
+     * @param ids идентификаторы PR
+     * @param mergedAt время слияния для PR, которые ещё не слиты
+     * @return по строке на каждого ревьювера каждого найденного PR (одна строка без ревьювера, если их нет),
+     *         упорядоченные по ID PR; ненайденные PR в результат не попадают
+     */
+    @Transactional
+    @Query(value = """
+            WITH locked AS (
+                SELECT i.pull_request_key, i.id, i.merged_at
+                FROM pull_request_ids i
+                WHERE i.id IN (:ids)
+                ORDER BY i.id
+                FOR UPDATE
+            ),
+            merged AS (
+                UPDATE pull_requests pr
+                SET status = 'MERGED', merged_at = :mergedAt
+                FROM locked l
+                WHERE pr.status = 'OPEN' AND pr.pull_request_key = l.pull_request_key AND l.merged_at IS NULL
+                RETURNING pr.pull_request_key, pr.merged_at
+            ),
+            merged_ids AS (
+                UPDATE pull_request_ids i
+                SET merged_at = m.merged_at
+                FROM merged m
+                WHERE i.pull_request_key = m.pull_request_key
+            ),
+            merged_reviewers AS (
+                UPDATE pull_request_reviewers r
+                SET pull_request_status = 'MERGED'
+                FROM merged m
+                WHERE r.pull_request_status = 'OPEN' AND r.pull_request_key = m.pull_request_key
+            )
+            SELECT l.id AS "id",
+                   pr.pull_request_name AS "pullRequestName",
+                   a.id AS "authorId",
+                   t.team_name AS "authorTeamName",
+                   pr.created_at AS "createdAt",
+                   COALESCE(m.merged_at, l.merged_at) AS "mergedAt",
+                   m.pull_request_key IS NOT NULL AS "mergedNow",
+                   rv.id AS "reviewerId"
+            FROM locked l
+            JOIN pull_requests pr ON pr.pull_request_key = l.pull_request_key
+            JOIN users a ON a.user_key = pr.author_key
+            JOIN teams t ON t.team_key = a.team_key
+            LEFT JOIN merged m ON m.pull_request_key = l.pull_request_key
+            LEFT JOIN pull_request_reviewers r ON r.pull_request_status = pr.status AND r.pull_request_key = l.pull_request_key
+            LEFT JOIN users rv ON rv.user_key = r.reviewer_key
+            ORDER BY l.id, r.created_at, rv.id
+            """, nativeQuery = true)
+    List<PullRequestMergeProjection> mergeAllById(@Param("ids") Collection<String> ids,
+                                                  @Param("mergedAt") LocalDateTime mergedAt);
 
+    /**
+     * Потоковое чтение времени создания и слияния всех слитых PR вместе с командой автора.
+     * Строки читаются курсором порциями фиксированного размера, поэтому потребление памяти
+     * не зависит от количества PR. Должен вызываться внутри транзакции, поток нужно закрыть.
+     * Используется для загрузки гистограмм времени до слияния при старте приложения
+     *
+     * @return поток слитых PR
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new ru.iakovlysenko.contest.projection.MergeLatencyProjection(u.team.teamName, pr.createdAt, pr.mergedAt)
+            FROM PullRequest pr JOIN pr.author u
+            WHERE pr.status = ru.iakovlysenko.contest.enums.PrStatus.MERGED AND pr.mergedAt IS NOT NULL
+            """)
+    Stream<MergeLatencyProjection> streamMergeLatencies();
+}
@@ -0,0 +1,50 @@
+package ru.iakovlysenko.contest.repository;
+
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.ReviewAssignmentProjection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Репозиторий постраничного и потокового чтения назначений ревьювера.
+ *
+ * @author Iakov Lysenko
+ */
+public interface PullRequestReviewerPageRepository {
+
+    /**
+     * Поиск страницы назначений ревьювера с краткой информацией о пулл реквестах.
+     * Строки читаются сразу в проекции: сущности не загружаются в контекст персистентности
+     * и не участвуют в проверке изменений при коммите.
+     * Назначения упорядочены от новых к старым по времени назначения и идентификатору PR: индекс
+     * idx_pr_reviewers_reviewer_key_created_pr отдает их в порядке времени назначения в каждой секции,
+     * и доупорядочить нужно только назначения с одинаковым временем.
+     * Открытые назначения читаются только из горячей секции, холодные секции слитых PR не затрагиваются.
+     * Используется для эндпоинта /users/getReview
+     *
+     * @param reviewerId идентификатор ревьювера
+     * @param status статус пулл реквестов; null - пулл реквесты в любом статусе
+     * @param afterCreatedAt время последнего назначения предыдущей страницы; null - первая страница
+     * @param afterPullRequestId идентификатор PR последнего назначения предыдущей страницы
+     * @param limit максимальное количество назначений
+     * @return назначения с краткой информацией о пулл реквестах
+     */
+    List<ReviewAssignmentProjection> findReviewPage(String reviewerId, PrStatus status,
+                                                    LocalDateTime afterCreatedAt, String afterPullRequestId,
+                                                    int limit);
+
+    /**
+     * Потоковое чтение всех назначений ревьювера с краткой информацией о пулл реквестах
+     * в том же порядке, что и {@link #findReviewPage}.
+     * Строки читаются однонаправленным курсором JDBC порциями фиксированного размера и передаются
+     * обработчику по одной, поэтому потребление памяти не зависит от количества назначений.
+     * Должен вызываться внутри транзакции: вне ее PostgreSQL не использует курсор и загружает весь результат.
+     *
+     * @param reviewerId идентификатор ревьювера
+     * @param status статус пулл реквестов; null - пулл реквесты в любом статусе
+     * @param action обработчик назначения
+     */
+    void streamReviews(String reviewerId, PrStatus status, Consumer<ReviewAssignmentProjection> action);
+}
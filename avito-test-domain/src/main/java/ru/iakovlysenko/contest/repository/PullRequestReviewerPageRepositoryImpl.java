@@ -0,0 +1,107 @@
+package ru.iakovlysenko.contest.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.ReviewAssignmentProjection;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Реализация репозитория {@link PullRequestReviewerPageRepository}.
+ *
+ * @author Iakov Lysenko
+ */
+@RequiredArgsConstructor
+public class PullRequestReviewerPageRepositoryImpl implements PullRequestReviewerPageRepository {
+
+    /**
+     * PR соединяется с назначением и по статусу: статус назначения совпадает со статусом PR,
+     * и условие позволяет читать PR только из секции этого статуса.
+     */
+    private static final String SELECT_REVIEW_PAGE = "SELECT new " + ReviewAssignmentProjection.class.getName()
+            + "(pr.id, pr.pullRequestName, pr.author.id, pr.status, prr.createdAt) "
+            + "FROM PullRequestReviewer prr JOIN prr.pullRequest pr ON pr.status = prr.pullRequestStatus JOIN prr.reviewer r "
+            + "WHERE r.id = :reviewerId";
+
+    /**
+     * Условие курсора (created_at, id) < (:afterCreatedAt, :afterPullRequestId), записанное так,
+     * чтобы граница по времени назначения проверялась по индексу назначений ревьювера.
+     */
+    private static final String AFTER_CURSOR = " AND prr.createdAt <= :afterCreatedAt"
+            + " AND (prr.createdAt < :afterCreatedAt OR pr.id < :afterPullRequestId)";
+
+    private static final String ORDER_BY_NEWEST = " ORDER BY prr.createdAt DESC, pr.id DESC";
+
+    private static final String SELECT_REVIEWS_SQL = """
+            SELECT pr.id, pr.pull_request_name, a.id, pr.status, prr.created_at
+            FROM pull_request_reviewers prr
+            JOIN pull_requests pr ON pr.status = prr.pull_request_status AND pr.pull_request_key = prr.pull_request_key
+            JOIN users a ON a.user_key = pr.author_key
+            WHERE prr.reviewer_key = (SELECT user_key FROM users WHERE id = ?)
+            """;
+
+    private static final String ORDER_BY_NEWEST_SQL = " ORDER BY prr.created_at DESC, pr.id DESC";
+
+    /**
+     * Количество строк, которое курсор получает от базы за одно обращение.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ReviewAssignmentProjection> findReviewPage(String reviewerId, PrStatus status,
+                                                           LocalDateTime afterCreatedAt, String afterPullRequestId,
+                                                           int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_REVIEW_PAGE);
+        if (status != null) {
+            // Статус подставляется литералом, а не параметром: так PostgreSQL отсекает секции назначений
+            // и, через условие соединения по статусу, секции PR еще при планировании, а не при каждом выполнении.
+            jpql.append(" AND prr.pullRequestStatus = ").append(PrStatus.class.getName()).append('.').append(status.name());
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(AFTER_CURSOR);
+        }
+        jpql.append(ORDER_BY_NEWEST);
+
+        TypedQuery<ReviewAssignmentProjection> query = entityManager.createQuery(jpql.toString(), ReviewAssignmentProjection.class)
+                .setParameter("reviewerId", reviewerId)
+                .setMaxResults(limit);
+        if (afterCreatedAt != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt)
+                    .setParameter("afterPullRequestId", afterPullRequestId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public void streamReviews(String reviewerId, PrStatus status, Consumer<ReviewAssignmentProjection> action) {
+        // Статус подставляется литералом по той же причине, что и в findReviewPage
+        String sql = status != null
+                ? SELECT_REVIEWS_SQL + " AND prr.pull_request_status = '" + status.name() + "'" + ORDER_BY_NEWEST_SQL
+                : SELECT_REVIEWS_SQL + ORDER_BY_NEWEST_SQL;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setString(1, reviewerId);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new ReviewAssignmentProjection(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                PrStatus.valueOf(rs.getString(4)),
+                rs.getTimestamp(5).toLocalDateTime()
+        )));
+    }
+}
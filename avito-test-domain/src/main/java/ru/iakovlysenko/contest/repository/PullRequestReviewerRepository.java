@@ -1,15 +1,21 @@
 package ru.iakovlysenko.contest.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.iakovlysenko.contest.entity.PullRequestReviewer;
 import ru.iakovlysenko.contest.entity.PullRequestReviewerId;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.OpenReviewAssignmentProjection;
 import ru.iakovlysenko.contest.projection.PullRequestReviewersCountProjection;
 import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,43 +24,196 @@ import java.util.List;
  * @author Iakov Lysenko
  */
 @Repository
-public interface PullRequestReviewerRepository extends JpaRepository<PullRequestReviewer, PullRequestReviewerId> {
+public interface PullRequestReviewerRepository extends JpaRepository<PullRequestReviewer, PullRequestReviewerId>,
+        PullRequestReviewerPageRepository {
 
     /**
-     * Проверка существования назначения ревьювера на PR
+     * Проверка существования назначения ревьювера на открытый PR.
+     * Назначение ищется только в горячей секции открытых PR
      *
      * @param pullRequestId идентификатор PR
      * @param reviewerId идентификатор ревьювера
      * @return true, если назначение существует
      */
-    boolean existsByPullRequestIdAndReviewerId(String pullRequestId, String reviewerId);
+    @Query("SELECT COUNT(prr) > 0 FROM PullRequestReviewer prr "
+            + "WHERE prr.pullRequestStatus = ru.iakovlysenko.contest.enums.PrStatus.OPEN "
+            + "AND prr.pullRequest.id = :pullRequestId AND prr.reviewer.id = :reviewerId")
+    boolean existsOpenByPullRequestIdAndReviewerId(@Param("pullRequestId") String pullRequestId,
+                                                   @Param("reviewerId") String reviewerId);
 
     /**
-     * Удаление ревьювера из PR
+     * Удаление ревьювера из открытого PR
      *
      * @param pullRequestId идентификатор PR
      * @param reviewerId идентификатор ревьювера
      */
     @Modifying
-    @Query("DELETE FROM PullRequestReviewer prr WHERE prr.pullRequestId = :pullRequestId AND prr.reviewerId = :reviewerId")
-    void deleteByPullRequestIdAndReviewerId(@Param("pullRequestId") String pullRequestId, @Param("reviewerId") String reviewerId);
+    @Query("DELETE FROM PullRequestReviewer prr "
+            + "WHERE prr.pullRequestStatus = ru.iakovlysenko.contest.enums.PrStatus.OPEN "
+            + "AND prr.pullRequestKey = (SELECT pr.pullRequestKey FROM PullRequest pr "
+            + "WHERE pr.status = ru.iakovlysenko.contest.enums.PrStatus.OPEN AND pr.id = :pullRequestId) "
+            + "AND prr.reviewerKey = (SELECT u.userKey FROM User u WHERE u.id = :reviewerId)")
+    void deleteOpenByPullRequestIdAndReviewerId(@Param("pullRequestId") String pullRequestId,
+                                                @Param("reviewerId") String reviewerId);
+
+    /**
+     * Блокировка до конца транзакции открытых пулл реквестов, где ревьювером назначен хотя бы один из указанных
+     * пользователей, чтобы их не слили и не переназначили параллельно.
+     * Блокируются строки словаря {@code pull_request_ids} в порядке ID: строка PR при слиянии переезжает
+     * в холодную секцию, а строка словаря остается на месте.
+     * Вызывается отдельным запросом до {@link #findOpenAssignmentsByPullRequestIds}, чтобы чтение назначений
+     * увидело изменения транзакции, державшей блокировку.
+     *
+     * @param reviewerIds идентификаторы ревьюверов
+     * @return идентификаторы заблокированных пулл реквестов
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = """
+            SELECT i.id
+            FROM pull_request_ids i
+            WHERE i.pull_request_key IN (SELECT r.pull_request_key FROM pull_request_reviewers r
+                                         JOIN users ru ON ru.user_key = r.reviewer_key
+                                         WHERE ru.id IN (:reviewerIds) AND r.pull_request_status = 'OPEN')
+            ORDER BY i.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<String> lockOpenPullRequestIdsByReviewerIds(@Param("reviewerIds") Collection<String> reviewerIds);
+
+    /**
+     * Поиск всех назначений на указанные пулл реквесты, которые все еще открыты.
+     * Пулл реквесты и назначения читаются только из горячих секций.
+     *
+     * @param pullRequestIds идентификаторы пулл реквестов
+     * @return назначения всех ревьюверов открытых пулл реквестов, упорядоченные по пулл реквесту и времени назначения
+     */
+    @Query(value = """
+            SELECT pr.id AS "pullRequestId",
+                   a.id AS "authorId",
+                   u.id AS "reviewerId",
+                   t.team_name AS "reviewerTeamName"
+            FROM pull_requests pr
+            JOIN users a ON a.user_key = pr.author_key
+            JOIN pull_request_reviewers prr ON prr.pull_request_key = pr.pull_request_key
+            JOIN users u ON u.user_key = prr.reviewer_key
+            JOIN teams t ON t.team_key = u.team_key
+            WHERE pr.status = 'OPEN' AND prr.pull_request_status = 'OPEN' AND pr.id IN (:pullRequestIds)
+            ORDER BY pr.id, prr.created_at, u.id
+            """, nativeQuery = true)
+    List<OpenReviewAssignmentProjection> findOpenAssignmentsByPullRequestIds(
+            @Param("pullRequestIds") Collection<String> pullRequestIds);
+
+    /**
+     * Удаление назначений указанных ревьюверов на указанные открытые пулл реквесты.
+     * Назначения на другие пулл реквесты, в том числе созданные параллельно после блокировки
+     * {@link #lockOpenPullRequestIdsByReviewerIds}, не затрагиваются.
+     *
+     * @param reviewerIds идентификаторы ревьюверов
+     * @param pullRequestIds идентификаторы пулл реквестов
+     * @return количество удаленных назначений
+     */
+    @Modifying
+    @Query("DELETE FROM PullRequestReviewer prr "
+            + "WHERE prr.pullRequestStatus = ru.iakovlysenko.contest.enums.PrStatus.OPEN "
+            + "AND prr.reviewerKey IN (SELECT u.userKey FROM User u WHERE u.id IN :reviewerIds) "
+            + "AND prr.pullRequestKey IN (SELECT pr.pullRequestKey FROM PullRequest pr "
+            + "WHERE pr.status = ru.iakovlysenko.contest.enums.PrStatus.OPEN AND pr.id IN :pullRequestIds)")
+    int deleteOpenByReviewerIdsAndPullRequestIds(@Param("reviewerIds") Collection<String> reviewerIds,
+                                                 @Param("pullRequestIds") Collection<String> pullRequestIds);
 
     /**
      * Получение количества назначений для каждого ревьювера.
      *
      * @return список проекций с идентификатором ревьювера и количеством назначений
      */
-    @Query("SELECT prr.reviewerId AS reviewerId, COUNT(prr) AS assignmentsCount "
-            + "FROM PullRequestReviewer prr GROUP BY prr.reviewerId")
+    @Query("SELECT r.id AS reviewerId, COUNT(prr) AS assignmentsCount "
+            + "FROM PullRequestReviewer prr JOIN prr.reviewer r GROUP BY r.id")
     List<ReviewerAssignmentCountProjection> countAssignmentsPerReviewer();
 
+    /**
+     * Получение количества назначений для каждого ревьювера по пулл реквестам с указанным статусом.
+     *
+     * @param status статус пулл реквеста
+     * @return список проекций с идентификатором ревьювера и количеством назначений
+     */
+    @Query("SELECT r.id AS reviewerId, COUNT(prr) AS assignmentsCount "
+            + "FROM PullRequestReviewer prr JOIN prr.reviewer r "
+            + "WHERE prr.pullRequestStatus = :status GROUP BY r.id")
+    List<ReviewerAssignmentCountProjection> countAssignmentsPerReviewerByStatus(@Param("status") PrStatus status);
+
     /**
      * Получение количества ревьюверов для каждого пулл реквеста.
      *
      * @return список проекций с идентификатором пулл реквеста и количеством ревьюверов
      */
-    @Query("SELECT prr.pullRequestId AS pullRequestId, COUNT(prr) AS reviewersCount "
-            + "FROM PullRequestReviewer prr GROUP BY prr.pullRequestId")
+    @Query("SELECT pr.id AS pullRequestId, COUNT(prr) AS reviewersCount "
+            + "FROM PullRequestReviewer prr JOIN prr.pullRequest pr GROUP BY pr.id")
     List<PullRequestReviewersCountProjection> countReviewersPerPullRequest();
-}
 
+    /**
+     * Получение количества ревьюверов для каждого пулл реквеста с указанным статусом.
+     *
+     * @param status статус пулл реквеста
+     * @return список проекций с идентификатором пулл реквеста и количеством ревьюверов
+     */
+    @Query("SELECT pr.id AS pullRequestId, COUNT(prr) AS reviewersCount "
+            + "FROM PullRequestReviewer prr JOIN prr.pullRequest pr "
+            + "WHERE prr.pullRequestStatus = :status GROUP BY pr.id")
+    List<PullRequestReviewersCountProjection> countReviewersPerPullRequestByStatus(@Param("status") PrStatus status);
+
+    /**
+     * Получение ревьюверов с наибольшим количеством назначений.
+     * Ревьюверы с одинаковым количеством назначений упорядочены по идентификатору.
+     *
+     * @param limit максимальное количество ревьюверов
+     * @return список проекций с идентификатором ревьювера и количеством назначений
+     */
+    @Query("SELECT r.id AS reviewerId, COUNT(prr) AS assignmentsCount "
+            + "FROM PullRequestReviewer prr JOIN prr.reviewer r GROUP BY r.id "
+            + "ORDER BY COUNT(prr) DESC, r.id")
+    List<ReviewerAssignmentCountProjection> findTopReviewersByAssignments(Limit limit);
+
+    /**
+     * Получение ревьюверов команды с наибольшим количеством назначений.
+     * Ревьюверы с одинаковым количеством назначений упорядочены по идентификатору.
+     *
+     * @param teamName название команды ревьюверов
+     * @param limit максимальное количество ревьюверов
+     * @return список проекций с идентификатором ревьювера и количеством назначений
+     */
+    @Query("SELECT u.id AS reviewerId, COUNT(prr) AS assignmentsCount "
+            + "FROM PullRequestReviewer prr JOIN prr.reviewer u "
+            + "WHERE u.team.teamName = :teamName GROUP BY u.id "
+            + "ORDER BY COUNT(prr) DESC, u.id")
+    List<ReviewerAssignmentCountProjection> findTopReviewersByAssignmentsInTeam(@Param("teamName") String teamName,
+                                                                                Limit limit);
+
+    /**
+     * Получение страницы количества ревьюверов по пулл реквестам в порядке идентификаторов.
+     * Пулл реквесты читаются по индексам идентификатора секций, а их назначения - по первичному ключу назначений,
+     * поэтому чтение останавливается на размере страницы.
+     *
+     * @param afterPullRequestId идентификатор последнего PR предыдущей страницы; пустая строка - первая страница
+     * @param limit максимальное количество пулл реквестов
+     * @return список проекций с идентификатором пулл реквеста и количеством ревьюверов
+     */
+    @Query("SELECT pr.id AS pullRequestId, COUNT(prr) AS reviewersCount "
+            + "FROM PullRequestReviewer prr JOIN prr.pullRequest pr WHERE pr.id > :afterPullRequestId "
+            + "GROUP BY pr.id ORDER BY pr.id")
+    List<PullRequestReviewersCountProjection> findReviewersPerPullRequestPage(
+            @Param("afterPullRequestId") String afterPullRequestId, Limit limit);
+
+    /**
+     * Получение страницы количества ревьюверов по пулл реквестам авторов из команды в порядке идентификаторов.
+     *
+     * @param teamName название команды авторов пулл реквестов
+     * @param afterPullRequestId идентификатор последнего PR предыдущей страницы; пустая строка - первая страница
+     * @param limit максимальное количество пулл реквестов
+     * @return список проекций с идентификатором пулл реквеста и количеством ревьюверов
+     */
+    @Query("SELECT pr.id AS pullRequestId, COUNT(prr) AS reviewersCount "
+            + "FROM PullRequestReviewer prr JOIN prr.pullRequest pr JOIN pr.author a "
+            + "WHERE a.team.teamName = :teamName AND pr.id > :afterPullRequestId "
+            + "GROUP BY pr.id ORDER BY pr.id")
+    List<PullRequestReviewersCountProjection> findReviewersPerPullRequestPageInTeam(
+            @Param("teamName") String teamName, @Param("afterPullRequestId") String afterPullRequestId, Limit limit);
+}
@@ -0,0 +1,69 @@
+package ru.iakovlysenko.contest.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.iakovlysenko.contest.entity.ReviewerAssignmentsDaily;
+import ru.iakovlysenko.contest.entity.ReviewerAssignmentsDailyId;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentsPeriodProjection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий для {@link ReviewerAssignmentsDaily}
+ *
+ * @author Iakov Lysenko
+ */
+@Repository
+public interface ReviewerAssignmentsDailyRepository extends JpaRepository<ReviewerAssignmentsDaily, ReviewerAssignmentsDailyId> {
+
+    /**
+     * Получение количества назначений всех ревьюверов по периодам из дневной свертки.
+     * Период начинается с дня, усеченного функцией date_trunc, поэтому крайние недели диапазона
+     * учитывают только дни внутри диапазона.
+     *
+     * @param period единица периода для date_trunc: day или week
+     * @param from первый день диапазона
+     * @param to последний день диапазона включительно
+     * @return список проекций, упорядоченный по началу периода и идентификатору ревьювера
+     */
+    @Query(value = """
+            SELECT u.id AS "reviewerId",
+                   CAST(date_trunc(:period, CAST(d.day AS TIMESTAMP)) AS DATE) AS "periodStart",
+                   SUM(d.assignments_count) AS "assignmentsCount"
+            FROM reviewer_assignments_daily d
+            JOIN users u ON u.user_key = d.reviewer_key
+            WHERE d.day BETWEEN :from AND :to AND d.assignments_count > 0
+            GROUP BY "reviewerId", "periodStart"
+            ORDER BY "periodStart", "reviewerId"
+            """, nativeQuery = true)
+    List<ReviewerAssignmentsPeriodProjection> sumAssignmentsByPeriod(@Param("period") String period,
+                                                                     @Param("from") LocalDate from,
+                                                                     @Param("to") LocalDate to);
+
+    /**
+     * Получение количества назначений ревьювера по периодам из дневной свертки.
+     *
+     * @param reviewerId идентификатор ревьювера
+     * @param period единица периода для date_trunc: day или week
+     * @param from первый день диапазона
+     * @param to последний день диапазона включительно
+     * @return список проекций, упорядоченный по началу периода
+     */
+    @Query(value = """
+            SELECT u.id AS "reviewerId",
+                   CAST(date_trunc(:period, CAST(d.day AS TIMESTAMP)) AS DATE) AS "periodStart",
+                   SUM(d.assignments_count) AS "assignmentsCount"
+            FROM reviewer_assignments_daily d
+            JOIN users u ON u.user_key = d.reviewer_key
+            WHERE u.id = :reviewerId AND d.day BETWEEN :from AND :to AND d.assignments_count > 0
+            GROUP BY "reviewerId", "periodStart"
+            ORDER BY "periodStart"
+            """, nativeQuery = true)
+    List<ReviewerAssignmentsPeriodProjection> sumReviewerAssignmentsByPeriod(@Param("reviewerId") String reviewerId,
+                                                                             @Param("period") String period,
+                                                                             @Param("from") LocalDate from,
+                                                                             @Param("to") LocalDate to);
+}
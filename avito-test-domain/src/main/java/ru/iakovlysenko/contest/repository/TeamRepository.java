@@ -1,9 +1,16 @@
 package ru.iakovlysenko.contest.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.iakovlysenko.contest.entity.Team;
+import ru.iakovlysenko.contest.projection.TeamStatisticsProjection;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,7 +19,7 @@ import java.util.Optional;
  * @author Iakov Lysenko
  */
 @Repository
-public interface TeamRepository extends JpaRepository<Team, String> {
+public interface TeamRepository extends JpaRepository<Team, Long> {
 
     /**
      * Поиск команды по имени
@@ -29,5 +36,71 @@ public interface TeamRepository extends JpaRepository<Team, String> {
      * @return true, если команда существует
      */
     boolean existsByTeamName(String teamName);
-}
 
+    /**
+     * Вставка команды, если команды с таким именем ещё нет.
+     * При параллельной вставке одной команды запрос дожидается коммита первой транзакции и ничего не вставляет.
+     *
+     * @param teamName имя команды
+     * @param createdAt время создания команды
+     * @return 1, если команда вставлена; 0, если команда уже существует
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO teams (team_name, created_at, updated_at)
+            VALUES (:teamName, :createdAt, :createdAt)
+            ON CONFLICT (team_name) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("teamName") String teamName, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Сводные показатели всех команд одним запросом: каждая таблица агрегируется по команде один раз,
+     * а результаты соединяются со списком команд.
+     * Пулл реквесты относятся к команде автора, назначения - к команде ревьювера (по текущему составу команд).
+     * Используется для эндпоинта /statistics/teams
+     *
+     * @return показатели каждой команды, упорядоченные по имени команды
+     */
+    @Query(value = """
+            WITH members AS (
+                SELECT team_key, COUNT(*) AS members_count
+                FROM users
+                GROUP BY team_key
+            ),
+            pull_requests_by_team AS (
+                SELECT u.team_key,
+                       COUNT(*) AS pull_requests_count,
+                       COUNT(*) FILTER (WHERE pr.status = 'OPEN') AS open_pull_requests_count
+                FROM pull_requests pr
+                JOIN users u ON u.user_key = pr.author_key
+                GROUP BY u.team_key
+            ),
+            reviewers_by_author_team AS (
+                SELECT u.team_key, COUNT(*) AS pull_request_reviewers_count
+                FROM pull_request_reviewers r
+                JOIN pull_requests pr ON pr.pull_request_key = r.pull_request_key
+                JOIN users u ON u.user_key = pr.author_key
+                GROUP BY u.team_key
+            ),
+            assignments_by_reviewer_team AS (
+                SELECT u.team_key, COUNT(*) AS assignments_count
+                FROM pull_request_reviewers r
+                JOIN users u ON u.user_key = r.reviewer_key
+                GROUP BY u.team_key
+            )
+            SELECT t.team_name AS "teamName",
+                   COALESCE(m.members_count, 0) AS "membersCount",
+                   COALESCE(p.open_pull_requests_count, 0) AS "openPullRequestsCount",
+                   COALESCE(p.pull_requests_count, 0) AS "pullRequestsCount",
+                   COALESCE(a.assignments_count, 0) AS "assignmentsCount",
+                   COALESCE(rv.pull_request_reviewers_count, 0) AS "pullRequestReviewersCount"
+            FROM teams t
+            LEFT JOIN members m ON m.team_key = t.team_key
+            LEFT JOIN pull_requests_by_team p ON p.team_key = t.team_key
+            LEFT JOIN reviewers_by_author_team rv ON rv.team_key = t.team_key
+            LEFT JOIN assignments_by_reviewer_team a ON a.team_key = t.team_key
+            ORDER BY t.team_name
+            """, nativeQuery = true)
+    List<TeamStatisticsProjection> getTeamStatistics();
+}
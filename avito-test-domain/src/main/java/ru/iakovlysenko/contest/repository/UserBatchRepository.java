@@ -0,0 +1,22 @@
+package ru.iakovlysenko.contest.repository;
+
+import ru.iakovlysenko.contest.entity.User;
+
+import java.util.List;
+
+/**
+ * Репозиторий пакетной записи пользователей через JDBC batch.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserBatchRepository {
+
+    /**
+     * Пакетно вставляет пользователей, а уже существующим обновляет имя, команду и флаг активности.
+     * Время создания существующих пользователей не меняется.
+     * Идентификаторы в списке должны быть уникальными.
+     *
+     * @param users пользователи с заполненными id, именем, командой, флагом активности и временем создания и изменения
+     */
+    void upsertAll(List<User> users);
+}
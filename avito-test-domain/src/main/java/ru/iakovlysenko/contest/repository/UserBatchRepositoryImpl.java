@@ -0,0 +1,45 @@
+package ru.iakovlysenko.contest.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.iakovlysenko.contest.entity.User;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Реализация репозитория {@link UserBatchRepository}.
+ *
+ * @author Iakov Lysenko
+ */
+@RequiredArgsConstructor
+public class UserBatchRepositoryImpl implements UserBatchRepository {
+
+    private static final String UPSERT_USER_SQL = """
+            INSERT INTO users (id, username, team_key, is_active, created_at, updated_at)
+            VALUES (?, ?, (SELECT team_key FROM teams WHERE team_name = ?), ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET username = EXCLUDED.username,
+                team_key = EXCLUDED.team_key,
+                is_active = EXCLUDED.is_active,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            ps.setString(1, user.getId());
+            ps.setString(2, user.getUsername());
+            ps.setString(3, user.getTeamName());
+            ps.setBoolean(4, user.getIsActive());
+            ps.setTimestamp(5, Timestamp.valueOf(user.getCreatedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(user.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package ru.iakovlysenko.contest.repository;
+
+import ru.iakovlysenko.contest.projection.UserImportResultProjection;
+import ru.iakovlysenko.contest.projection.UserImportRowProjection;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * Репозиторий массового импорта пользователей через COPY PostgreSQL.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserImportRepository {
+
+    /**
+     * Передает строки во временную таблицу командой COPY, читая их из итератора по одной,
+     * и одним запросом переносит их в таблицы команд и пользователей: недостающие команды создаются,
+     * существующим пользователям обновляются имя, команда и флаг активности.
+     * Если идентификатор встречается несколько раз, применяется последняя строка.
+     * Должен вызываться внутри транзакции: временная таблица удаляется при её завершении.
+     *
+     * @param rows строки импорта
+     * @param importedAt время создания и изменения записей
+     * @return количество созданных команд, созданных и обновленных пользователей
+     */
+    UserImportResultProjection importUsers(Iterator<UserImportRowProjection> rows, LocalDateTime importedAt);
+}
@@ -0,0 +1,131 @@
+package ru.iakovlysenko.contest.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.iakovlysenko.contest.projection.UserImportResultProjection;
+import ru.iakovlysenko.contest.projection.UserImportRowProjection;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * Реализация репозитория {@link UserImportRepository}.
+ * <p>
+ * Строки пишутся в COPY через буфер фиксированного размера, поэтому память не зависит от их количества.
+ *
+ * @author Iakov Lysenko
+ */
+@RequiredArgsConstructor
+public class UserImportRepositoryImpl implements UserImportRepository {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE_SQL = """
+            CREATE TEMPORARY TABLE users_import (
+                line BIGINT GENERATED ALWAYS AS IDENTITY,
+                id TEXT NOT NULL,
+                username TEXT NOT NULL,
+                team_name TEXT NOT NULL,
+                is_active BOOLEAN NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING_SQL =
+            "COPY users_import (id, username, team_name, is_active) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MERGE_STAGING_SQL = """
+            WITH staged AS (
+                SELECT DISTINCT ON (id) id, username, team_name, is_active
+                FROM users_import
+                ORDER BY id, line DESC
+            ),
+            created_teams AS (
+                INSERT INTO teams (team_name, created_at, updated_at)
+                SELECT DISTINCT team_name, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)
+                FROM staged
+                ON CONFLICT (team_name) DO NOTHING
+                RETURNING team_name, team_key
+            ),
+            merged_users AS (
+                INSERT INTO users (id, username, team_key, is_active, created_at, updated_at)
+                SELECT s.id, s.username, COALESCE(c.team_key, t.team_key), s.is_active,
+                       CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)
+                FROM staged s
+                LEFT JOIN created_teams c ON c.team_name = s.team_name
+                LEFT JOIN teams t ON t.team_name = s.team_name
+                ON CONFLICT (id) DO UPDATE
+                SET username = EXCLUDED.username,
+                    team_key = EXCLUDED.team_key,
+                    is_active = EXCLUDED.is_active,
+                    updated_at = EXCLUDED.updated_at
+                RETURNING xmax = 0 AS inserted
+            )
+            SELECT (SELECT COUNT(*) FROM created_teams) AS teams_created,
+                   COUNT(*) FILTER (WHERE inserted) AS users_created,
+                   COUNT(*) FILTER (WHERE NOT inserted) AS users_updated
+            FROM merged_users
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public UserImportResultProjection importUsers(Iterator<UserImportRowProjection> rows, LocalDateTime importedAt) {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection ->
+                copyRows(connection.unwrap(PGConnection.class), rows));
+
+        Timestamp timestamp = Timestamp.valueOf(importedAt);
+        return jdbcTemplate.queryForObject(MERGE_STAGING_SQL,
+                (rs, rowNum) -> new UserImportResultProjection(
+                        rs.getLong("teams_created"),
+                        rs.getLong("users_created"),
+                        rs.getLong("users_updated")
+                ),
+                timestamp, timestamp, timestamp, timestamp);
+    }
+
+    private static long copyRows(PGConnection connection, Iterator<UserImportRowProjection> rows) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection, COPY_STAGING_SQL, COPY_BUFFER_SIZE);
+        try {
+            Writer writer = new OutputStreamWriter(copy, StandardCharsets.UTF_8);
+            while (rows.hasNext()) {
+                writeRow(writer, rows.next());
+            }
+            writer.flush();
+            return copy.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeRow(Writer writer, UserImportRowProjection row) throws IOException {
+        writeQuoted(writer, row.id());
+        writer.write(',');
+        writeQuoted(writer, row.username());
+        writer.write(',');
+        writeQuoted(writer, row.teamName());
+        writer.write(',');
+        writer.write(row.isActive() ? "t" : "f");
+        writer.write('\n');
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -4,9 +4,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import ru.iakovlysenko.contest.entity.Team;
+import org.springframework.transaction.annotation.Transactional;
 import ru.iakovlysenko.contest.entity.User;
+import ru.iakovlysenko.contest.projection.UserActivityChangeProjection;
+import ru.iakovlysenko.contest.projection.UserMembershipProjection;
+import ru.iakovlysenko.contest.projection.UserRemovalProjection;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +21,7 @@ import java.util.Optional;
  * @author Iakov Lysenko
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, Long>, UserBatchRepository, UserImportRepository {
 
     /**
      * Поиск пользователя по ID
@@ -44,24 +49,171 @@ public interface UserRepository extends JpaRepository<User, String> {
     List<User> findByTeamName(@Param("teamName") String teamName);
 
     /**
-     * Поиск активных пользователей команды, исключая указанного пользователя.
-     * Используется для выбора ревьюверов при создании PR (исключая автора).
+     * Поиск идентификаторов активных пользователей команды.
+     * Используется для загрузки состава команды в индекс выбора ревьюверов.
      *
-     * @param team команда
-     * @param excludeUserId идентификатор пользователя для исключения (обычно автор PR)
-     * @return список активных пользователей команды, кроме указанного
+     * @param teamName имя команды
+     * @return список идентификаторов активных пользователей команды
      */
-    @Query("SELECT u FROM User u WHERE u.team = :team AND u.isActive = true AND u.id != :excludeUserId")
-    List<User> findActiveUsersByTeamExcludingUser(@Param("team") Team team, @Param("excludeUserId") String excludeUserId);
+    @Query("SELECT u.id FROM User u WHERE u.team.teamName = :teamName AND u.isActive = true")
+    List<String> findActiveUserIdsByTeamName(@Param("teamName") String teamName);
 
     /**
-     * Поиск активных пользователей той же команды, что и указанный пользователь, исключая самого пользователя.
-     * Используется для переназначения ревьювера.
+     * Поиск указанных пользователей и всех активных участников их команд одним запросом.
+     * Используется при пакетном создании пулл реквестов для загрузки авторов и составов их команд.
      *
-     * @param userId идентификатор пользователя (заменяемого ревьювера)
-     * @return список активных пользователей той же команды, кроме указанного
+     * @param ids идентификаторы пользователей
+     * @return указанные пользователи и активные участники их команд
      */
-    @Query("SELECT u FROM User u WHERE u.team = (SELECT u2.team FROM User u2 WHERE u2.id = :userId) AND u.isActive = true AND u.id != :userId")
-    List<User> findActiveTeamMembersExcludingUser(@Param("userId") String userId);
-}
+    @Query("""
+            SELECT u.id AS id, u.team.teamName AS teamName, u.isActive AS isActive
+            FROM User u
+            WHERE u.id IN :ids
+               OR (u.isActive = true AND u.team.teamName IN (
+                   SELECT a.team.teamName FROM User a WHERE a.id IN :ids
+               ))
+            """)
+    List<UserMembershipProjection> findWithActiveTeammates(@Param("ids") Collection<String> ids);
+
+    /**
+     * Установка флага активности всем участникам команды одним запросом.
+     * Строки, где флаг уже имеет нужное значение, не перезаписываются.
+     *
+     * @param teamName имя команды
+     * @param isActive новое значение флага активности
+     * @param updatedAt время изменения
+     * @return все участники команды с признаком изменения флага
+     */
+    @Transactional
+    @Query(value = """
+            WITH target AS (
+                SELECT u.user_key, u.id, t.team_name, u.is_active
+                FROM users u
+                JOIN teams t ON t.team_key = u.team_key
+                WHERE t.team_name = :teamName
+                ORDER BY u.id
+                FOR UPDATE OF u
+            ),
+            updated AS (
+                UPDATE users u
+                SET is_active = :isActive, updated_at = :updatedAt
+                FROM target t
+                WHERE u.user_key = t.user_key AND t.is_active <> :isActive
+                RETURNING u.user_key
+            )
+            SELECT t.id AS "id", t.team_name AS "teamName", up.user_key IS NOT NULL AS "changed"
+            FROM target t
+            LEFT JOIN updated up ON up.user_key = t.user_key
+            ORDER BY t.id
+            """, nativeQuery = true)
+    List<UserActivityChangeProjection> setIsActiveByTeamName(@Param("teamName") String teamName,
+                                                             @Param("isActive") boolean isActive,
+                                                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Установка флага активности указанным пользователям одним запросом.
+     * Строки, где флаг уже имеет нужное значение, не перезаписываются.
+     *
+     * @param ids идентификаторы пользователей
+     * @param isActive новое значение флага активности
+     * @param updatedAt время изменения
+     * @return найденные пользователи с признаком изменения флага
+     */
+    @Transactional
+    @Query(value = """
+            WITH target AS (
+                SELECT u.user_key, u.id, t.team_name, u.is_active
+                FROM users u
+                JOIN teams t ON t.team_key = u.team_key
+                WHERE u.id IN (:ids)
+                ORDER BY u.id
+                FOR UPDATE OF u
+            ),
+            updated AS (
+                UPDATE users u
+                SET is_active = :isActive, updated_at = :updatedAt
+                FROM target t
+                WHERE u.user_key = t.user_key AND t.is_active <> :isActive
+                RETURNING u.user_key
+            )
+            SELECT t.id AS "id", t.team_name AS "teamName", up.user_key IS NOT NULL AS "changed"
+            FROM target t
+            LEFT JOIN updated up ON up.user_key = t.user_key
+            ORDER BY t.id
+            """, nativeQuery = true)
+    List<UserActivityChangeProjection> setIsActiveByIds(@Param("ids") Collection<String> ids,
+                                                        @Param("isActive") boolean isActive,
+                                                        @Param("updatedAt") LocalDateTime updatedAt);
 
+    /**
+     * Установка флага активности указанным участникам команды одним запросом.
+     * Пользователи из других команд не изменяются и не возвращаются.
+     * Строки, где флаг уже имеет нужное значение, не перезаписываются.
+     *
+     * @param teamName имя команды
+     * @param ids идентификаторы пользователей
+     * @param isActive новое значение флага активности
+     * @param updatedAt время изменения
+     * @return найденные участники команды с признаком изменения флага
+     */
+    @Transactional
+    @Query(value = """
+            WITH target AS (
+                SELECT u.user_key, u.id, t.team_name, u.is_active
+                FROM users u
+                JOIN teams t ON t.team_key = u.team_key
+                WHERE t.team_name = :teamName AND u.id IN (:ids)
+                ORDER BY u.id
+                FOR UPDATE OF u
+            ),
+            updated AS (
+                UPDATE users u
+                SET is_active = :isActive, updated_at = :updatedAt
+                FROM target t
+                WHERE u.user_key = t.user_key AND t.is_active <> :isActive
+                RETURNING u.user_key
+            )
+            SELECT t.id AS "id", t.team_name AS "teamName", up.user_key IS NOT NULL AS "changed"
+            FROM target t
+            LEFT JOIN updated up ON up.user_key = t.user_key
+            ORDER BY t.id
+            """, nativeQuery = true)
+    List<UserActivityChangeProjection> setIsActiveByTeamNameAndIds(@Param("teamName") String teamName,
+                                                                   @Param("ids") Collection<String> ids,
+                                                                   @Param("isActive") boolean isActive,
+                                                                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Удаление указанных участников команды одним запросом.
+     * Удаляются только пользователи без пулл реквестов и назначений ревьювером: история ревью не теряется.
+     *
+     * @param teamName имя команды
+     * @param ids идентификаторы пользователей
+     * @return найденные участники команды с признаком удаления
+     */
+    @Transactional
+    @Query(value = """
+            WITH target AS (
+                SELECT u.user_key, u.id,
+                       NOT EXISTS (SELECT 1 FROM pull_requests p WHERE p.author_key = u.user_key)
+                           AND NOT EXISTS (SELECT 1 FROM pull_request_reviewers r WHERE r.reviewer_key = u.user_key) AS removable
+                FROM users u
+                JOIN teams tm ON tm.team_key = u.team_key
+                WHERE tm.team_name = :teamName AND u.id IN (:ids)
+                ORDER BY u.id
+                FOR UPDATE OF u
+            ),
+            deleted AS (
+                DELETE FROM users u
+                USING target t
+                WHERE u.user_key = t.user_key AND t.removable
+                RETURNING u.user_key
+            )
+            SELECT t.id AS "id", d.user_key IS NOT NULL AS "removed"
+            FROM target t
+            LEFT JOIN deleted d ON d.user_key = t.user_key
+            ORDER BY t.id
+            """, nativeQuery = true)
+    List<UserRemovalProjection> deleteRemovableByTeamNameAndIds(@Param("teamName") String teamName,
+                                                               @Param("ids") Collection<String> ids);
+}
@@ -0,0 +1,14 @@
+package ru.iakovlysenko.contest.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация фоновых задач по расписанию: сверки счетчиков статистики с базой.
+ *
+ * @author Iakov Lysenko
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
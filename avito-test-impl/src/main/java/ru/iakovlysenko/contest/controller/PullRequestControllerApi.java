@@ -3,9 +3,13 @@ package ru.iakovlysenko.contest.controller;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestWrapperResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
 
@@ -24,6 +28,14 @@ public interface PullRequestControllerApi {
      */
     ResponseEntity<PullRequestWrapperResponse> createPullRequest(@Valid @RequestBody CreatePullRequestRequest request);
 
+    /**
+     * Создает пакет пулл реквестов и назначает каждому до 2 ревьюверов из команды автора.
+     *
+     * @param request ДТО запроса на пакетное создание пулл реквестов
+     * @return ДТО ответа с результатом по каждому пулл реквесту
+     */
+    ResponseEntity<PullRequestBatchResponse> createPullRequests(@Valid @RequestBody CreatePullRequestBatchRequest request);
+
     /**
      * Помечает пулл реквест как слитый (идемпотентная операция).
      *
@@ -32,6 +44,14 @@ public interface PullRequestControllerApi {
      */
     ResponseEntity<PullRequestWrapperResponse> mergePullRequest(@Valid @RequestBody MergePullRequestRequest request);
 
+    /**
+     * Помечает пакет пулл реквестов как слитые (идемпотентная операция).
+     *
+     * @param request ДТО запроса на пакетное слияние пулл реквестов
+     * @return ДТО ответа с результатом по каждому пулл реквесту
+     */
+    ResponseEntity<PullRequestMergeBatchResponse> mergePullRequests(@Valid @RequestBody MergePullRequestBatchRequest request);
+
     /**
      * Переназначает ревьювера на другого из его команды.
      *
@@ -1,7 +1,15 @@
 package ru.iakovlysenko.contest.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.http.ResponseEntity;
-import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
+
+import java.io.IOException;
+import java.time.LocalDate;
 
 /**
  * Контроллер для работы со статистикой назначений ревьюверов.
@@ -10,8 +18,51 @@ public interface StatisticsControllerApi {
 
     /**
      * Возвращает агрегированную статистику назначений.
+     * Без параметров выборки статистика отдается из заранее рассчитанного снимка, возраст которого
+     * в секундах передается в заголовке {@code Age}; количество ревьюверов в снимке - только по открытым
+     * пулл реквестам. С параметрами выборки статистика считается запросами к базе данных на момент запроса,
+     * а количество ревьюверов возвращается постранично по всем пулл реквестам, включая слитые.
+     *
+     * @param refresh пересчитать снимок синхронно перед ответом
+     * @param teamName команда ревьюверов и авторов пулл реквестов
+     * @param top количество пользователей с наибольшим числом назначений; по умолчанию 10 на первой странице,
+     *            на следующих страницах без явного {@code top} назначения по пользователям не возвращаются
+     * @param limit размер страницы пулл реквестов
+     * @param after курсор следующей страницы пулл реквестов из предыдущего ответа
+     * @return сериализованный в JSON ответ со статистикой
+     * @throws IOException если выборку не удалось сериализовать
+     */
+    ResponseEntity<byte[]> getStatistics(boolean refresh,
+                                         String teamName,
+                                         @Min(1) @Max(1000) Integer top,
+                                         @Min(1) @Max(1000) Integer limit,
+                                         String after) throws IOException;
+
+    /**
+     * Возвращает количество назначений ревьюверов по дням или неделям за диапазон дат.
+     *
+     * @param from первый день диапазона
+     * @param to последний день диапазона включительно
+     * @param granularity шаг временного ряда
+     * @param userId идентификатор ревьювера
+     * @return ДТО ответа с количеством назначений по периодам
+     */
+    ResponseEntity<StatisticsTimeseriesResponse> getAssignmentsTimeseries(LocalDate from,
+                                                                          LocalDate to,
+                                                                          TimeseriesGranularity granularity,
+                                                                          String userId);
+
+    /**
+     * Возвращает процентили времени от создания до слияния пулл реквестов по командам.
+     *
+     * @return ДТО ответа с процентилями p50, p90 и p99 по командам
+     */
+    ResponseEntity<MergeLatencyResponse> getMergeLatency();
+
+    /**
+     * Возвращает сводные показатели по каждой команде.
      *
-     * @return ДТО ответа со статистикой
+     * @return ДТО ответа с показателями команд
      */
-    ResponseEntity<StatisticsResponse> getStatistics();
+    ResponseEntity<TeamStatisticsResponse> getTeamStatistics();
 }
@@ -5,8 +5,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
 import ru.iakovlysenko.contest.dto.response.TeamWrapperResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 
 /**
  * Контроллер для работы с командами.
@@ -31,4 +33,13 @@ public interface TeamControllerApi {
      */
     ResponseEntity<TeamResponse> getTeam(@RequestParam("team_name") String teamName);
 
+    /**
+     * Изменяет состав существующей команды: добавляет, удаляет, активирует и деактивирует участников.
+     * При деактивации может переназначить открытые ревью деактивированных участников.
+     *
+     * @param request ДТО запроса на изменение состава команды
+     * @return ДТО ответа с итогами каждого изменения
+     */
+    ResponseEntity<UpdateTeamMembersResponse> updateMembers(@Valid @RequestBody UpdateTeamMembersRequest request);
+
 }
@@ -1,14 +1,25 @@
 package ru.iakovlysenko.contest.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.CreateUserRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
 import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
+import ru.iakovlysenko.contest.enums.PrStatus;
+
+import java.io.IOException;
 
 /**
  * Контроллер для работы с пользователями.
@@ -19,19 +30,48 @@ public interface UserControllerApi {
 
     /**
      * Устанавливает флаг активности пользователя.
+     * При деактивации может переназначить все открытые ревью пользователя.
      *
      * @param request ДТО запроса на установку флага активности
-     * @return ДТО ответа с информацией о пользователе
+     * @return ДТО ответа с информацией о пользователе и итогами переназначения
      */
     ResponseEntity<UserWrapperResponse> setIsActive(@Valid @RequestBody SetIsActiveRequest request);
 
     /**
-     * Получает список пулл реквестов, где пользователь назначен ревьювером.
+     * Устанавливает флаг активности всем участникам команды или указанным пользователям.
+     * При деактивации может переназначить все открытые ревью затронутых пользователей.
+     *
+     * @param request ДТО запроса на массовую установку флага активности
+     * @return ДТО ответа с затронутыми пользователями и итогами переназначения
+     */
+    ResponseEntity<BulkSetIsActiveResponse> bulkSetIsActive(@Valid @RequestBody BulkSetIsActiveRequest request);
+
+    /**
+     * Получает страницу пулл реквестов, где пользователь назначен ревьювером.
+     *
+     * @param userId идентификатор пользователя
+     * @param status статус пулл реквестов; если не задан, возвращаются пулл реквесты в любом статусе
+     * @param limit размер страницы
+     * @param after курсор следующей страницы из предыдущего ответа
+     * @return ДТО ответа со списком пулл реквестов и курсором следующей страницы
+     */
+    ResponseEntity<GetReviewResponse> getReview(@RequestParam("user_id") String userId,
+                                                PrStatus status,
+                                                @Min(1) @Max(1000) Integer limit,
+                                                String after);
+
+    /**
+     * Передает в ответ в формате NDJSON все пулл реквесты, где пользователь назначен ревьювером,
+     * по одной строке на пулл реквест, не собирая их в память.
      *
      * @param userId идентификатор пользователя
-     * @return ДТО ответа со списком пулл реквестов
+     * @param status статус пулл реквестов; если не задан, передаются пулл реквесты в любом статусе
+     * @param response HTTP ответ, в который записываются строки
+     * @throws IOException если запись в ответ не удалась
      */
-    ResponseEntity<GetReviewResponse> getReview(@RequestParam("user_id") String userId);
+    void streamReview(@RequestParam("user_id") String userId,
+                      PrStatus status,
+                      HttpServletResponse response) throws IOException;
 
     /**
      * Создает нового пользователя в системе.
@@ -39,6 +79,18 @@ public interface UserControllerApi {
      * @param createUserRequest ДТО запроса с данными для создания пользователя
      * @return ДТО с анными пользователя
      */
-    ResponseEntity<UserResponse> createUser(CreateUserRequest createUserRequest);
+    ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest createUserRequest);
+
+    /**
+     * Импортирует пользователей из выгрузки в CSV или NDJSON, читая тело запроса потоком.
+     * Недостающие команды создаются, существующие пользователи обновляются,
+     * а строки с ошибками пропускаются и перечисляются в ответе.
+     *
+     * @param contentType тип содержимого запроса: {@code text/csv} или {@code application/x-ndjson}
+     * @param request HTTP запрос, из тела которого читаются строки
+     * @return ДТО ответа с итогами импорта и ошибками в строках
+     * @throws IOException если чтение тела запроса не удалось
+     */
+    ResponseEntity<UserImportResponse> importUsers(MediaType contentType, HttpServletRequest request) throws IOException;
 
 }
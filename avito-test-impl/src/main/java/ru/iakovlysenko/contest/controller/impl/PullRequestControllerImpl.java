@@ -7,9 +7,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.iakovlysenko.contest.controller.PullRequestControllerApi;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestWrapperResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
 import ru.iakovlysenko.contest.service.PullRequestService;
@@ -40,6 +44,17 @@ public class PullRequestControllerImpl implements PullRequestControllerApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @Override
+    @PostMapping("/createBatch")
+    public ResponseEntity<PullRequestBatchResponse> createPullRequests(
+            @Valid @RequestBody CreatePullRequestBatchRequest request) {
+        log.info("POST /pullRequest/createBatch - Пакетное создание пулл реквестов: {}", request.pullRequests().size());
+        
+        PullRequestBatchResponse response = pullRequestService.createPullRequests(request);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @Override
     @PostMapping("/merge")
     public ResponseEntity<PullRequestWrapperResponse> mergePullRequest(
@@ -53,6 +68,17 @@ public class PullRequestControllerImpl implements PullRequestControllerApi {
         return ResponseEntity.ok(response);
     }
     
+    @Override
+    @PostMapping("/mergeBatch")
+    public ResponseEntity<PullRequestMergeBatchResponse> mergePullRequests(
+            @Valid @RequestBody MergePullRequestBatchRequest request) {
+        log.info("POST /pullRequest/mergeBatch - Пакетное слияние пулл реквестов: {}", request.pullRequestIds().size());
+        
+        PullRequestMergeBatchResponse response = pullRequestService.mergePullRequests(request);
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @Override
     @PostMapping("/reassign")
     public ResponseEntity<ReassignResponse> reassignReviewer(
@@ -1,33 +1,102 @@
 package ru.iakovlysenko.contest.controller.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.iakovlysenko.contest.controller.StatisticsControllerApi;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
 import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsSnapshot;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
 import ru.iakovlysenko.contest.service.StatisticsService;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+
 /**
  * Реализация контроллера {@link StatisticsControllerApi}.
  */
 @RestController
 @RequestMapping("/statistics")
+@Validated
 @Slf4j
 @RequiredArgsConstructor
 public class StatisticsControllerImpl implements StatisticsControllerApi {
 
     private final StatisticsService statisticsService;
+    private final ObjectMapper objectMapper;
 
     @Override
-    @GetMapping
-    public ResponseEntity<StatisticsResponse> getStatistics() {
-        log.info("GET /statistics - Получение статистики назначений");
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getStatistics(
+            @RequestParam(value = "refresh", defaultValue = "false") boolean refresh,
+            @RequestParam(value = "team_name", required = false) String teamName,
+            @RequestParam(value = "top", required = false) Integer top,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) String after) throws IOException {
+        log.info("GET /statistics - Получение статистики назначений, пересчет: {}, команда: {}, топ: {}",
+                refresh, teamName, top);
+
+        if (teamName != null || top != null || limit != null || after != null) {
+            StatisticsResponse response = statisticsService.getStatistics(teamName, top, limit, after);
+            return statisticsResponse(objectMapper.writeValueAsBytes(response), 0L);
+        }
+
+        StatisticsSnapshot snapshot = refresh ? statisticsService.refreshSnapshot() : statisticsService.getSnapshot();
 
-        StatisticsResponse response = statisticsService.getStatistics();
+        return statisticsResponse(snapshot.json(), snapshot.age(Instant.now()).toSeconds());
+    }
+
+    @Override
+    @GetMapping("/timeseries")
+    public ResponseEntity<StatisticsTimeseriesResponse> getAssignmentsTimeseries(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = "DAY") TimeseriesGranularity granularity,
+            @RequestParam(value = "user_id", required = false) String userId) {
+        log.info("GET /statistics/timeseries - Получение временного ряда назначений: {} - {}, шаг {}", from, to, granularity);
+
+        StatisticsTimeseriesResponse response = statisticsService.getAssignmentsTimeseries(from, to, granularity, userId);
 
         return ResponseEntity.ok(response);
     }
+
+    @Override
+    @GetMapping("/mergeLatency")
+    public ResponseEntity<MergeLatencyResponse> getMergeLatency() {
+        log.info("GET /statistics/mergeLatency - Получение времени до слияния пулл реквестов по командам");
+
+        MergeLatencyResponse response = statisticsService.getMergeLatency();
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    @GetMapping("/teams")
+    public ResponseEntity<TeamStatisticsResponse> getTeamStatistics() {
+        log.info("GET /statistics/teams - Получение статистики по командам");
+
+        TeamStatisticsResponse response = statisticsService.getTeamStatistics();
+
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<byte[]> statisticsResponse(byte[] json, long ageSeconds) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AGE, String.valueOf(ageSeconds))
+                .body(json);
+    }
 }
@@ -8,8 +8,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.iakovlysenko.contest.controller.TeamControllerApi;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
 import ru.iakovlysenko.contest.dto.response.TeamWrapperResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 import ru.iakovlysenko.contest.service.TeamService;
 
 /**
@@ -46,4 +48,14 @@ public class TeamControllerImpl implements TeamControllerApi {
         
         return ResponseEntity.ok(teamResponse);
     }
+    
+    @Override
+    @PatchMapping("/members")
+    public ResponseEntity<UpdateTeamMembersResponse> updateMembers(@Valid @RequestBody UpdateTeamMembersRequest request) {
+        log.info("PATCH /team/members - Изменение состава команды: {}", request.teamName());
+        
+        UpdateTeamMembersResponse response = teamService.updateMembers(request);
+        
+        return ResponseEntity.ok(response);
+    }
 }
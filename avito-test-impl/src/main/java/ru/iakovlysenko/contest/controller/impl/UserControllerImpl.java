@@ -1,18 +1,36 @@
 package ru.iakovlysenko.contest.controller.impl;
 
-import jakarta.validation.Valid;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.iakovlysenko.contest.controller.UserControllerApi;
+import ru.iakovlysenko.contest.dto.enums.UserImportFormat;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.CreateUserRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
 import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.service.UserImportService;
 import ru.iakovlysenko.contest.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Реализация контроллера {@link UserControllerApi}
  *
@@ -20,38 +38,73 @@ import ru.iakovlysenko.contest.service.UserService;
  */
 @RestController
 @RequestMapping("/users")
+@Validated
 @Slf4j
 @RequiredArgsConstructor
 public class UserControllerImpl implements UserControllerApi {
     
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
+    private final ObjectMapper objectMapper;
+
     @Override
     @PostMapping("/setIsActive")
-    public ResponseEntity<UserWrapperResponse> setIsActive(@Valid @RequestBody SetIsActiveRequest request) {
+    public ResponseEntity<UserWrapperResponse> setIsActive(@RequestBody SetIsActiveRequest request) {
         log.info("POST /users/setIsActive - Установка флага активности для пользователя {} в {}", 
                 request.userId(), request.isActive());
         
-        var userResponse = userService.setIsActive(request);
+        UserWrapperResponse response = userService.setIsActive(request);
         
-        UserWrapperResponse response = new UserWrapperResponse(userResponse);
+        return ResponseEntity.ok(response);
+    }
+    
+    @Override
+    @PostMapping("/bulkSetIsActive")
+    public ResponseEntity<BulkSetIsActiveResponse> bulkSetIsActive(@RequestBody BulkSetIsActiveRequest request) {
+        log.info("POST /users/bulkSetIsActive - Массовая установка флага активности в {}", request.isActive());
+        
+        BulkSetIsActiveResponse response = userService.bulkSetIsActive(request);
         
         return ResponseEntity.ok(response);
     }
     
     @Override
     @GetMapping("/getReview")
-    public ResponseEntity<GetReviewResponse> getReview(@RequestParam("user_id") String userId) {
-        log.info("GET /users/getReview - Получение ревью для пользователя: {}", userId);
+    public ResponseEntity<GetReviewResponse> getReview(
+            @RequestParam("user_id") String userId,
+            @RequestParam(value = "status", required = false) PrStatus status,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /users/getReview - Получение ревью для пользователя: {}, статус: {}", userId, status);
         
-        GetReviewResponse response = userService.getReview(userId);
+        GetReviewResponse response = userService.getReview(userId, status, limit, after);
         
         return ResponseEntity.ok(response);
     }
 
+    @Override
+    @GetMapping(value = "/getReview", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamReview(
+            @RequestParam("user_id") String userId,
+            @RequestParam(value = "status", required = false) PrStatus status,
+            HttpServletResponse response) throws IOException {
+        log.info("GET /users/getReview (NDJSON) - Потоковое получение ревью для пользователя: {}, статус: {}", userId, status);
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Ответ сбрасывается в сеть по мере заполнения буфера, а не после каждой строки
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = writer.createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        userService.streamReview(userId, status, pullRequest -> writeLine(writer, generator, pullRequest));
+        generator.flush();
+    }
+
     @Override
     @PostMapping
-    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest createUserRequest) {
+    public ResponseEntity<UserResponse> createUser(@RequestBody CreateUserRequest createUserRequest) {
         log.info("POST /users - Создание нового пользователя");
 
         UserResponse response = userService.createUser(createUserRequest);
@@ -59,5 +112,25 @@ public class UserControllerImpl implements UserControllerApi {
         return ResponseEntity.ok(response);
     }
 
-}
+    @Override
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        log.info("POST /users/import - Импорт пользователей, формат: {}", contentType);
+
+        UserImportResponse response = userImportService.importUsers(request.getInputStream(), UserImportFormat.of(contentType));
+
+        return ResponseEntity.ok(response);
+    }
 
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
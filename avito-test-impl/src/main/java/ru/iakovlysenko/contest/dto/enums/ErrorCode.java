@@ -11,6 +11,12 @@ public enum ErrorCode {
     PR_MERGED,
     NOT_ASSIGNED,
     NO_CANDIDATE,
-    NOT_FOUND
+    NOT_FOUND,
+    INVALID_CURSOR,
+    INVALID_RANGE,
+    INVALID_IMPORT,
+    IDEMPOTENCY_KEY_REUSED,
+    IDEMPOTENCY_KEY_IN_PROGRESS,
+    IDEMPOTENCY_CACHE_FULL
 }
 
@@ -0,0 +1,12 @@
+package ru.iakovlysenko.contest.dto.enums;
+
+/**
+ * Результат слияния пулл реквеста в пакете
+ *
+ * @author Iakov Lysenko
+ */
+public enum MergeOutcome {
+    MERGED,
+    ALREADY_MERGED,
+    NOT_FOUND
+}
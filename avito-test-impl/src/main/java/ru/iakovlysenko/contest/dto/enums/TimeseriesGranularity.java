@@ -0,0 +1,21 @@
+package ru.iakovlysenko.contest.dto.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Шаг временного ряда статистики назначений
+ *
+ * @author Iakov Lysenko
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TimeseriesGranularity {
+    DAY("day"),
+    WEEK("week");
+
+    /**
+     * Единица периода для функции date_trunc PostgreSQL.
+     */
+    private final String period;
+}
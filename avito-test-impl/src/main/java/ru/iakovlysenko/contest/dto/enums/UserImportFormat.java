@@ -0,0 +1,38 @@
+package ru.iakovlysenko.contest.dto.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+/**
+ * Формат файла массового импорта пользователей
+ *
+ * @author Iakov Lysenko
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserImportFormat {
+    CSV(MediaType.valueOf("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    /**
+     * Тип содержимого запроса, в котором передается файл.
+     */
+    private final MediaType mediaType;
+
+    /**
+     * Определяет формат по типу содержимого запроса без учета его параметров.
+     *
+     * @param contentType тип содержимого запроса
+     * @return формат файла
+     * @throws IllegalArgumentException если тип содержимого не соответствует ни одному формату
+     */
+    public static UserImportFormat of(MediaType contentType) {
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.includes(contentType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неподдерживаемый формат импорта: " + contentType));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.iakovlysenko.contest.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * ДТО массовой установки флага активности пользователей.
+ * Пользователи задаются либо именем команды, либо списком идентификаторов.
+ *
+ * @author Iakov Lysenko
+ */
+public record BulkSetIsActiveRequest(
+        @JsonProperty("team_name")
+        String teamName,
+
+        @JsonProperty("user_ids")
+        @Size(min = 1, max = 1000)
+        List<@NotBlank String> userIds,
+
+        @JsonProperty("is_active")
+        @NotNull
+        Boolean isActive,
+
+        @JsonProperty("reassign_open_reviews")
+        Boolean reassignOpenReviews
+) {
+
+    /**
+     * Проверяет, что задан ровно один способ выбора пользователей.
+     *
+     * @return true, если задано либо имя команды, либо список идентификаторов
+     */
+    @JsonIgnore
+    @AssertTrue(message = "должно быть задано либо team_name, либо user_ids")
+    public boolean isSingleTarget() {
+        boolean byTeam = teamName != null && !teamName.isBlank();
+        return byTeam != (userIds != null);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.iakovlysenko.contest.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * ДТО пакетного создания пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+public record CreatePullRequestBatchRequest(
+        @JsonProperty("pull_requests")
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        List<CreatePullRequestRequest> pullRequests
+) {
+}
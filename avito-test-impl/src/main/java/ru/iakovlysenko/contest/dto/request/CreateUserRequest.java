@@ -2,6 +2,7 @@ package ru.iakovlysenko.contest.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 /**
  * ДТО запроса на создание пользователя.
@@ -11,10 +12,13 @@ import jakarta.validation.constraints.NotNull;
  */
 public record CreateUserRequest(
         @NotBlank
+        @Size(max = 255)
         String id,
         @NotBlank
+        @Size(max = 255)
         String username,
         @NotBlank
+        @Size(max = 255)
         String teamName,
         @NotNull
         Boolean isActive
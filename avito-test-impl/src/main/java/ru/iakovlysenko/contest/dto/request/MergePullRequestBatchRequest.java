@@ -0,0 +1,21 @@
+package ru.iakovlysenko.contest.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * ДТО пакетного слияния пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+public record MergePullRequestBatchRequest(
+        @JsonProperty("pull_request_ids")
+        @NotEmpty
+        @Size(max = 1000)
+        List<@NotBlank String> pullRequestIds
+) {
+}
@@ -16,6 +16,9 @@ public record SetIsActiveRequest(
 
         @JsonProperty("is_active")
         @NotNull
-        Boolean isActive
+        Boolean isActive,
+
+        @JsonProperty("reassign_open_reviews")
+        Boolean reassignOpenReviews
 ) {
 }
@@ -0,0 +1,81 @@
+package ru.iakovlysenko.contest.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ДТО изменения состава команды.
+ * Каждый пользователь может входить только в одно из изменений.
+ *
+ * @author Iakov Lysenko
+ */
+public record UpdateTeamMembersRequest(
+        @JsonProperty("team_name")
+        @NotBlank
+        String teamName,
+
+        @JsonProperty("add")
+        @Size(max = 1000)
+        @Valid
+        List<TeamRequest.TeamMemberRequest> add,
+
+        @JsonProperty("remove")
+        @Size(max = 1000)
+        List<@NotBlank String> remove,
+
+        @JsonProperty("activate")
+        @Size(max = 1000)
+        List<@NotBlank String> activate,
+
+        @JsonProperty("deactivate")
+        @Size(max = 1000)
+        List<@NotBlank String> deactivate,
+
+        @JsonProperty("reassign_open_reviews")
+        Boolean reassignOpenReviews
+) {
+
+    /**
+     * Проверяет, что задано хотя бы одно изменение.
+     *
+     * @return true, если хотя бы один список изменений не пуст
+     */
+    @JsonIgnore
+    @AssertTrue(message = "должно быть задано хотя бы одно из add, remove, activate, deactivate")
+    public boolean isNotEmpty() {
+        return Stream.of(add, remove, activate, deactivate).anyMatch(list -> list != null && !list.isEmpty());
+    }
+
+    /**
+     * Проверяет, что изменения не пересекаются по пользователям.
+     *
+     * @return true, если каждый пользователь входит только в одно изменение
+     */
+    @JsonIgnore
+    @AssertTrue(message = "пользователь может входить только в одно из add, remove, activate, deactivate")
+    public boolean isDisjoint() {
+        Set<String> seen = new HashSet<>();
+        return Stream.of(
+                        nullToEmpty(add).stream().map(TeamRequest.TeamMemberRequest::userId).distinct(),
+                        nullToEmpty(remove).stream().distinct(),
+                        nullToEmpty(activate).stream().distinct(),
+                        nullToEmpty(deactivate).stream().distinct())
+                .flatMap(ids -> ids)
+                .filter(Objects::nonNull)
+                .allMatch(seen::add);
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
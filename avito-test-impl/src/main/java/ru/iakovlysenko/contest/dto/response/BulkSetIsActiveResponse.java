@@ -0,0 +1,30 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа массовой установки флага активности пользователей.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record BulkSetIsActiveResponse(
+        @JsonProperty("is_active")
+        Boolean isActive,
+
+        @JsonProperty("updated")
+        List<String> updated,
+
+        @JsonProperty("unchanged")
+        List<String> unchanged,
+
+        @JsonProperty("not_found")
+        List<String> notFound,
+
+        @JsonProperty("reassignment")
+        ReviewReassignmentResponse reassignment
+) {
+}
@@ -7,6 +7,7 @@ import java.util.List;
 
 /**
  * ДТО ответа с информацией о пулл реквестах, где пользователь назначен ревьювером.
+ * Курсор следующей страницы отсутствует, если страница последняя.
  *
  * @author Iakov Lysenko
  */
@@ -16,6 +17,9 @@ public record GetReviewResponse(
         String userId,
 
         @JsonProperty("pull_requests")
-        List<PullRequestShortResponse> pullRequests
+        List<PullRequestShortResponse> pullRequests,
+
+        @JsonProperty("next_cursor")
+        String nextCursor
 ) {
 }
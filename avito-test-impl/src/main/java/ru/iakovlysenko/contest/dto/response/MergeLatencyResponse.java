@@ -0,0 +1,37 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * ДТО ответа с процентилями времени от создания до слияния пулл реквестов по командам.
+ *
+ * @author Iakov Lysenko
+ */
+public record MergeLatencyResponse(
+        @JsonProperty("teams")
+        List<TeamMergeLatency> teams
+) {
+
+    /**
+     * ДТО процентилей времени до слияния пулл реквестов авторов команды в миллисекундах.
+     */
+    public record TeamMergeLatency(
+            @JsonProperty("team_name")
+            String teamName,
+
+            @JsonProperty("merged_count")
+            Long mergedCount,
+
+            @JsonProperty("p50_ms")
+            Long p50Millis,
+
+            @JsonProperty("p90_ms")
+            Long p90Millis,
+
+            @JsonProperty("p99_ms")
+            Long p99Millis
+    ) {
+    }
+}
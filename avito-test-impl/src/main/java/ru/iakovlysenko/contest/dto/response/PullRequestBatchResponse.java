@@ -0,0 +1,35 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа пакетного создания пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record PullRequestBatchResponse(
+        @JsonProperty("results")
+        List<Item> results
+) {
+    /**
+     * ДТО результата по одному пулл реквесту пакета: созданный пулл реквест либо ошибка.
+     *
+     * @author Iakov Lysenko
+     */
+    @Builder
+    public record Item(
+            @JsonProperty("pull_request_id")
+            String pullRequestId,
+
+            @JsonProperty("pr")
+            PullRequestResponse pr,
+
+            @JsonProperty("error")
+            ErrorResponse.ErrorDetail error
+    ) {
+    }
+}
@@ -0,0 +1,36 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import ru.iakovlysenko.contest.dto.enums.MergeOutcome;
+
+import java.util.List;
+
+/**
+ * ДТО ответа пакетного слияния пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record PullRequestMergeBatchResponse(
+        @JsonProperty("results")
+        List<Item> results
+) {
+    /**
+     * ДТО результата слияния одного пулл реквеста пакета.
+     *
+     * @author Iakov Lysenko
+     */
+    @Builder
+    public record Item(
+            @JsonProperty("pull_request_id")
+            String pullRequestId,
+
+            @JsonProperty("outcome")
+            MergeOutcome outcome,
+
+            @JsonProperty("pr")
+            PullRequestResponse pr
+    ) {
+    }
+}
@@ -0,0 +1,39 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа с итогами массового переназначения открытых ревью.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record ReviewReassignmentResponse(
+        @JsonProperty("reassigned")
+        List<Item> reassigned,
+
+        @JsonProperty("unassigned")
+        List<Item> unassigned
+) {
+    /**
+     * ДТО одного перенесенного назначения.
+     * Для назначения, которое не удалось переназначить, новый ревьювер не указывается.
+     *
+     * @author Iakov Lysenko
+     */
+    @Builder
+    public record Item(
+            @JsonProperty("pull_request_id")
+            String pullRequestId,
+
+            @JsonProperty("old_reviewer_id")
+            String oldReviewerId,
+
+            @JsonProperty("new_reviewer_id")
+            String newReviewerId
+    ) {
+    }
+}
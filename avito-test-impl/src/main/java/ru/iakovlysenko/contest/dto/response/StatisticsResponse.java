@@ -16,7 +16,10 @@ public record StatisticsResponse(
         List<UserAssignmentsStatistic> assignmentsByUser,
 
         @JsonProperty("reviewers_per_pr")
-        List<PullRequestReviewersStatistic> reviewersPerPullRequest
+        List<PullRequestReviewersStatistic> reviewersPerPullRequest,
+
+        @JsonProperty("next_cursor")
+        String nextCursor
 ) {
 
     /**
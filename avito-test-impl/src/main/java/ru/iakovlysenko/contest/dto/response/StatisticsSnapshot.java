@@ -0,0 +1,32 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Неизменяемый снимок статистики назначений, рассчитанный заранее.
+ * <p>
+ * Вместе со статистикой хранит её сериализованный JSON, чтобы ответ отдавался без повторной сериализации.
+ *
+ * @param statistics статистика назначений
+ * @param json       статистика, сериализованная в JSON
+ * @param computedAt момент расчета снимка
+ * @author Iakov Lysenko
+ */
+public record StatisticsSnapshot(
+        StatisticsResponse statistics,
+        byte[] json,
+        Instant computedAt
+) {
+
+    /**
+     * Возвращает возраст снимка относительно переданного момента.
+     *
+     * @param now текущий момент
+     * @return возраст снимка, не меньше нуля
+     */
+    public Duration age(Instant now) {
+        Duration age = Duration.between(computedAt, now);
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ДТО ответа с количеством назначений ревьюверов по дням или неделям.
+ * Периоды без назначений в ответ не попадают.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record StatisticsTimeseriesResponse(
+        @JsonProperty("granularity")
+        TimeseriesGranularity granularity,
+
+        @JsonProperty("from")
+        LocalDate from,
+
+        @JsonProperty("to")
+        LocalDate to,
+
+        @JsonProperty("points")
+        List<Point> points
+) {
+
+    /**
+     * ДТО количества назначений пользователя за период.
+     */
+    public record Point(
+            @JsonProperty("user_id")
+            String userId,
+
+            @JsonProperty("period_start")
+            LocalDate periodStart,
+
+            @JsonProperty("assignments_count")
+            Long assignmentsCount
+    ) {
+    }
+}
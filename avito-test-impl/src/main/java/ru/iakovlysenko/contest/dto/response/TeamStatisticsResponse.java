@@ -0,0 +1,42 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа со сводными показателями по командам.
+ *
+ * @author Iakov Lysenko
+ */
+public record TeamStatisticsResponse(
+        @JsonProperty("teams")
+        List<TeamStatistic> teams
+) {
+
+    /**
+     * ДТО показателей команды: пулл реквесты относятся к команде автора, назначения - к команде ревьювера.
+     */
+    @Builder
+    public record TeamStatistic(
+            @JsonProperty("team_name")
+            String teamName,
+
+            @JsonProperty("members_count")
+            Long membersCount,
+
+            @JsonProperty("open_pr_count")
+            Long openPullRequestsCount,
+
+            @JsonProperty("assignments_count")
+            Long assignmentsCount,
+
+            @JsonProperty("assignments_per_member")
+            Double assignmentsPerMember,
+
+            @JsonProperty("avg_reviewers_per_pr")
+            Double averageReviewersPerPullRequest
+    ) {
+    }
+}
@@ -0,0 +1,42 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа изменения состава команды.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record UpdateTeamMembersResponse(
+        @JsonProperty("team_name")
+        String teamName,
+
+        @JsonProperty("added")
+        List<String> added,
+
+        @JsonProperty("activated")
+        List<String> activated,
+
+        @JsonProperty("deactivated")
+        List<String> deactivated,
+
+        @JsonProperty("unchanged")
+        List<String> unchanged,
+
+        @JsonProperty("removed")
+        List<String> removed,
+
+        @JsonProperty("not_removed")
+        List<String> notRemoved,
+
+        @JsonProperty("not_found")
+        List<String> notFound,
+
+        @JsonProperty("reassignment")
+        ReviewReassignmentResponse reassignment
+) {
+}
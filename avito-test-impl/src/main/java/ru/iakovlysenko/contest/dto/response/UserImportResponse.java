@@ -0,0 +1,51 @@
+package ru.iakovlysenko.contest.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * ДТО ответа массового импорта пользователей с отчетом об отклоненных строках.
+ *
+ * @author Iakov Lysenko
+ */
+@Builder
+public record UserImportResponse(
+        @JsonProperty("accepted_count")
+        Long acceptedCount,
+
+        @JsonProperty("rejected_count")
+        Long rejectedCount,
+
+        @JsonProperty("users_created_count")
+        Long usersCreatedCount,
+
+        @JsonProperty("users_updated_count")
+        Long usersUpdatedCount,
+
+        @JsonProperty("teams_created_count")
+        Long teamsCreatedCount,
+
+        @JsonProperty("errors")
+        List<RowError> errors,
+
+        @JsonProperty("errors_truncated")
+        Boolean errorsTruncated
+) {
+
+    /**
+     * ДТО ошибки в строке файла импорта.
+     */
+    public record RowError(
+            @JsonProperty("line")
+            Long line,
+
+            @JsonProperty("user_id")
+            String userId,
+
+            @JsonProperty("message")
+            String message
+    ) {
+    }
+}
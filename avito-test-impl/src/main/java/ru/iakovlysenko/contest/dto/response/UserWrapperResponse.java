@@ -11,6 +11,9 @@ import lombok.Builder;
 @Builder
 public record UserWrapperResponse(
         @JsonProperty("user")
-        UserResponse user
+        UserResponse user,
+
+        @JsonProperty("reassignment")
+        ReviewReassignmentResponse reassignment
 ) {
 }
@@ -0,0 +1,10 @@
+package ru.iakovlysenko.contest.exception;
+
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+
+public class InvalidCursorException extends BusinessException {
+    
+    public InvalidCursorException(String cursor) {
+        super(ErrorCode.INVALID_CURSOR, "Некорректный курсор страницы: " + cursor);
+    }
+}
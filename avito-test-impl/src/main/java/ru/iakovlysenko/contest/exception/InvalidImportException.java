@@ -0,0 +1,10 @@
+package ru.iakovlysenko.contest.exception;
+
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+
+public class InvalidImportException extends BusinessException {
+    
+    public InvalidImportException(String message) {
+        super(ErrorCode.INVALID_IMPORT, message);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.iakovlysenko.contest.exception;
+
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+
+public class InvalidRangeException extends BusinessException {
+    
+    public InvalidRangeException(String message) {
+        super(ErrorCode.INVALID_RANGE, message);
+    }
+}
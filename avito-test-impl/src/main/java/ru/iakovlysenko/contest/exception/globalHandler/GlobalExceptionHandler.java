@@ -3,15 +3,22 @@ package ru.iakovlysenko.contest.exception.globalHandler;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.iakovlysenko.contest.dto.enums.ErrorCode;
 import ru.iakovlysenko.contest.dto.response.ErrorResponse;
 import ru.iakovlysenko.contest.exception.BusinessException;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 
+/**
+ * Обработчик исключений контроллеров.
+ * Ошибки всегда возвращаются в JSON, в том числе на запросы потоковых вариантов эндпоинтов в NDJSON.
+ */
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -27,7 +34,7 @@ public class GlobalExceptionHandler {
                 new ErrorResponse.ErrorDetail(errorCode, e.getMessage())
         );
         
-        return ResponseEntity.status(httpStatus).body(response);
+        return ResponseEntity.status(httpStatus).contentType(MediaType.APPLICATION_JSON).body(response);
     }
     
     @ExceptionHandler(NotFoundException.class)
@@ -38,7 +45,7 @@ public class GlobalExceptionHandler {
                 new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, e.getMessage())
         );
         
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(response);
     }
     
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -54,7 +61,7 @@ public class GlobalExceptionHandler {
                 new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, message)
         );
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
     }
     
     @ExceptionHandler(ConstraintViolationException.class)
@@ -70,7 +77,29 @@ public class GlobalExceptionHandler {
                 new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, message)
         );
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+    
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException e) {
+        log.warn("Исключение преобразования параметра: {}", e.getMessage());
+        
+        ErrorResponse response = new ErrorResponse(
+                new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, e.getName() + ": недопустимое значение " + e.getValue())
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+    
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException e) {
+        log.warn("Исключение неподдерживаемого типа содержимого: {}", e.getMessage());
+        
+        ErrorResponse response = new ErrorResponse(
+                new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, "Неподдерживаемый тип содержимого: " + e.getContentType())
+        );
+        
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).contentType(MediaType.APPLICATION_JSON).body(response);
     }
     
     @ExceptionHandler(Exception.class)
@@ -81,14 +110,16 @@ public class GlobalExceptionHandler {
                 new ErrorResponse.ErrorDetail(ErrorCode.NOT_FOUND, "Внутренняя ошибка сервера")
         );
         
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(response);
     }
     
     private HttpStatus getHttpStatus(ErrorCode errorCode) {
         return switch (errorCode) {
-            case TEAM_EXISTS, PR_EXISTS -> HttpStatus.BAD_REQUEST;
-            case PR_MERGED, NOT_ASSIGNED, NO_CANDIDATE -> HttpStatus.CONFLICT;
+            case TEAM_EXISTS, PR_EXISTS, INVALID_CURSOR, INVALID_RANGE, INVALID_IMPORT -> HttpStatus.BAD_REQUEST;
+            case PR_MERGED, NOT_ASSIGNED, NO_CANDIDATE, IDEMPOTENCY_KEY_IN_PROGRESS -> HttpStatus.CONFLICT;
+            case IDEMPOTENCY_KEY_REUSED -> HttpStatus.UNPROCESSABLE_ENTITY;
             case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case IDEMPOTENCY_CACHE_FULL -> HttpStatus.SERVICE_UNAVAILABLE;
         };
     }
 }
@@ -0,0 +1,236 @@
+package ru.iakovlysenko.contest.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+import ru.iakovlysenko.contest.dto.response.ErrorResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Фильтр идемпотентности изменяющих запросов к пулл реквестам.
+ * <p>
+ * Если запрос содержит заголовок {@code Idempotency-Key}, ответ сохраняется в {@link IdempotentResponseCache}
+ * вместе с хешем тела запроса, а повторный запрос с тем же ключом и телом на тот же эндпоинт получает
+ * сохраненный ответ без обращения к контроллеру и базе данных. Повтор ключа с другим телом отклоняется с 422,
+ * а повтор, не дождавшийся завершения первого запроса за отведенное время, - с 409.
+ * Ответы с ошибкой сервера не сохраняются, чтобы запрос можно было повторить: ключ освобождается,
+ * и из ожидавших повторов запрос заново выполняет только один, а остальные получают его ответ.
+ * Если кеш заполнен выполняющимися запросами, запрос с новым ключом отклоняется с 503.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String FILTERED_PATH_PREFIX = "/pullRequest/";
+
+    private final IdempotentResponseCache cache;
+    private final long waitTimeoutMillis;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyKeyFilter(@Value("${idempotency.max-entries:10000}") int maxEntries,
+                                @Value("${idempotency.ttl:10m}") Duration ttl,
+                                @Value("${idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                ObjectMapper objectMapper) {
+        this.cache = new IdempotentResponseCache(maxEntries, ttl.toMillis(), System::currentTimeMillis);
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(FILTERED_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = sha256(cachedRequest.body);
+        String cacheKey = request.getRequestURI() + " " + idempotencyKey;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        CompletableFuture<IdempotentResponseCache.StoredResponse> pending = new CompletableFuture<>();
+        IdempotentResponseCache.Entry existing;
+        // Ключ, освобожденный после ошибки сервера, резервируется заново: запрос выполняет только
+        // повтор, выигравший резервирование, а остальные ждут уже его ответа
+        try {
+            while ((existing = cache.putIfAbsent(cacheKey, requestHash, pending)) != null) {
+                if (!existing.requestHash().equals(requestHash)) {
+                    log.warn("Ключ идемпотентности {} повторно использован для запроса {} с другим телом",
+                            idempotencyKey, request.getRequestURI());
+                    writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, ErrorCode.IDEMPOTENCY_KEY_REUSED,
+                            "Ключ идемпотентности уже использован для запроса с другим телом");
+                    return;
+                }
+
+                IdempotentResponseCache.StoredResponse stored;
+                try {
+                    // Ожидание ограничено на копии, чтобы таймаут не завершил ответ первого запроса
+                    // для остальных повторов
+                    stored = existing.response().copy()
+                            .orTimeout(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)
+                            .join();
+                } catch (CompletionException e) {
+                    if (!(e.getCause() instanceof TimeoutException)) {
+                        throw e;
+                    }
+                    log.warn("Повтор запроса {} с ключом идемпотентности {}: первый запрос еще выполняется",
+                            request.getRequestURI(), idempotencyKey);
+                    writeError(response, HttpStatus.CONFLICT, ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS,
+                            "Запрос с этим ключом идемпотентности еще выполняется");
+                    return;
+                }
+                if (stored != null) {
+                    log.info("Повтор запроса {} с ключом идемпотентности {}: возвращен сохраненный ответ",
+                            request.getRequestURI(), idempotencyKey);
+                    replay(stored, response);
+                    return;
+                }
+            }
+        } catch (IdempotentResponseCache.CacheFullException e) {
+            log.warn("Запрос {} с ключом идемпотентности {} отклонен: кеш заполнен выполняющимися запросами",
+                    request.getRequestURI(), idempotencyKey);
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.IDEMPOTENCY_CACHE_FULL,
+                    "Слишком много выполняющихся запросов с ключом идемпотентности, повторите запрос позже");
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        IdempotentResponseCache.StoredResponse stored = null;
+        try {
+            filterChain.doFilter(cachedRequest, responseWrapper);
+            if (responseWrapper.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                stored = new IdempotentResponseCache.StoredResponse(
+                        responseWrapper.getStatus(),
+                        responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray()
+                );
+            }
+        } finally {
+            if (stored == null) {
+                cache.remove(cacheKey, pending);
+            }
+            pending.complete(stored);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotentResponseCache.StoredResponse stored, HttpServletResponse response)
+            throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(IDEMPOTENT_REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, ErrorCode code, String message)
+            throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(new ErrorResponse(new ErrorResponse.ErrorDetail(code, message)));
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Запрос с телом, прочитанным заранее: тело нужно для хеша до передачи запроса контроллеру.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+}
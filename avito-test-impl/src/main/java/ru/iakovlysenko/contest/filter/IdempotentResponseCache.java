@@ -0,0 +1,140 @@
+package ru.iakovlysenko.contest.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограниченный по размеру и времени жизни кеш ответов для запросов с заголовком {@code Idempotency-Key}.
+ * <p>
+ * Ключ резервируется до выполнения запроса, поэтому повтор, пришедший во время выполнения первого запроса,
+ * дожидается его ответа, а не выполняет запрос повторно. Время жизни у всех записей одинаковое,
+ * поэтому порядок вставки совпадает с порядком истечения и устаревшие записи удаляются с начала.
+ * Запись выполняющегося запроса не вытесняется ни по времени жизни, ни по размеру, иначе повтор
+ * получил бы новое резервирование и выполнил запрос второй раз. Если кеш заполнен выполняющимися
+ * запросами, новый ключ не резервируется.
+ *
+ * @author Iakov Lysenko
+ */
+public class IdempotentResponseCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier currentTimeMillis;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotentResponseCache(int maxEntries, long ttlMillis, LongSupplier currentTimeMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Резервирует ключ за текущим запросом, если ключ ещё не встречался.
+     *
+     * @param key ключ идемпотентности
+     * @param requestHash хеш тела текущего запроса
+     * @param pending ответ текущего запроса, который будет завершен после его выполнения
+     * @return null, если ключ зарезервирован за текущим запросом; иначе запись первого запроса с этим ключом
+     * @throws CacheFullException если кеш заполнен записями выполняющихся запросов
+     */
+    public synchronized Entry putIfAbsent(String key, String requestHash, CompletableFuture<StoredResponse> pending) {
+        long now = currentTimeMillis.getAsLong();
+        evictExpired(now);
+
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            if (!existing.isExpired(now) || !existing.response().isDone()) {
+                return existing;
+            }
+            entries.remove(key);
+        }
+
+        if (entries.size() >= maxEntries && !evictEldestCompleted()) {
+            throw new CacheFullException();
+        }
+        entries.put(key, new Entry(requestHash, pending, now + ttlMillis));
+        return null;
+    }
+
+    /**
+     * Снимает резервирование ключа, например если запрос завершился ошибкой сервера и его можно повторить.
+     *
+     * @param key ключ идемпотентности
+     * @param pending ответ запроса, за которым зарезервирован ключ
+     */
+    public synchronized void remove(String key, CompletableFuture<StoredResponse> pending) {
+        Entry existing = entries.get(key);
+        if (existing != null && existing.response() == pending) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Возвращает количество записей в кеше.
+     *
+     * @return количество записей
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!entry.isExpired(now) || !entry.response().isDone()) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private boolean evictEldestCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().response().isDone()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сохраненный ответ.
+     *
+     * @param status HTTP статус
+     * @param contentType тип содержимого
+     * @param body тело ответа
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * Запись кеша.
+     *
+     * @param requestHash хеш тела запроса, за которым зарезервирован ключ
+     * @param response ответ запроса; завершается null, если ответ не сохранен
+     * @param expiresAt время истечения записи
+     */
+    public record Entry(String requestHash, CompletableFuture<StoredResponse> response, long expiresAt) {
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    /**
+     * Исключение при попытке зарезервировать ключ в кеше, заполненном записями выполняющихся запросов.
+     */
+    public static class CacheFullException extends RuntimeException {
+
+        public CacheFullException() {
+            super("Кеш идемпотентности заполнен выполняющимися запросами");
+        }
+    }
+
+}
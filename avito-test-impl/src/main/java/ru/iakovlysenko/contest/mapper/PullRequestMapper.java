@@ -6,9 +6,10 @@ import org.mapstruct.MappingConstants;
 import ru.iakovlysenko.contest.entity.PullRequest;
 import ru.iakovlysenko.contest.dto.response.PullRequestResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
+import ru.iakovlysenko.contest.projection.ReviewAssignmentProjection;
 
 /**
- * Маппер для преобразования сущности {@link PullRequest} в ДТО ответов.
+ * Маппер для преобразования сущности {@link PullRequest} и ее проекций в ДТО ответов.
  *
  * @author Iakov Lysenko
  */
@@ -36,4 +37,12 @@ public interface PullRequestMapper {
     @Mapping(target = "authorId", expression = "java(pullRequest.getAuthorId())")
     PullRequestShortResponse toShortResponse(PullRequest pullRequest);
 
+    /**
+     * Преобразует проекцию назначения ревьювера в краткий ДТО ответа о пулл реквесте.
+     *
+     * @param assignment проекция назначения ревьювера
+     * @return ДТО ответа с краткой информацией о пулл реквесте
+     */
+    PullRequestShortResponse toShortResponse(ReviewAssignmentProjection assignment);
+
 }
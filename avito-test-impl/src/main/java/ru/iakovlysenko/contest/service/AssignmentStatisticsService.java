@@ -0,0 +1,64 @@
+package ru.iakovlysenko.contest.service;
+
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Сервис счетчиков статистики назначений ревьюверов.
+ * <p>
+ * Хранит в памяти количество назначений по каждому ревьюверу и количество ревьюверов
+ * по каждому открытому пулл реквесту, чтобы статистика не считалась группировкой по всей таблице назначений.
+ * Слитые пулл реквесты из счетчиков исключаются, поэтому память не растет с историей.
+ * Счетчики обновляются при создании и удалении назначений и периодически сверяются с базой.
+ *
+ * @author Iakov Lysenko
+ */
+public interface AssignmentStatisticsService {
+
+    /**
+     * Возвращает количество назначений по каждому ревьюверу, у которого они есть.
+     *
+     * @return идентификатор ревьювера и количество его назначений
+     */
+    Map<String, Long> getAssignmentsByReviewer();
+
+    /**
+     * Возвращает количество ревьюверов по каждому открытому пулл реквесту, на который они назначены.
+     *
+     * @return идентификатор открытого пулл реквеста и количество его ревьюверов
+     */
+    Map<String, Long> getReviewersByPullRequest();
+
+    /**
+     * Учитывает созданные назначения.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param assignments созданные назначения
+     */
+    void onAssignmentsCreated(Collection<PullRequestReviewer> assignments);
+
+    /**
+     * Учитывает удаленные назначения: переназначение или снятие ревьювера.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param assignments удаленные назначения
+     */
+    void onAssignmentsDeleted(Collection<PullRequestReviewer> assignments);
+
+    /**
+     * Исключает слитые пулл реквесты из счетчиков ревьюверов по пулл реквестам.
+     * Назначения слитых пулл реквестов остаются в счетчиках по ревьюверам.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param pullRequestIds идентификаторы слитых пулл реквестов
+     */
+    void onPullRequestsMerged(Collection<String> pullRequestIds);
+
+    /**
+     * Пересобирает счетчики по таблице назначений, исправляя возможное расхождение с базой.
+     */
+    void reconcile();
+
+}
@@ -0,0 +1,35 @@
+package ru.iakovlysenko.contest.service;
+
+import ru.iakovlysenko.contest.util.LatencyHistogram;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Сервис распределения времени от создания до слияния пулл реквестов по командам.
+ * <p>
+ * Хранит в памяти гистограмму времени до слияния для каждой команды автора, чтобы процентили
+ * не считались по таблице пулл реквестов. Гистограммы пополняются при успешном слиянии.
+ *
+ * @author Iakov Lysenko
+ */
+public interface MergeLatencyService {
+
+    /**
+     * Учитывает слияние пулл реквеста.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param teamName имя команды автора пулл реквеста
+     * @param createdAt время создания пулл реквеста
+     * @param mergedAt время слияния пулл реквеста
+     */
+    void onPullRequestMerged(String teamName, LocalDateTime createdAt, LocalDateTime mergedAt);
+
+    /**
+     * Возвращает копии гистограмм времени до слияния по командам, в которых есть слитые пулл реквесты.
+     *
+     * @return имя команды и гистограмма времени до слияния её пулл реквестов
+     */
+    Map<String, LatencyHistogram> getHistograms();
+
+}
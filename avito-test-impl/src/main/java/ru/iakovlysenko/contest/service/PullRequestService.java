@@ -1,8 +1,12 @@
 package ru.iakovlysenko.contest.service;
 
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
 
@@ -21,6 +25,15 @@ public interface PullRequestService {
      */
     PullRequestResponse createPullRequest(CreatePullRequestRequest request);
     
+    /**
+     * Создает пакет пулл реквестов и назначает каждому до 2 ревьюверов из команды автора.
+     * Ошибка одного пулл реквеста (автор не найден, ID уже занят) не прерывает создание остальных.
+     *
+     * @param request ДТО запроса на пакетное создание пулл реквестов
+     * @return ДТО ответа с результатом по каждому пулл реквесту в порядке запроса
+     */
+    PullRequestBatchResponse createPullRequests(CreatePullRequestBatchRequest request);
+    
     /**
      * Помечает пулл реквест как слитый (идемпотентная операция).
      *
@@ -29,6 +42,15 @@ public interface PullRequestService {
      */
     PullRequestResponse mergePullRequest(MergePullRequestRequest request);
     
+    /**
+     * Помечает пакет пулл реквестов как слитые (идемпотентная операция).
+     * Ненайденный пулл реквест не прерывает слияние остальных.
+     *
+     * @param request ДТО запроса на пакетное слияние пулл реквестов
+     * @return ДТО ответа с результатом по каждому ID в порядке запроса
+     */
+    PullRequestMergeBatchResponse mergePullRequests(MergePullRequestBatchRequest request);
+    
     /**
      * Переназначает ревьювера на другого из его команды.
      *
@@ -0,0 +1,40 @@
+package ru.iakovlysenko.contest.service;
+
+import java.util.Collection;
+
+/**
+ * Сервис учёта нагрузки ревьюверов.
+ * <p>
+ * Хранит в памяти количество открытых пулл реквестов, назначенных на каждого ревьювера,
+ * чтобы политика назначения не считала их запросом к базе данных.
+ *
+ * @author Iakov Lysenko
+ */
+public interface ReviewLoadService {
+
+    /**
+     * Получает количество открытых пулл реквестов, назначенных на ревьювера.
+     *
+     * @param reviewerId идентификатор ревьювера
+     * @return количество открытых назначений
+     */
+    long getOpenReviewsCount(String reviewerId);
+
+    /**
+     * Учитывает новые назначения ревьюверов на открытый пулл реквест.
+     * Изменение применяется сразу, чтобы следующие назначения в той же транзакции
+     * (например, при пакетном создании) видели возросшую нагрузку, и отменяется при откате транзакции.
+     *
+     * @param reviewerIds идентификаторы назначенных ревьюверов
+     */
+    void onReviewersAssigned(Collection<String> reviewerIds);
+
+    /**
+     * Учитывает снятие ревьюверов с открытого пулл реквеста: переназначение или слияние.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param reviewerIds идентификаторы освободившихся ревьюверов
+     */
+    void onReviewersReleased(Collection<String> reviewerIds);
+
+}
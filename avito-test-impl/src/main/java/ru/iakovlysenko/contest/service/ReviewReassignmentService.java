@@ -0,0 +1,25 @@
+package ru.iakovlysenko.contest.service;
+
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
+
+import java.util.Collection;
+
+/**
+ * Сервис массового переназначения открытых ревью.
+ *
+ * @author Iakov Lysenko
+ */
+public interface ReviewReassignmentService {
+
+    /**
+     * Переназначает все открытые ревью указанных пользователей на активных участников их команд.
+     * Замена выбирается {@link ReviewerAssignmentPolicy} среди участников, которые не являются автором PR,
+     * не назначены на него и не входят в указанных пользователей.
+     * Если замены нет, пользователь снимается с PR без замены.
+     *
+     * @param reviewerIds идентификаторы пользователей, с которых снимаются ревью
+     * @return ДТО ответа с итогами переназначения
+     */
+    ReviewReassignmentResponse reassignOpenReviews(Collection<String> reviewerIds);
+
+}
@@ -0,0 +1,25 @@
+package ru.iakovlysenko.contest.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Политика выбора ревьюверов среди активных участников команды.
+ * <p>
+ * Реализация выбирается свойством {@code reviewers.assignment-policy}.
+ *
+ * @author Iakov Lysenko
+ */
+public interface ReviewerAssignmentPolicy {
+
+    /**
+     * Выбирает ревьюверов среди кандидатов.
+     *
+     * @param candidateIds идентификаторы активных участников команды
+     * @param count максимальное количество выбираемых ревьюверов
+     * @param excludedIds идентификаторы пользователей, которых нельзя выбирать
+     * @return список выбранных идентификаторов, не больше {@code count}
+     */
+    List<String> selectReviewers(List<String> candidateIds, int count, Collection<String> excludedIds);
+
+}
@@ -1,6 +1,13 @@
 package ru.iakovlysenko.contest.service;
 
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
 import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsSnapshot;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
+
+import java.time.LocalDate;
 
 /**
  * Сервис для получения статистики по назначениям ревьюверов.
@@ -11,8 +18,68 @@ public interface StatisticsService {
 
     /**
      * Возвращает агрегированную статистику по назначениям ревьюверов.
+     * Количество ревьюверов возвращается только по открытым пулл реквестам; слитые доступны
+     * постранично через {@link #getStatistics(String, Integer, Integer, String)}.
      *
      * @return ДТО ответа со статистикой
      */
     StatisticsResponse getStatistics();
+
+    /**
+     * Возвращает выборку статистики, рассчитанную запросами к базе данных.
+     * Назначения по пользователям ограничиваются первыми по количеству назначений,
+     * количество ревьюверов по пулл реквестам возвращается постранично в порядке идентификаторов PR.
+     *
+     * @param teamName команда ревьюверов и авторов пулл реквестов или null для всех команд
+     * @param top количество пользователей с наибольшим числом назначений или null: на первой странице
+     *            пулл реквестов - 10 пользователей, на следующих страницах (задан {@code after}) назначения
+     *            по пользователям не считаются и возвращаются пустыми
+     * @param limit размер страницы пулл реквестов или null для размера по умолчанию
+     * @param after курсор из предыдущей страницы или null для первой страницы
+     * @return ДТО ответа со статистикой и курсором следующей страницы пулл реквестов
+     */
+    StatisticsResponse getStatistics(String teamName, Integer top, Integer limit, String after);
+
+    /**
+     * Возвращает последний рассчитанный снимок статистики.
+     * Если снимок еще не рассчитывался, рассчитывает его синхронно.
+     *
+     * @return снимок статистики
+     */
+    StatisticsSnapshot getSnapshot();
+
+    /**
+     * Синхронно рассчитывает новый снимок статистики и атомарно подменяет им текущий.
+     *
+     * @return новый снимок статистики
+     */
+    StatisticsSnapshot refreshSnapshot();
+
+    /**
+     * Возвращает количество назначений ревьюверов по дням или неделям из дневной свертки назначений.
+     *
+     * @param from первый день диапазона
+     * @param to последний день диапазона включительно
+     * @param granularity шаг временного ряда
+     * @param userId идентификатор ревьювера или null для всех ревьюверов
+     * @return ДТО ответа с количеством назначений по периодам
+     */
+    StatisticsTimeseriesResponse getAssignmentsTimeseries(LocalDate from, LocalDate to,
+                                                          TimeseriesGranularity granularity, String userId);
+
+    /**
+     * Возвращает процентили p50, p90 и p99 времени от создания до слияния пулл реквестов по командам авторов
+     * из гистограмм, которые пополняются при слиянии.
+     *
+     * @return ДТО ответа с процентилями по командам, упорядоченным по имени
+     */
+    MergeLatencyResponse getMergeLatency();
+
+    /**
+     * Возвращает по каждой команде количество открытых пулл реквестов, среднее количество назначений
+     * на участника и среднее количество ревьюверов на пулл реквест, посчитанные одним агрегирующим запросом.
+     *
+     * @return ДТО ответа с показателями команд, упорядоченных по имени
+     */
+    TeamStatisticsResponse getTeamStatistics();
 }
@@ -0,0 +1,53 @@
+package ru.iakovlysenko.contest.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис in-memory индекса активных участников команд.
+ * <p>
+ * Хранит идентификаторы активных пользователей каждой команды в памяти,
+ * чтобы выбор ревьюверов не требовал обращения к базе данных.
+ * Сам выбор выполняет {@link ReviewerAssignmentPolicy}.
+ *
+ * @author Iakov Lysenko
+ */
+public interface TeamRosterService {
+
+    /**
+     * Получает идентификаторы активных участников команды.
+     * При первом обращении к команде состав загружается из базы данных.
+     *
+     * @param teamName имя команды
+     * @return неизменяемый список идентификаторов активных участников
+     */
+    List<String> getActiveMemberIds(String teamName);
+
+    /**
+     * Отражает в индексе изменение состава или активности пользователя.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param userId идентификатор пользователя
+     * @param teamName имя команды, в которой пользователь состоит после изменения
+     * @param isActive флаг активности пользователя после изменения
+     */
+    void onMemberChanged(String userId, String teamName, boolean isActive);
+
+    /**
+     * Отражает в индексе массовое изменение активности пользователей.
+     * Каждый загруженный состав перестраивается не больше одного раза.
+     * Внутри транзакции изменение применяется только после её успешного коммита.
+     *
+     * @param teamNamesByUserId имена команд пользователей по их идентификаторам
+     * @param isActive флаг активности пользователей после изменения
+     */
+    void onMembersChanged(Map<String, String> teamNamesByUserId, boolean isActive);
+
+    /**
+     * Сбрасывает все загруженные составы: при следующем обращении они будут прочитаны из базы данных.
+     * Используется после массовых изменений, которые дешевле перечитать, чем применить к каждому составу.
+     * Внутри транзакции сброс выполняется только после её успешного коммита.
+     */
+    void invalidateAll();
+
+}
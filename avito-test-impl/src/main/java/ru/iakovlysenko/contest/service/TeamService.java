@@ -1,7 +1,9 @@
 package ru.iakovlysenko.contest.service;
 
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 
 /**
  * Сервис для работы с командами.
@@ -25,5 +27,16 @@ public interface TeamService {
      * @return ДТО ответа с информацией о команде
      */
     TeamResponse getTeam(String teamName);
+    
+    /**
+     * Изменяет состав существующей команды: добавляет или переносит в нее пользователей,
+     * активирует, деактивирует и удаляет участников. Изменения применяются в одной транзакции
+     * постоянным количеством запросов, а загруженный состав команды обновляется без перечитывания.
+     * Удаляются только участники без пулл реквестов и назначений ревьювером.
+     *
+     * @param request ДТО запроса на изменение состава команды
+     * @return ДТО ответа с итогами каждого изменения
+     */
+    UpdateTeamMembersResponse updateMembers(UpdateTeamMembersRequest request);
 
 }
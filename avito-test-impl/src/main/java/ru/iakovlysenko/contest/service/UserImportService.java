@@ -0,0 +1,32 @@
+package ru.iakovlysenko.contest.service;
+
+import ru.iakovlysenko.contest.dto.enums.UserImportFormat;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * Сервис массового импорта пользователей из выгрузок в CSV и NDJSON.
+ * <p>
+ * Строки читаются и проверяются по одной и сразу передаются в базу данных,
+ * поэтому потребление памяти не зависит от размера файла.
+ *
+ * @author Iakov Lysenko
+ */
+public interface UserImportService {
+
+    /**
+     * Импортирует пользователей: создает новых, а существующим обновляет имя, команду и флаг активности.
+     * Недостающие команды создаются. Строки, не прошедшие проверку, пропускаются и попадают в отчет об ошибках.
+     * <p>
+     * CSV начинается со строки заголовка с колонками {@code id}, {@code username}, {@code teamName}
+     * и {@code isActive} в любом порядке; значения в кавычках не могут содержать перевод строки.
+     * Каждая строка NDJSON - JSON объект с теми же полями, что и запрос на создание пользователя.
+     *
+     * @param input содержимое файла в кодировке UTF-8
+     * @param format формат файла
+     * @return ДТО ответа с итогами импорта и ошибками в строках
+     */
+    UserImportResponse importUsers(InputStream input, UserImportFormat format);
+
+}
@@ -1,11 +1,18 @@
 package ru.iakovlysenko.contest.service;
 
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.CreateUserRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
+import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
+import ru.iakovlysenko.contest.enums.PrStatus;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 
+import java.util.function.Consumer;
+
 /**
  * Сервис для работы с пользователями.
  *
@@ -15,19 +22,45 @@ public interface UserService {
     
     /**
      * Устанавливает флаг активности пользователя.
+     * При деактивации с флагом {@code reassign_open_reviews} в той же транзакции переназначает
+     * все открытые ревью пользователя через {@link ReviewReassignmentService}.
      *
      * @param request ДТО запроса на установку флага активности
-     * @return ДТО ответа с информацией о пользователе
+     * @return ДТО ответа с информацией о пользователе и итогами переназначения, если оно выполнялось
+     */
+    UserWrapperResponse setIsActive(SetIsActiveRequest request);
+    
+    /**
+     * Устанавливает флаг активности всем участникам команды или указанным пользователям одним запросом.
+     * При деактивации с флагом {@code reassign_open_reviews} в той же транзакции переназначает
+     * все открытые ревью затронутых пользователей через {@link ReviewReassignmentService}.
+     *
+     * @param request ДТО запроса на массовую установку флага активности
+     * @return ДТО ответа с затронутыми пользователями и итогами переназначения, если оно выполнялось
      */
-    UserResponse setIsActive(SetIsActiveRequest request);
+    BulkSetIsActiveResponse bulkSetIsActive(BulkSetIsActiveRequest request);
     
     /**
-     * Получает список пулл реквестов, где пользователь назначен ревьювером.
+     * Получает страницу пулл реквестов, где пользователь назначен ревьювером,
+     * от последних назначений к более ранним.
+     *
+     * @param userId идентификатор пользователя
+     * @param status статус пулл реквестов или null для пулл реквестов в любом статусе
+     * @param limit размер страницы или null для размера по умолчанию
+     * @param after курсор из предыдущей страницы или null для первой страницы
+     * @return ДТО ответа с информацией о пулл реквестах и курсором следующей страницы
+     */
+    GetReviewResponse getReview(String userId, PrStatus status, Integer limit, String after);
+
+    /**
+     * Передает обработчику все пулл реквесты, где пользователь назначен ревьювером,
+     * от последних назначений к более ранним, не собирая их в память.
      *
      * @param userId идентификатор пользователя
-     * @return ДТО ответа с информацией о пулл реквестах
+     * @param status статус пулл реквестов или null для пулл реквестов в любом статусе
+     * @param action обработчик краткой информации о пулл реквесте
      */
-    GetReviewResponse getReview(String userId);
+    void streamReview(String userId, PrStatus status, Consumer<PullRequestShortResponse> action);
 
     /**
      * Создает нового пользователя в системе.
@@ -0,0 +1,214 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.util.TransactionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Реализация сервиса {@link AssignmentStatisticsService}.
+ * <p>
+ * Счетчики загружаются из базы при старте приложения, обновляются после коммита транзакций,
+ * создающих и удаляющих назначения, и пересобираются по расписанию. Счетчики ревьюверов по пулл реквестам
+ * хранятся только для открытых пулл реквестов: при слиянии счетчик удаляется. Пересборка читает обе группировки
+ * из одного снимка базы, а изменения, примененные во время пересборки, записываются и повторяются
+ * на пересобранных счетчиках перед подменой, поэтому они не теряются вместе со старыми счетчиками.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssignmentStatisticsServiceImpl implements AssignmentStatisticsService {
+
+    private final PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    /**
+     * Изменения счетчиков применяются под блокировкой чтения, подмена счетчиков - под блокировкой записи,
+     * чтобы изменение не попало в уже замененные счетчики.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private volatile Counters counters = new Counters(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    /**
+     * Изменения, примененные с начала текущей пересборки; null, если пересборка не выполняется.
+     */
+    private Queue<Consumer<Counters>> rebuildDeltas;
+
+    @PostConstruct
+    void loadCounters() {
+        counters = loadFromDatabase();
+        log.info("Загружены счетчики статистики: {} ревьюверов, {} пулл реквестов",
+                counters.assignmentsByReviewer().size(), counters.reviewersByPullRequest().size());
+    }
+
+    @Override
+    public Map<String, Long> getAssignmentsByReviewer() {
+        return snapshot(counters.assignmentsByReviewer());
+    }
+
+    @Override
+    public Map<String, Long> getReviewersByPullRequest() {
+        return snapshot(counters.reviewersByPullRequest());
+    }
+
+    @Override
+    public void onAssignmentsCreated(Collection<PullRequestReviewer> assignments) {
+        List<PullRequestReviewer> created = List.copyOf(assignments);
+        TransactionUtils.afterCommit(() -> apply(target -> add(target, created, 1)));
+    }
+
+    @Override
+    public void onAssignmentsDeleted(Collection<PullRequestReviewer> assignments) {
+        List<PullRequestReviewer> deleted = List.copyOf(assignments);
+        TransactionUtils.afterCommit(() -> apply(target -> add(target, deleted, -1)));
+    }
+
+    @Override
+    public void onPullRequestsMerged(Collection<String> pullRequestIds) {
+        List<String> merged = List.copyOf(pullRequestIds);
+        TransactionUtils.afterCommit(() -> apply(target -> merged.forEach(target.reviewersByPullRequest()::remove)));
+    }
+
+    @Override
+    @Scheduled(
+            initialDelayString = "${statistics.reconciliation-interval}",
+            fixedDelayString = "${statistics.reconciliation-interval}"
+    )
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public synchronized void reconcile() {
+        // Запись изменений начинается до первого запроса, который фиксирует снимок базы, поэтому
+        // изменения, закоммиченные после снимка, будут повторены на пересобранных счетчиках.
+        // Дважды может быть учтено только изменение, закоммиченное до снимка, но примененное после начала записи:
+        // окно между коммитом и его afterCommit, а не всё время пересборки
+        swapLock.writeLock().lock();
+        try {
+            rebuildDeltas = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Counters rebuilt;
+        try {
+            rebuilt = loadFromDatabase();
+        } catch (RuntimeException e) {
+            stopRecording();
+            throw e;
+        }
+
+        Counters current;
+        int replayed;
+        swapLock.writeLock().lock();
+        try {
+            Queue<Consumer<Counters>> deltas = rebuildDeltas;
+            rebuildDeltas = null;
+            deltas.forEach(delta -> delta.accept(rebuilt));
+            replayed = deltas.size();
+            current = counters;
+            counters = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        log.debug("На пересобранных счетчиках повторено изменений: {}", replayed);
+        log.info("Счетчики статистики сверены с базой: расхождений по ревьюверам - {}, по пулл реквестам - {}",
+                countMismatches(current.assignmentsByReviewer(), rebuilt.assignmentsByReviewer()),
+                countMismatches(current.reviewersByPullRequest(), rebuilt.reviewersByPullRequest()));
+    }
+
+    private Counters loadFromDatabase() {
+        Counters loaded = new Counters(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        pullRequestReviewerRepository.countAssignmentsPerReviewer()
+                .forEach(projection -> counter(loaded.assignmentsByReviewer(), projection.getReviewerId())
+                        .add(projection.getAssignmentsCount()));
+        pullRequestReviewerRepository.countReviewersPerPullRequestByStatus(PrStatus.OPEN)
+                .forEach(projection -> counter(loaded.reviewersByPullRequest(), projection.getPullRequestId())
+                        .add(projection.getReviewersCount()));
+        return loaded;
+    }
+
+    private void stopRecording() {
+        swapLock.writeLock().lock();
+        try {
+            rebuildDeltas = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Counters> delta) {
+        swapLock.readLock().lock();
+        try {
+            delta.accept(counters);
+            Queue<Consumer<Counters>> deltas = rebuildDeltas;
+            if (deltas != null) {
+                deltas.add(delta);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void add(Counters target, List<PullRequestReviewer> assignments, int delta) {
+        for (PullRequestReviewer assignment : assignments) {
+            counter(target.assignmentsByReviewer(), assignment.getReviewerId()).add(delta);
+            counter(target.reviewersByPullRequest(), assignment.getPullRequestId()).add(delta);
+        }
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> counters, String key) {
+        return counters.computeIfAbsent(key, id -> new LongAdder());
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new HashMap<>(counters.size());
+        counters.forEach((key, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                snapshot.put(key, count);
+            }
+        });
+        return snapshot;
+    }
+
+    private static long countMismatches(ConcurrentMap<String, LongAdder> current, ConcurrentMap<String, LongAdder> rebuilt) {
+        Map<String, Long> currentSnapshot = snapshot(current);
+        Map<String, Long> rebuiltSnapshot = snapshot(rebuilt);
+        long mismatches = currentSnapshot.entrySet().stream()
+                .filter(entry -> !Objects.equals(entry.getValue(), rebuiltSnapshot.get(entry.getKey())))
+                .count();
+        return mismatches + rebuiltSnapshot.keySet().stream()
+                .filter(key -> !currentSnapshot.containsKey(key))
+                .count();
+    }
+
+    private record Counters(
+            ConcurrentMap<String, LongAdder> assignmentsByReviewer,
+            ConcurrentMap<String, LongAdder> reviewersByPullRequest
+    ) {
+    }
+
+}
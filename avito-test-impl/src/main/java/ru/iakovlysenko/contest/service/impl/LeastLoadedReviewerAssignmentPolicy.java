@@ -0,0 +1,79 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Политика выбора наименее загруженных ревьюверов.
+ * <p>
+ * Выбирает кандидатов с наименьшим количеством открытых назначений по счетчикам {@link ReviewLoadService}.
+ * Среди кандидатов с одинаковой нагрузкой выбор случайный.
+ *
+ * @author Iakov Lysenko
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "reviewers", name = "assignment-policy", havingValue = "least-loaded",
+        matchIfMissing = true)
+public class LeastLoadedReviewerAssignmentPolicy implements ReviewerAssignmentPolicy {
+
+    private final ReviewLoadService reviewLoadService;
+
+    @Override
+    public List<String> selectReviewers(List<String> candidateIds, int count, Collection<String> excludedIds) {
+        if (count <= 0 || candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        String[] selected = new String[count];
+        long[] loads = new long[count];
+        long[] tieBreakers = new long[count];
+        int size = 0;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (String candidateId : candidateIds) {
+            if (excludedIds.contains(candidateId)) {
+                continue;
+            }
+
+            long load = reviewLoadService.getOpenReviewsCount(candidateId);
+            long tieBreaker = random.nextLong();
+
+            int position = size;
+            while (position > 0 && isLess(load, tieBreaker, loads[position - 1], tieBreakers[position - 1])) {
+                position--;
+            }
+            if (position >= count) {
+                continue;
+            }
+
+            for (int i = Math.min(size, count - 1); i > position; i--) {
+                selected[i] = selected[i - 1];
+                loads[i] = loads[i - 1];
+                tieBreakers[i] = tieBreakers[i - 1];
+            }
+            selected[position] = candidateId;
+            loads[position] = load;
+            tieBreakers[position] = tieBreaker;
+
+            if (size < count) {
+                size++;
+            }
+        }
+
+        return List.of(Arrays.copyOf(selected, size));
+    }
+
+    private static boolean isLess(long load, long tieBreaker, long otherLoad, long otherTieBreaker) {
+        return load < otherLoad || (load == otherLoad && tieBreaker < otherTieBreaker);
+    }
+
+}
@@ -0,0 +1,71 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.iakovlysenko.contest.projection.MergeLatencyProjection;
+import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.service.MergeLatencyService;
+import ru.iakovlysenko.contest.util.LatencyHistogram;
+import ru.iakovlysenko.contest.util.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Реализация сервиса {@link MergeLatencyService}.
+ * <p>
+ * Гистограммы загружаются из базы при старте приложения одним потоковым чтением слитых пулл реквестов
+ * и затем пополняются после коммита каждого слияния. Память гистограммы команды фиксирована
+ * и не зависит от количества слитых пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MergeLatencyServiceImpl implements MergeLatencyService {
+
+    private final PullRequestRepository pullRequestRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadHistograms() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<MergeLatencyProjection> merged = pullRequestRepository.streamMergeLatencies()) {
+                merged.forEach(projection -> record(projection.teamName(), projection.createdAt(), projection.mergedAt()));
+            }
+        });
+        log.info("Загружены гистограммы времени до слияния: {} команд", histograms.size());
+    }
+
+    @Override
+    public void onPullRequestMerged(String teamName, LocalDateTime createdAt, LocalDateTime mergedAt) {
+        TransactionUtils.afterCommit(() -> record(teamName, createdAt, mergedAt));
+    }
+
+    @Override
+    public Map<String, LatencyHistogram> getHistograms() {
+        Map<String, LatencyHistogram> copies = new HashMap<>(histograms.size());
+        histograms.forEach((teamName, histogram) -> copies.put(teamName, histogram.copy()));
+        return copies;
+    }
+
+    private void record(String teamName, LocalDateTime createdAt, LocalDateTime mergedAt) {
+        histograms.computeIfAbsent(teamName, name -> new LatencyHistogram())
+                .record(Duration.between(createdAt, mergedAt));
+    }
+
+}
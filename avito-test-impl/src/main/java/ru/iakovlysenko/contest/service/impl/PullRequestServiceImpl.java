@@ -1,6 +1,5 @@
 package ru.iakovlysenko.contest.service.impl;
 
-import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -9,25 +8,48 @@ import ru.iakovlysenko.contest.entity.PullRequest;
 import ru.iakovlysenko.contest.entity.PullRequestReviewer;
 import ru.iakovlysenko.contest.entity.User;
 import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.PullRequestCreationProjection;
+import ru.iakovlysenko.contest.projection.PullRequestMergeProjection;
+import ru.iakovlysenko.contest.projection.UserMembershipProjection;
 import ru.iakovlysenko.contest.repository.PullRequestRepository;
 import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.ErrorResponse;
+import ru.iakovlysenko.contest.dto.enums.MergeOutcome;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
+import ru.iakovlysenko.contest.exception.BusinessException;
 import ru.iakovlysenko.contest.exception.NoCandidateException;
 import ru.iakovlysenko.contest.exception.NotAssignedException;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.exception.PrExistsException;
 import ru.iakovlysenko.contest.exception.PrMergedException;
 import ru.iakovlysenko.contest.mapper.PullRequestMapper;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.MergeLatencyService;
 import ru.iakovlysenko.contest.service.PullRequestService;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+import ru.iakovlysenko.contest.service.TeamRosterService;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Реализация сервиса {@link PullRequestService}.
@@ -40,74 +62,172 @@ import java.util.Random;
 public class PullRequestServiceImpl implements PullRequestService {
     
     private static final int MAX_REVIEWERS = 2;
-    private static final Random RANDOM = new Random();
     
     private final PullRequestRepository pullRequestRepository;
     private final PullRequestReviewerRepository pullRequestReviewerRepository;
     private final UserRepository userRepository;
+    private final TeamRosterService teamRosterService;
+    private final ReviewerAssignmentPolicy reviewerAssignmentPolicy;
+    private final ReviewLoadService reviewLoadService;
+    private final AssignmentStatisticsService assignmentStatisticsService;
+    private final MergeLatencyService mergeLatencyService;
     private final PullRequestMapper pullRequestMapper;
-    private final EntityManager entityManager;
     
     @Override
     @Transactional
     public PullRequestResponse createPullRequest(CreatePullRequestRequest request) {
         log.info("Создание пулл реквеста: {}", request.pullRequestId());
         
-        if (pullRequestRepository.existsById(request.pullRequestId())) {
+        LocalDateTime createdAt = currentTimestamp();
+        
+        PullRequestCreationProjection creation = pullRequestRepository.insertIfAbsent(
+                request.pullRequestId(),
+                request.pullRequestName(),
+                request.authorId(),
+                createdAt
+        );
+        
+        if (creation.getPullRequestExists()) {
             throw new PrExistsException(request.pullRequestId());
         }
         
-        User author = userRepository.findById(request.authorId())
-                .orElseThrow(() -> new NotFoundException("Автор не найден: " + request.authorId()));
+        if (creation.getAuthorId() == null) {
+            throw new NotFoundException("Автор не найден: " + request.authorId());
+        }
         
-        if (!author.getIsActive()) {
+        if (!creation.getIsActive()) {
             throw new NotFoundException("Автор не активен: " + request.authorId());
         }
         
+        if (!creation.getInserted()) {
+            throw new PrExistsException(request.pullRequestId());
+        }
+        
         PullRequest pullRequest = PullRequest.builder()
                 .id(request.pullRequestId())
                 .pullRequestName(request.pullRequestName())
-                .author(author)
+                .author(User.builder().id(creation.getAuthorId()).build())
                 .status(PrStatus.OPEN)
+                .createdAt(createdAt)
                 .build();
         
-        pullRequest = pullRequestRepository.save(pullRequest);
+        List<String> selectedReviewers = reviewerAssignmentPolicy.selectReviewers(
+                teamRosterService.getActiveMemberIds(creation.getTeamName()),
+                MAX_REVIEWERS,
+                List.of(creation.getAuthorId())
+        );
         
-        final String pullRequestId = pullRequest.getId();
+        for (String reviewerId : selectedReviewers) {
+            pullRequest.getReviewers().add(PullRequestReviewer.builder()
+                    .pullRequest(pullRequest)
+                    .reviewer(User.builder().id(reviewerId).build())
+                    .createdAt(createdAt)
+                    .build());
+        }
+        pullRequestRepository.insertReviewers(pullRequest.getReviewers());
+        reviewLoadService.onReviewersAssigned(selectedReviewers);
+        assignmentStatisticsService.onAssignmentsCreated(pullRequest.getReviewers());
         
-        List<User> candidateReviewers = userRepository.findActiveUsersByTeamExcludingUser(
-                author.getTeam(),
-                author.getId()
-        );
+        log.info("Пулл реквест успешно создан: {} с {} ревьюверами", 
+                request.pullRequestId(), selectedReviewers.size());
         
-        List<User> selectedReviewers;
-        if (candidateReviewers.isEmpty()) {
-            selectedReviewers = Collections.emptyList();
-        } else {
-            Collections.shuffle(candidateReviewers);
-            int reviewersCount = Math.min(candidateReviewers.size(), MAX_REVIEWERS);
-            selectedReviewers = candidateReviewers.subList(0, reviewersCount);
+        return pullRequestMapper.toResponse(pullRequest);
+    }
+    
+    @Override
+    @Transactional
+    public PullRequestBatchResponse createPullRequests(CreatePullRequestBatchRequest request) {
+        List<CreatePullRequestRequest> items = request.pullRequests();
+        log.info("Пакетное создание пулл реквестов: {}", items.size());
+        
+        Set<String> authorIds = items.stream()
+                .map(CreatePullRequestRequest::authorId)
+                .collect(Collectors.toSet());
+        
+        Map<String, UserMembershipProjection> authors = new HashMap<>();
+        Map<String, List<String>> rosters = new HashMap<>();
+        for (UserMembershipProjection user : userRepository.findWithActiveTeammates(authorIds)) {
+            if (authorIds.contains(user.getId())) {
+                authors.put(user.getId(), user);
+            }
+            if (user.getIsActive()) {
+                rosters.computeIfAbsent(user.getTeamName(), teamName -> new ArrayList<>()).add(user.getId());
+            }
         }
         
-        for (User reviewer : selectedReviewers) {
-            PullRequestReviewer reviewerAssignment = PullRequestReviewer.builder()
-                    .pullRequestId(pullRequestId)
-                    .reviewerId(reviewer.getId())
-                    .build();
+        LocalDateTime createdAt = currentTimestamp();
+        PullRequestBatchResponse.Item[] results = new PullRequestBatchResponse.Item[items.size()];
+        Map<String, Integer> pendingIndexes = new LinkedHashMap<>();
+        List<PullRequest> pendingPullRequests = new ArrayList<>();
+        
+        for (int i = 0; i < items.size(); i++) {
+            CreatePullRequestRequest item = items.get(i);
+            UserMembershipProjection author = authors.get(item.authorId());
             
-            pullRequestReviewerRepository.save(reviewerAssignment);
+            if (pendingIndexes.containsKey(item.pullRequestId())) {
+                results[i] = failedItem(item.pullRequestId(), new PrExistsException(item.pullRequestId()));
+            } else if (author == null) {
+                results[i] = failedItem(item.pullRequestId(), new NotFoundException("Автор не найден: " + item.authorId()));
+            } else if (!author.getIsActive()) {
+                results[i] = failedItem(item.pullRequestId(), new NotFoundException("Автор не активен: " + item.authorId()));
+            } else {
+                pendingIndexes.put(item.pullRequestId(), i);
+                pendingPullRequests.add(PullRequest.builder()
+                        .id(item.pullRequestId())
+                        .pullRequestName(item.pullRequestName())
+                        .author(User.builder().id(author.getId()).build())
+                        .status(PrStatus.OPEN)
+                        .createdAt(createdAt)
+                        .build());
+            }
         }
         
-        entityManager.flush();
-        entityManager.clear();
-
-        pullRequest = pullRequestRepository.findByIdWithReviewers(pullRequestId)
-                .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
+        int[] insertedCounts = pullRequestRepository.insertAllSkippingExisting(pendingPullRequests);
         
-        log.info("Пулл реквест успешно создан: {} с {} ревьюверами", 
-                request.pullRequestId(), selectedReviewers.size());
+        List<PullRequestReviewer> reviewerAssignments = new ArrayList<>();
+        int createdCount = 0;
+        for (int i = 0; i < pendingPullRequests.size(); i++) {
+            PullRequest pullRequest = pendingPullRequests.get(i);
+            int index = pendingIndexes.get(pullRequest.getId());
+            
+            if (insertedCounts[i] == 0) {
+                results[index] = failedItem(pullRequest.getId(), new PrExistsException(pullRequest.getId()));
+                continue;
+            }
+            
+            String authorId = pullRequest.getAuthorId();
+            List<String> selectedReviewers = reviewerAssignmentPolicy.selectReviewers(
+                    rosters.getOrDefault(authors.get(authorId).getTeamName(), List.of()),
+                    MAX_REVIEWERS,
+                    List.of(authorId)
+            );
+            reviewLoadService.onReviewersAssigned(selectedReviewers);
+            
+            for (String reviewerId : selectedReviewers) {
+                PullRequestReviewer reviewerAssignment = PullRequestReviewer.builder()
+                        .pullRequest(pullRequest)
+                        .reviewer(User.builder().id(reviewerId).build())
+                        .createdAt(createdAt)
+                        .build();
+                
+                pullRequest.getReviewers().add(reviewerAssignment);
+                reviewerAssignments.add(reviewerAssignment);
+            }
+            
+            results[index] = PullRequestBatchResponse.Item.builder()
+                    .pullRequestId(pullRequest.getId())
+                    .pr(pullRequestMapper.toResponse(pullRequest))
+                    .build();
+            createdCount++;
+        }
         
-        return pullRequestMapper.toResponse(pullRequest);
+        pullRequestRepository.insertReviewers(reviewerAssignments);
+        assignmentStatisticsService.onAssignmentsCreated(reviewerAssignments);
+        
+        log.info("Пакетное создание завершено: создано {} из {} пулл реквестов, назначено {} ревьюверов",
+                createdCount, items.size(), reviewerAssignments.size());
+        
+        return new PullRequestBatchResponse(List.of(results));
     }
     
     @Override
@@ -116,24 +236,72 @@ public class PullRequestServiceImpl implements PullRequestService {
         log.info("Слияние пулл реквеста: {}", request.pullRequestId());
         
         final String pullRequestId = request.pullRequestId();
-        PullRequest pullRequest = pullRequestRepository.findById(pullRequestId)
-                .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
+        List<PullRequestMergeProjection> rows = pullRequestRepository.mergeById(pullRequestId, currentTimestamp());
         
-        if (pullRequest.getStatus() == PrStatus.MERGED) {
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Пулл реквест не найден: " + pullRequestId);
+        }
+        
+        PullRequestMergeProjection merged = rows.get(0);
+        PullRequestResponse response = toMergedResponse(rows);
+        
+        if (merged.getMergedNow()) {
+            reviewLoadService.onReviewersReleased(response.assignedReviewers());
+            assignmentStatisticsService.onPullRequestsMerged(List.of(pullRequestId));
+            mergeLatencyService.onPullRequestMerged(merged.getAuthorTeamName(), merged.getCreatedAt(), merged.getMergedAt());
+            log.info("Пулл реквест успешно слит: {}", pullRequestId);
+        } else {
             log.info("Пулл реквест {} уже слит", pullRequestId);
-            pullRequest = pullRequestRepository.findByIdWithReviewers(pullRequestId)
-                    .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
-            return pullRequestMapper.toResponse(pullRequest);
         }
         
-        pullRequest.setStatus(PrStatus.MERGED);
-        pullRequest = pullRequestRepository.save(pullRequest);
+        return response;
+    }
+    
+    @Override
+    @Transactional
+    public PullRequestMergeBatchResponse mergePullRequests(MergePullRequestBatchRequest request) {
+        List<String> pullRequestIds = request.pullRequestIds();
+        log.info("Пакетное слияние пулл реквестов: {}", pullRequestIds.size());
         
-        pullRequest = pullRequestRepository.findByIdWithReviewers(pullRequestId)
-                .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
+        Map<String, List<PullRequestMergeProjection>> rowsById = pullRequestRepository
+                .mergeAllById(new HashSet<>(pullRequestIds), currentTimestamp())
+                .stream()
+                .collect(Collectors.groupingBy(PullRequestMergeProjection::getId, LinkedHashMap::new, Collectors.toList()));
         
-        log.info("Пулл реквест успешно слит: {}", request.pullRequestId());
-        return pullRequestMapper.toResponse(pullRequest);
+        Map<String, PullRequestMergeBatchResponse.Item> itemsById = new HashMap<>();
+        List<String> releasedReviewerIds = new ArrayList<>();
+        List<String> mergedNowIds = new ArrayList<>();
+        for (Map.Entry<String, List<PullRequestMergeProjection>> entry : rowsById.entrySet()) {
+            PullRequestMergeProjection merged = entry.getValue().get(0);
+            PullRequestResponse response = toMergedResponse(entry.getValue());
+            boolean mergedNow = merged.getMergedNow();
+            
+            if (mergedNow) {
+                releasedReviewerIds.addAll(response.assignedReviewers());
+                mergedNowIds.add(entry.getKey());
+                mergeLatencyService.onPullRequestMerged(merged.getAuthorTeamName(), merged.getCreatedAt(), merged.getMergedAt());
+            }
+            
+            itemsById.put(entry.getKey(), PullRequestMergeBatchResponse.Item.builder()
+                    .pullRequestId(entry.getKey())
+                    .outcome(mergedNow ? MergeOutcome.MERGED : MergeOutcome.ALREADY_MERGED)
+                    .pr(response)
+                    .build());
+        }
+        reviewLoadService.onReviewersReleased(releasedReviewerIds);
+        assignmentStatisticsService.onPullRequestsMerged(mergedNowIds);
+        
+        List<PullRequestMergeBatchResponse.Item> results = pullRequestIds.stream()
+                .map(id -> itemsById.getOrDefault(id, PullRequestMergeBatchResponse.Item.builder()
+                        .pullRequestId(id)
+                        .outcome(MergeOutcome.NOT_FOUND)
+                        .build()))
+                .toList();
+        
+        log.info("Пакетное слияние завершено: найдено {} из {} пулл реквестов, освобождено {} назначений",
+                rowsById.size(), pullRequestIds.size(), releasedReviewerIds.size());
+        
+        return new PullRequestMergeBatchResponse(results);
     }
     
     @Override
@@ -145,6 +313,7 @@ public class PullRequestServiceImpl implements PullRequestService {
         final String pullRequestId = request.pullRequestId();
         final String oldUserId = request.oldUserId();
         
+        pullRequestRepository.lockAllById(List.of(pullRequestId));
         PullRequest pullRequest = pullRequestRepository.findByIdWithReviewers(pullRequestId)
                 .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
         
@@ -152,7 +321,7 @@ public class PullRequestServiceImpl implements PullRequestService {
             throw new PrMergedException(pullRequestId);
         }
         
-        boolean isAssigned = pullRequestReviewerRepository.existsByPullRequestIdAndReviewerId(
+        boolean isAssigned = pullRequestReviewerRepository.existsOpenByPullRequestIdAndReviewerId(
                 pullRequestId,
                 oldUserId
         );
@@ -164,36 +333,88 @@ public class PullRequestServiceImpl implements PullRequestService {
         User oldReviewer = userRepository.findById(oldUserId)
                 .orElseThrow(() -> new NotFoundException("Ревьювер не найден: " + oldUserId));
         
-        List<User> candidateReviewers = userRepository.findActiveTeamMembersExcludingUser(oldReviewer.getId());
+        Set<String> excludedIds = new HashSet<>(pullRequest.getAssignedReviewerIds());
+        excludedIds.add(pullRequest.getAuthorId());
+        excludedIds.add(oldReviewer.getId());
+        
+        List<String> candidateReviewers = reviewerAssignmentPolicy.selectReviewers(
+                teamRosterService.getActiveMemberIds(oldReviewer.getTeamName()),
+                1,
+                excludedIds
+        );
         
         if (candidateReviewers.isEmpty()) {
             throw new NoCandidateException("нет активного кандидата для замены в команде");
         }
         
-        User newReviewer = candidateReviewers.get(RANDOM.nextInt(candidateReviewers.size()));
+        final String newReviewerId = candidateReviewers.get(0);
         
-        pullRequestReviewerRepository.deleteByPullRequestIdAndReviewerId(
+        pullRequestReviewerRepository.deleteOpenByPullRequestIdAndReviewerId(
                 pullRequestId,
                 oldUserId
         );
         
         PullRequestReviewer newReviewerAssignment = PullRequestReviewer.builder()
-                .pullRequestId(pullRequestId)
-                .reviewerId(newReviewer.getId())
+                .pullRequest(pullRequest)
+                .reviewer(User.builder().id(newReviewerId).build())
+                .createdAt(currentTimestamp())
                 .build();
         
-        pullRequestReviewerRepository.save(newReviewerAssignment);
+        pullRequestRepository.insertReviewers(List.of(newReviewerAssignment));
         
-        pullRequest = pullRequestRepository.findByIdWithReviewers(pullRequestId)
-                .orElseThrow(() -> new NotFoundException("Пулл реквест не найден: " + pullRequestId));
+        pullRequest.getReviewers().removeIf(reviewer -> reviewer.getReviewerId().equals(oldUserId));
+        pullRequest.getReviewers().add(newReviewerAssignment);
+        
+        reviewLoadService.onReviewersReleased(List.of(oldUserId));
+        reviewLoadService.onReviewersAssigned(List.of(newReviewerId));
+        assignmentStatisticsService.onAssignmentsDeleted(List.of(PullRequestReviewer.builder()
+                .pullRequest(pullRequest)
+                .reviewer(oldReviewer)
+                .build()));
+        assignmentStatisticsService.onAssignmentsCreated(List.of(newReviewerAssignment));
         
         log.info("Ревьювер успешно переназначен: {} -> {} для PR {}", 
-                oldUserId, newReviewer.getId(), pullRequestId);
+                oldUserId, newReviewerId, pullRequestId);
 
         return new ReassignResponse(
                 pullRequestMapper.toResponse(pullRequest),
-                newReviewer.getId()
+                newReviewerId
         );
     }
+    
+    /**
+     * Текущее время с точностью TIMESTAMP в PostgreSQL, чтобы ответ совпадал с последующим чтением из базы.
+     */
+    private static LocalDateTime currentTimestamp() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    /**
+     * Собирает ответ по строкам слияния одного PR: по строке на каждого ревьювера.
+     */
+    private static PullRequestResponse toMergedResponse(List<PullRequestMergeProjection> rows) {
+        PullRequestMergeProjection merged = rows.get(0);
+        List<String> reviewerIds = rows.stream()
+                .map(PullRequestMergeProjection::getReviewerId)
+                .filter(Objects::nonNull)
+                .toList();
+        
+        return PullRequestResponse.builder()
+                .pullRequestId(merged.getId())
+                .pullRequestName(merged.getPullRequestName())
+                .authorId(merged.getAuthorId())
+                .status(PrStatus.MERGED)
+                .assignedReviewers(reviewerIds)
+                .createdAt(merged.getCreatedAt())
+                .mergedAt(merged.getMergedAt())
+                .build();
+    }
+    
+    private static PullRequestBatchResponse.Item failedItem(String pullRequestId, BusinessException exception) {
+        return PullRequestBatchResponse.Item.builder()
+                .pullRequestId(pullRequestId)
+                .error(new ErrorResponse.ErrorDetail(exception.getErrorCode(), exception.getMessage()))
+                .build();
+    }
 
 }
@@ -0,0 +1,51 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Политика случайного выбора ревьюверов.
+ * <p>
+ * Выбирает равновероятное подмножество кандидатов за один проход (reservoir sampling),
+ * не копируя и не перемешивая список кандидатов.
+ *
+ * @author Iakov Lysenko
+ */
+@Component
+@ConditionalOnProperty(prefix = "reviewers", name = "assignment-policy", havingValue = "random")
+public class RandomReviewerAssignmentPolicy implements ReviewerAssignmentPolicy {
+
+    @Override
+    public List<String> selectReviewers(List<String> candidateIds, int count, Collection<String> excludedIds) {
+        if (count <= 0 || candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        String[] selected = new String[count];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seen = 0;
+        for (String candidateId : candidateIds) {
+            if (excludedIds.contains(candidateId)) {
+                continue;
+            }
+            if (seen < count) {
+                selected[seen] = candidateId;
+            } else {
+                int slot = random.nextInt(seen + 1);
+                if (slot < count) {
+                    selected[slot] = candidateId;
+                }
+            }
+            seen++;
+        }
+
+        return List.of(Arrays.copyOf(selected, Math.min(seen, count)));
+    }
+
+}
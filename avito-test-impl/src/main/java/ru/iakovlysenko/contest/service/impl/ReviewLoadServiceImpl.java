@@ -0,0 +1,73 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.util.TransactionUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация сервиса {@link ReviewLoadService}.
+ * <p>
+ * Счетчики загружаются из базы один раз при старте приложения, далее обновляются
+ * без блокировок при назначении, переназначении и слиянии пулл реквестов.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewLoadServiceImpl implements ReviewLoadService {
+
+    private final PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    private final ConcurrentMap<String, AtomicLong> openReviews = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadOpenReviews() {
+        pullRequestReviewerRepository.countAssignmentsPerReviewerByStatus(PrStatus.OPEN)
+                .forEach(projection -> openReviews.put(
+                        projection.getReviewerId(),
+                        new AtomicLong(projection.getAssignmentsCount())
+                ));
+
+        log.info("Загружены счетчики открытых ревью для {} ревьюверов", openReviews.size());
+    }
+
+    @Override
+    public long getOpenReviewsCount(String reviewerId) {
+        AtomicLong counter = openReviews.get(reviewerId);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    @Override
+    public void onReviewersAssigned(Collection<String> reviewerIds) {
+        List<String> assignedIds = List.copyOf(reviewerIds);
+        assignedIds.forEach(reviewerId -> counter(reviewerId).incrementAndGet());
+        TransactionUtils.afterRollback(() -> assignedIds.forEach(this::decrement));
+    }
+
+    @Override
+    public void onReviewersReleased(Collection<String> reviewerIds) {
+        List<String> releasedIds = List.copyOf(reviewerIds);
+        TransactionUtils.afterCommit(() -> releasedIds.forEach(this::decrement));
+    }
+
+    private void decrement(String reviewerId) {
+        counter(reviewerId).updateAndGet(count -> Math.max(0L, count - 1));
+    }
+
+    private AtomicLong counter(String reviewerId) {
+        return openReviews.computeIfAbsent(reviewerId, id -> new AtomicLong());
+    }
+
+}
@@ -0,0 +1,145 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
+import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+import ru.iakovlysenko.contest.entity.User;
+import ru.iakovlysenko.contest.projection.OpenReviewAssignmentProjection;
+import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.service.ReviewReassignmentService;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация сервиса {@link ReviewReassignmentService}.
+ * <p>
+ * Затронутые PR блокируются отдельным запросом, их открытые назначения читаются одним запросом,
+ * замены выбираются в памяти, после чего старые назначения удаляются одним запросом, а новые вставляются пакетно.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewReassignmentServiceImpl implements ReviewReassignmentService {
+
+    private final PullRequestRepository pullRequestRepository;
+    private final PullRequestReviewerRepository pullRequestReviewerRepository;
+    private final TeamRosterService teamRosterService;
+    private final ReviewerAssignmentPolicy reviewerAssignmentPolicy;
+    private final ReviewLoadService reviewLoadService;
+    private final AssignmentStatisticsService assignmentStatisticsService;
+
+    @Override
+    @Transactional
+    public ReviewReassignmentResponse reassignOpenReviews(Collection<String> reviewerIds) {
+        log.info("Массовое переназначение открытых ревью пользователей: {}", reviewerIds);
+
+        Set<String> releasedIds = Set.copyOf(reviewerIds);
+        List<String> lockedPullRequestIds = pullRequestReviewerRepository.lockOpenPullRequestIdsByReviewerIds(releasedIds);
+        List<OpenReviewAssignmentProjection> openAssignments = lockedPullRequestIds.isEmpty()
+                ? List.of()
+                : pullRequestReviewerRepository.findOpenAssignmentsByPullRequestIds(lockedPullRequestIds);
+        Map<String, List<OpenReviewAssignmentProjection>> assignmentsByPullRequest = openAssignments
+                .stream()
+                .collect(Collectors.groupingBy(OpenReviewAssignmentProjection::getPullRequestId,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<ReviewReassignmentResponse.Item> reassigned = new ArrayList<>();
+        List<ReviewReassignmentResponse.Item> unassigned = new ArrayList<>();
+        List<PullRequestReviewer> newAssignments = new ArrayList<>();
+        List<String> releasedReviewerIds = new ArrayList<>();
+        List<PullRequestReviewer> releasedAssignments = new ArrayList<>();
+
+        for (Map.Entry<String, List<OpenReviewAssignmentProjection>> entry : assignmentsByPullRequest.entrySet()) {
+            String pullRequestId = entry.getKey();
+            List<OpenReviewAssignmentProjection> assignments = entry.getValue();
+            PullRequest pullRequest = PullRequest.builder().id(pullRequestId).build();
+
+            Set<String> excludedIds = new HashSet<>(releasedIds);
+            excludedIds.add(assignments.get(0).getAuthorId());
+            assignments.forEach(assignment -> excludedIds.add(assignment.getReviewerId()));
+
+            for (OpenReviewAssignmentProjection assignment : assignments) {
+                if (!releasedIds.contains(assignment.getReviewerId())) {
+                    continue;
+                }
+                releasedReviewerIds.add(assignment.getReviewerId());
+                releasedAssignments.add(PullRequestReviewer.builder()
+                        .pullRequest(pullRequest)
+                        .reviewer(User.builder().id(assignment.getReviewerId()).build())
+                        .build());
+
+                List<String> candidates = reviewerAssignmentPolicy.selectReviewers(
+                        teamRosterService.getActiveMemberIds(assignment.getReviewerTeamName()),
+                        1,
+                        excludedIds
+                );
+
+                if (candidates.isEmpty()) {
+                    unassigned.add(ReviewReassignmentResponse.Item.builder()
+                            .pullRequestId(pullRequestId)
+                            .oldReviewerId(assignment.getReviewerId())
+                            .build());
+                    continue;
+                }
+
+                String newReviewerId = candidates.get(0);
+                excludedIds.add(newReviewerId);
+                // Нагрузка учитывается сразу, чтобы следующий выбор видел уже сделанные замены.
+                reviewLoadService.onReviewersAssigned(List.of(newReviewerId));
+
+                newAssignments.add(PullRequestReviewer.builder()
+                        .pullRequest(pullRequest)
+                        .reviewer(User.builder().id(newReviewerId).build())
+                        .createdAt(createdAt)
+                        .build());
+                reassigned.add(ReviewReassignmentResponse.Item.builder()
+                        .pullRequestId(pullRequestId)
+                        .oldReviewerId(assignment.getReviewerId())
+                        .newReviewerId(newReviewerId)
+                        .build());
+            }
+        }
+
+        if (!releasedReviewerIds.isEmpty()) {
+            // Удаляются только прочитанные назначения заблокированных PR: назначение, созданное параллельно
+            // на новый PR, не попало в чтение и осталось бы без замены и без учета в счетчиках.
+            int deleted = pullRequestReviewerRepository.deleteOpenByReviewerIdsAndPullRequestIds(
+                    releasedIds, assignmentsByPullRequest.keySet());
+            if (deleted != releasedReviewerIds.size()) {
+                throw new IllegalStateException("Удалено " + deleted + " назначений вместо "
+                        + releasedReviewerIds.size() + " прочитанных");
+            }
+            pullRequestRepository.insertReviewers(newAssignments);
+            reviewLoadService.onReviewersReleased(releasedReviewerIds);
+            assignmentStatisticsService.onAssignmentsDeleted(releasedAssignments);
+            assignmentStatisticsService.onAssignmentsCreated(newAssignments);
+        }
+
+        log.info("Массовое переназначение завершено: затронуто {} PR, переназначено {}, снято без замены {}",
+                assignmentsByPullRequest.size(), reassigned.size(), unassigned.size());
+
+        return new ReviewReassignmentResponse(reassigned, unassigned);
+    }
+
+}
@@ -1,17 +1,52 @@
 package ru.iakovlysenko.contest.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
 import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsSnapshot;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
+import ru.iakovlysenko.contest.exception.InvalidRangeException;
+import ru.iakovlysenko.contest.exception.NotFoundException;
+import ru.iakovlysenko.contest.projection.PullRequestReviewersCountProjection;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentsPeriodProjection;
+import ru.iakovlysenko.contest.projection.TeamStatisticsProjection;
 import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.repository.ReviewerAssignmentsDailyRepository;
+import ru.iakovlysenko.contest.repository.TeamRepository;
+import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.MergeLatencyService;
 import ru.iakovlysenko.contest.service.StatisticsService;
+import ru.iakovlysenko.contest.util.LatencyHistogram;
+import ru.iakovlysenko.contest.util.PullRequestCursor;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Реализация сервиса {@link StatisticsService}.
+ * <p>
+ * Статистика собирается из счетчиков {@link AssignmentStatisticsService} без обращения к базе данных.
+ * Снимок статистики вместе с готовым JSON пересчитывается по расписанию и подменяется атомарно,
+ * поэтому опрашивающие клиенты получают уже сериализованный ответ.
+ * Выборки по команде, топу пользователей и страницам пулл реквестов считаются запросами к базе,
+ * которые сами ограничивают результат, не загружая статистику целиком.
+ * Временные ряды назначений читаются из дневной свертки reviewer_assignments_daily, а не из таблицы назначений,
+ * а процентили времени до слияния - из гистограмм {@link MergeLatencyService}, а не из таблицы пулл реквестов.
  *
  * @author Iakov Lysenko
  */
@@ -20,31 +55,205 @@ import java.util.List;
 @Slf4j
 public class StatisticsServiceImpl implements StatisticsService {
 
+    private static final int DEFAULT_PULL_REQUEST_PAGE_SIZE = 100;
+    private static final int DEFAULT_TOP_REVIEWERS = 10;
+    private static final long MAX_TIMESERIES_DAYS = 366;
+
+    private final AssignmentStatisticsService assignmentStatisticsService;
+    private final MergeLatencyService mergeLatencyService;
     private final PullRequestReviewerRepository pullRequestReviewerRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final ReviewerAssignmentsDailyRepository reviewerAssignmentsDailyRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<StatisticsSnapshot> snapshot = new AtomicReference<>();
 
     @Override
-    @Transactional(readOnly = true)
     public StatisticsResponse getStatistics() {
         log.info("Получение статистики назначений ревьюверов");
+        return buildStatistics();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatisticsResponse getStatistics(String teamName, Integer top, Integer limit, String after) {
+        log.info("Получение выборки статистики: команда {}, топ {}, страница {}", teamName, top, limit);
+
+        int pageSize = limit != null ? limit : DEFAULT_PULL_REQUEST_PAGE_SIZE;
+        String afterPullRequestId = after != null ? PullRequestCursor.decode(after).pullRequestId() : "";
+
+        if (teamName != null && !teamRepository.existsByTeamName(teamName)) {
+            throw new NotFoundException("Команда не найдена: " + teamName);
+        }
+
+        // Топ ревьюверов требует группировки всех назначений, поэтому на следующих страницах PR
+        // он считается только по явному запросу, а на первой странице ограничен размером по умолчанию.
+        List<ReviewerAssignmentCountProjection> topReviewers = List.of();
+        if (top != null || after == null) {
+            Limit topLimit = Limit.of(top != null ? top : DEFAULT_TOP_REVIEWERS);
+            topReviewers = teamName != null
+                    ? pullRequestReviewerRepository.findTopReviewersByAssignmentsInTeam(teamName, topLimit)
+                    : pullRequestReviewerRepository.findTopReviewersByAssignments(topLimit);
+        }
+
+        // Запрашивается на одну строку больше страницы, чтобы узнать, есть ли следующая страница.
+        Limit pageLimit = Limit.of(pageSize + 1);
+        List<PullRequestReviewersCountProjection> reviewersPage = teamName != null
+                ? pullRequestReviewerRepository.findReviewersPerPullRequestPageInTeam(teamName, afterPullRequestId, pageLimit)
+                : pullRequestReviewerRepository.findReviewersPerPullRequestPage(afterPullRequestId, pageLimit);
+
+        String nextCursor = null;
+        if (reviewersPage.size() > pageSize) {
+            reviewersPage = reviewersPage.subList(0, pageSize);
+            nextCursor = new PullRequestCursor(reviewersPage.get(pageSize - 1).getPullRequestId()).encode();
+        }
+
+        return new StatisticsResponse(
+                topReviewers.stream()
+                        .map(projection -> new StatisticsResponse.UserAssignmentsStatistic(
+                                projection.getReviewerId(),
+                                projection.getAssignmentsCount()
+                        ))
+                        .toList(),
+                reviewersPage.stream()
+                        .map(projection -> new StatisticsResponse.PullRequestReviewersStatistic(
+                                projection.getPullRequestId(),
+                                projection.getReviewersCount()
+                        ))
+                        .toList(),
+                nextCursor
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatisticsTimeseriesResponse getAssignmentsTimeseries(LocalDate from, LocalDate to,
+                                                                 TimeseriesGranularity granularity, String userId) {
+        log.info("Получение временного ряда назначений: {} - {}, шаг {}, пользователь {}", from, to, granularity, userId);
+
+        if (from.isAfter(to)) {
+            throw new InvalidRangeException("Начало диапазона позже его конца: " + from + " - " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_TIMESERIES_DAYS) {
+            throw new InvalidRangeException("Диапазон больше " + MAX_TIMESERIES_DAYS + " дней: " + from + " - " + to);
+        }
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        List<ReviewerAssignmentsPeriodProjection> periods = userId != null
+                ? reviewerAssignmentsDailyRepository.sumReviewerAssignmentsByPeriod(userId, granularity.getPeriod(), from, to)
+                : reviewerAssignmentsDailyRepository.sumAssignmentsByPeriod(granularity.getPeriod(), from, to);
+
+        return StatisticsTimeseriesResponse.builder()
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .points(periods.stream()
+                        .map(projection -> new StatisticsTimeseriesResponse.Point(
+                                projection.getReviewerId(),
+                                projection.getPeriodStart(),
+                                projection.getAssignmentsCount()
+                        ))
+                        .toList())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TeamStatisticsResponse getTeamStatistics() {
+        log.info("Получение статистики по командам");
+
+        List<TeamStatisticsResponse.TeamStatistic> teams = teamRepository.getTeamStatistics().stream()
+                .map(StatisticsServiceImpl::toTeamStatistic)
+                .toList();
+
+        return new TeamStatisticsResponse(teams);
+    }
+
+    @Override
+    public MergeLatencyResponse getMergeLatency() {
+        log.info("Получение времени до слияния пулл реквестов по командам");
+
+        List<MergeLatencyResponse.TeamMergeLatency> teams = mergeLatencyService.getHistograms().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> toTeamMergeLatency(entry.getKey(), entry.getValue()))
+                .toList();
 
-        List<StatisticsResponse.UserAssignmentsStatistic> assignmentsByUser = pullRequestReviewerRepository
-                .countAssignmentsPerReviewer()
+        return new MergeLatencyResponse(teams);
+    }
+
+    @Override
+    public StatisticsSnapshot getSnapshot() {
+        StatisticsSnapshot current = snapshot.get();
+        return current != null ? current : refreshSnapshot();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${statistics.snapshot-interval}")
+    public StatisticsSnapshot refreshSnapshot() {
+        StatisticsResponse statistics = buildStatistics();
+        StatisticsSnapshot fresh = new StatisticsSnapshot(statistics, serialize(statistics), Instant.now());
+
+        // Параллельный пересчет мог завершиться позже, но начаться раньше: остается более свежий снимок.
+        snapshot.accumulateAndGet(fresh, (current, next) ->
+                current == null || next.computedAt().isAfter(current.computedAt()) ? next : current);
+
+        log.debug("Снимок статистики пересчитан: {} ревьюверов, {} пулл реквестов",
+                statistics.assignmentsByUser().size(), statistics.reviewersPerPullRequest().size());
+        return fresh;
+    }
+
+    private StatisticsResponse buildStatistics() {
+        List<StatisticsResponse.UserAssignmentsStatistic> assignmentsByUser = assignmentStatisticsService
+                .getAssignmentsByReviewer()
+                .entrySet()
                 .stream()
-                .map(projection -> new StatisticsResponse.UserAssignmentsStatistic(
-                        projection.getReviewerId(),
-                        projection.getAssignmentsCount()
-                ))
+                .map(entry -> new StatisticsResponse.UserAssignmentsStatistic(entry.getKey(), entry.getValue()))
                 .toList();
 
-        List<StatisticsResponse.PullRequestReviewersStatistic> reviewersPerPullRequest = pullRequestReviewerRepository
-                .countReviewersPerPullRequest()
+        List<StatisticsResponse.PullRequestReviewersStatistic> reviewersPerPullRequest = assignmentStatisticsService
+                .getReviewersByPullRequest()
+                .entrySet()
                 .stream()
-                .map(projection -> new StatisticsResponse.PullRequestReviewersStatistic(
-                        projection.getPullRequestId(),
-                        projection.getReviewersCount()
-                ))
+                .map(entry -> new StatisticsResponse.PullRequestReviewersStatistic(entry.getKey(), entry.getValue()))
                 .toList();
 
-        return new StatisticsResponse(assignmentsByUser, reviewersPerPullRequest);
+        return new StatisticsResponse(assignmentsByUser, reviewersPerPullRequest, null);
+    }
+
+    private byte[] serialize(StatisticsResponse statistics) {
+        try {
+            return objectMapper.writeValueAsBytes(statistics);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать снимок статистики", e);
+        }
+    }
+
+    private static MergeLatencyResponse.TeamMergeLatency toTeamMergeLatency(String teamName, LatencyHistogram histogram) {
+        return new MergeLatencyResponse.TeamMergeLatency(
+                teamName,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99)
+        );
+    }
+
+    private static TeamStatisticsResponse.TeamStatistic toTeamStatistic(TeamStatisticsProjection projection) {
+        return TeamStatisticsResponse.TeamStatistic.builder()
+                .teamName(projection.getTeamName())
+                .membersCount(projection.getMembersCount())
+                .openPullRequestsCount(projection.getOpenPullRequestsCount())
+                .assignmentsCount(projection.getAssignmentsCount())
+                .assignmentsPerMember(average(projection.getAssignmentsCount(), projection.getMembersCount()))
+                .averageReviewersPerPullRequest(
+                        average(projection.getPullRequestReviewersCount(), projection.getPullRequestsCount()))
+                .build();
+    }
+
+    private static double average(long total, long count) {
+        return count == 0 ? 0.0 : (double) total / count;
     }
 }
@@ -0,0 +1,123 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+import ru.iakovlysenko.contest.util.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация сервиса {@link TeamRosterService}.
+ * <p>
+ * Состав каждой команды хранится как неизменяемый список: чтение не требует блокировок,
+ * а редкие изменения активности заменяют список целиком.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamRosterServiceImpl implements TeamRosterService {
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentMap<String, List<String>> rosters = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    @Override
+    public List<String> getActiveMemberIds(String teamName) {
+        List<String> roster = rosters.get(teamName);
+        if (roster != null) {
+            return roster;
+        }
+
+        long stamp = modifications.get();
+        List<String> loaded = List.copyOf(userRepository.findActiveUserIdsByTeamName(teamName));
+
+        List<String> existing = rosters.putIfAbsent(teamName, loaded);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (modifications.get() != stamp) {
+            // Пока состав загружался, закоммитилось изменение участников: загруженный список
+            // мог его не увидеть, поэтому следующее обращение перечитает команду заново.
+            rosters.remove(teamName, loaded);
+        }
+
+        log.debug("Загружен состав команды {}: {} активных участников", teamName, loaded.size());
+        return loaded;
+    }
+
+    @Override
+    public void onMemberChanged(String userId, String teamName, boolean isActive) {
+        onMembersChanged(Map.of(userId, teamName), isActive);
+    }
+
+    @Override
+    public void onMembersChanged(Map<String, String> teamNamesByUserId, boolean isActive) {
+        if (teamNamesByUserId.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> changes = Map.copyOf(teamNamesByUserId);
+        TransactionUtils.afterCommit(() -> applyMembersChange(changes, isActive));
+    }
+
+    @Override
+    public void invalidateAll() {
+        TransactionUtils.afterCommit(() -> {
+            modifications.incrementAndGet();
+            rosters.clear();
+        });
+    }
+
+    private void applyMembersChange(Map<String, String> teamNamesByUserId, boolean isActive) {
+        modifications.incrementAndGet();
+
+        // Пользователь мог перейти из другой команды, поэтому он удаляется из всех загруженных составов,
+        // кроме целевого. Составы команд, которые ещё не загружены, будут прочитаны из базы при первом обращении.
+        for (String rosterTeamName : rosters.keySet()) {
+            rosters.computeIfPresent(rosterTeamName,
+                    (name, roster) -> withMembers(roster, name, teamNamesByUserId, isActive));
+        }
+    }
+
+    private static List<String> withMembers(List<String> roster, String rosterTeamName,
+                                            Map<String, String> teamNamesByUserId, boolean isActive) {
+        List<String> updated = new ArrayList<>(roster.size());
+        Set<String> retained = new HashSet<>();
+        for (String memberId : roster) {
+            String teamName = teamNamesByUserId.get(memberId);
+            if (teamName == null) {
+                updated.add(memberId);
+            } else if (isActive && teamName.equals(rosterTeamName)) {
+                updated.add(memberId);
+                retained.add(memberId);
+            }
+        }
+        boolean modified = updated.size() != roster.size();
+
+        if (isActive) {
+            for (Map.Entry<String, String> change : teamNamesByUserId.entrySet()) {
+                if (change.getValue().equals(rosterTeamName) && !retained.contains(change.getKey())) {
+                    updated.add(change.getKey());
+                    modified = true;
+                }
+            }
+        }
+
+        return modified ? List.copyOf(updated) : roster;
+    }
+
+}
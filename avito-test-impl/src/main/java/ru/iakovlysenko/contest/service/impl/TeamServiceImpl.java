@@ -6,20 +6,40 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.iakovlysenko.contest.entity.Team;
 import ru.iakovlysenko.contest.entity.User;
+import ru.iakovlysenko.contest.projection.UserActivityChangeProjection;
+import ru.iakovlysenko.contest.projection.UserRemovalProjection;
 import ru.iakovlysenko.contest.repository.TeamRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.exception.TeamExistsException;
 import ru.iakovlysenko.contest.mapper.TeamMapper;
+import ru.iakovlysenko.contest.service.ReviewReassignmentService;
+import ru.iakovlysenko.contest.service.TeamRosterService;
 import ru.iakovlysenko.contest.service.TeamService;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервиса {@link TeamService}.
+ * <p>
+ * Команда создается постоянным количеством запросов независимо от ее размера: вставкой команды
+ * и одним JDBC batch вставки или обновления всех участников. Изменение состава так же выполняется
+ * не более чем одним запросом на каждый вид изменения.
  *
  * @author Iakov Lysenko
  */
@@ -30,50 +50,36 @@ public class TeamServiceImpl implements TeamService {
     
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final TeamRosterService teamRosterService;
+    private final ReviewReassignmentService reviewReassignmentService;
     private final TeamMapper teamMapper;
     
     @Override
     @Transactional
     public TeamResponse createTeam(TeamRequest request) {
-        log.info("Создание команды: {}", request.teamName());
+        log.info("Создание команды: {}, участников: {}", request.teamName(), request.members().size());
         
-        if (teamRepository.existsByTeamName(request.teamName())) {
+        LocalDateTime now = currentTimestamp();
+        if (teamRepository.insertIfAbsent(request.teamName(), now) == 0) {
             throw new TeamExistsException(request.teamName());
         }
         
         Team team = Team.builder()
                 .teamName(request.teamName())
+                .createdAt(now)
+                .updatedAt(now)
                 .build();
         
-        team = teamRepository.save(team);
-        
-        final Team finalTeam = team;
-        
-        List<User> members = new ArrayList<>();
-        for (TeamRequest.TeamMemberRequest memberRequest : request.members()) {
-            final String userId = memberRequest.userId();
-            final String username = memberRequest.username();
-            final Boolean isActive = memberRequest.isActive();
-            
-            User user = userRepository.findById(userId)
-                    .map(existingUser -> {
-                        existingUser.setUsername(username);
-                        existingUser.setIsActive(isActive);
-                        existingUser.setTeam(finalTeam);
-                        return existingUser;
-                    })
-                    .orElseGet(() -> User.builder()
-                            .id(userId)
-                            .username(username)
-                            .isActive(isActive)
-                            .team(finalTeam)
-                            .build());
-            
-            user = userRepository.save(user);
-            members.add(user);
-        }
+        List<User> members = toMembers(request.members(), team, now);
+        userRepository.upsertAll(members);
         
-        team.setMembers(members);
+        Map<Boolean, Map<String, String>> teamNamesByActivity = members.stream()
+                .collect(Collectors.partitioningBy(User::getIsActive,
+                        Collectors.toMap(User::getId, User::getTeamName)));
+        teamRosterService.onMembersChanged(teamNamesByActivity.get(true), true);
+        teamRosterService.onMembersChanged(teamNamesByActivity.get(false), false);
+        
+        team.setMembers(new ArrayList<>(members));
         
         log.info("Команда успешно создана: {}", request.teamName());
         return teamMapper.toResponse(team);
@@ -92,5 +98,122 @@ public class TeamServiceImpl implements TeamService {
         
         return teamMapper.toResponse(team);
     }
+    
+    @Override
+    @Transactional
+    public UpdateTeamMembersResponse updateMembers(UpdateTeamMembersRequest request) {
+        String teamName = request.teamName();
+        log.info("Изменение состава команды {}", teamName);
+        
+        if (!teamRepository.existsByTeamName(teamName)) {
+            throw new NotFoundException("Команда не найдена: " + teamName);
+        }
+        
+        LocalDateTime now = currentTimestamp();
+        Team team = Team.builder()
+                .teamName(teamName)
+                .build();
+        
+        List<User> added = toMembers(nullToEmpty(request.add()), team, now);
+        userRepository.upsertAll(added);
+        List<UserActivityChangeProjection> activation = setIsActive(teamName, request.activate(), true, now);
+        List<UserActivityChangeProjection> deactivation = setIsActive(teamName, request.deactivate(), false, now);
+        List<UserRemovalProjection> removal = nullToEmpty(request.remove()).isEmpty()
+                ? List.of()
+                : userRepository.deleteRemovableByTeamNameAndIds(teamName, Set.copyOf(request.remove()));
+        
+        List<String> activated = idsWithChange(activation, true);
+        List<String> deactivated = idsWithChange(deactivation, true);
+        List<String> unchanged = Stream.concat(
+                        idsWithChange(activation, false).stream(),
+                        idsWithChange(deactivation, false).stream())
+                .toList();
+        Map<Boolean, List<String>> idsByRemoved = removal.stream()
+                .collect(Collectors.partitioningBy(UserRemovalProjection::getRemoved,
+                        Collectors.mapping(UserRemovalProjection::getId, Collectors.toList())));
+        
+        Set<String> notFound = new LinkedHashSet<>();
+        notFound.addAll(nullToEmpty(request.activate()));
+        notFound.addAll(nullToEmpty(request.deactivate()));
+        notFound.addAll(nullToEmpty(request.remove()));
+        Stream.concat(activation.stream(), deactivation.stream())
+                .forEach(user -> notFound.remove(user.getId()));
+        removal.forEach(user -> notFound.remove(user.getId()));
+        
+        // Загруженные составы обновляются после коммита двумя изменениями без перечитывания команды:
+        // удаленный участник исключается из составов так же, как деактивированный
+        Map<String, String> activeTeamNames = new HashMap<>();
+        Map<String, String> inactiveTeamNames = new HashMap<>();
+        added.forEach(user -> (user.getIsActive() ? activeTeamNames : inactiveTeamNames).put(user.getId(), teamName));
+        activated.forEach(userId -> activeTeamNames.put(userId, teamName));
+        deactivated.forEach(userId -> inactiveTeamNames.put(userId, teamName));
+        idsByRemoved.get(true).forEach(userId -> inactiveTeamNames.put(userId, teamName));
+        teamRosterService.onMembersChanged(activeTeamNames, true);
+        teamRosterService.onMembersChanged(inactiveTeamNames, false);
+        
+        ReviewReassignmentResponse reassignment = null;
+        if (Boolean.TRUE.equals(request.reassignOpenReviews()) && !deactivation.isEmpty()) {
+            reassignment = reviewReassignmentService.reassignOpenReviews(
+                    deactivation.stream().map(UserActivityChangeProjection::getId).toList());
+        }
+        
+        log.info("Состав команды {} изменен: добавлено {}, активировано {}, деактивировано {}, удалено {}, не удалено {}, не найдено {}",
+                teamName, added.size(), activated.size(), deactivated.size(),
+                idsByRemoved.get(true).size(), idsByRemoved.get(false).size(), notFound.size());
+        
+        return UpdateTeamMembersResponse.builder()
+                .teamName(teamName)
+                .added(added.stream().map(User::getId).toList())
+                .activated(activated)
+                .deactivated(deactivated)
+                .unchanged(unchanged)
+                .removed(idsByRemoved.get(true))
+                .notRemoved(idsByRemoved.get(false))
+                .notFound(List.copyOf(notFound))
+                .reassignment(reassignment)
+                .build();
+    }
+    
+    private List<UserActivityChangeProjection> setIsActive(String teamName, List<String> userIds,
+                                                           boolean isActive, LocalDateTime updatedAt) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.setIsActiveByTeamNameAndIds(teamName, Set.copyOf(userIds), isActive, updatedAt);
+    }
+    
+    private static List<String> idsWithChange(List<UserActivityChangeProjection> users, boolean changed) {
+        return users.stream()
+                .filter(user -> user.getChanged() == changed)
+                .map(UserActivityChangeProjection::getId)
+                .toList();
+    }
+    
+    private static List<User> toMembers(List<TeamRequest.TeamMemberRequest> memberRequests, Team team, LocalDateTime now) {
+        // Повтор пользователя в запросе не должен обновлять одну строку дважды: действует последнее вхождение
+        Map<String, TeamRequest.TeamMemberRequest> uniqueRequests = new LinkedHashMap<>();
+        for (TeamRequest.TeamMemberRequest memberRequest : memberRequests) {
+            uniqueRequests.put(memberRequest.userId(), memberRequest);
+        }
+        
+        return uniqueRequests.values().stream()
+                .map(memberRequest -> User.builder()
+                        .id(memberRequest.userId())
+                        .username(memberRequest.username())
+                        .isActive(memberRequest.isActive())
+                        .team(team)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .toList();
+    }
+    
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+    
+    private static LocalDateTime currentTimestamp() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 
 }
@@ -0,0 +1,293 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.iakovlysenko.contest.dto.enums.UserImportFormat;
+import ru.iakovlysenko.contest.dto.request.CreateUserRequest;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
+import ru.iakovlysenko.contest.exception.InvalidImportException;
+import ru.iakovlysenko.contest.projection.UserImportResultProjection;
+import ru.iakovlysenko.contest.projection.UserImportRowProjection;
+import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+import ru.iakovlysenko.contest.service.UserImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация сервиса {@link UserImportService}.
+ * <p>
+ * Строки файла разбираются лениво, по мере того как репозиторий передает их в COPY, поэтому в памяти
+ * одновременно находится одна строка. Отчет об ошибках ограничен {@value #MAX_REPORTED_ERRORS} строками,
+ * остальные отклоненные строки только подсчитываются.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("id", "username", "teamName", "isActive");
+
+    private final UserRepository userRepository;
+    private final TeamRosterService teamRosterService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    @Transactional
+    public UserImportResponse importUsers(InputStream input, UserImportFormat format) {
+        log.info("Импорт пользователей в формате {}", format);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ImportRows rows = format == UserImportFormat.CSV ? new CsvImportRows(reader) : new NdjsonImportRows(reader);
+        UserImportResultProjection result = userRepository.importUsers(rows, currentTimestamp());
+        if (result.usersCreated() + result.usersUpdated() > 0) {
+            teamRosterService.invalidateAll();
+        }
+
+        log.info("Импорт пользователей завершен: принято строк - {}, отклонено - {}, создано пользователей - {}, "
+                        + "обновлено - {}, создано команд - {}",
+                rows.accepted, rows.rejected, result.usersCreated(), result.usersUpdated(), result.teamsCreated());
+        return UserImportResponse.builder()
+                .acceptedCount(rows.accepted)
+                .rejectedCount(rows.rejected)
+                .usersCreatedCount(result.usersCreated())
+                .usersUpdatedCount(result.usersUpdated())
+                .teamsCreatedCount(result.teamsCreated())
+                .errors(rows.errors)
+                .errorsTruncated(rows.rejected > rows.errors.size())
+                .build();
+    }
+
+    private static LocalDateTime currentTimestamp() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Итератор проверенных строк файла. Строки, не прошедшие разбор или проверку, пропускаются
+     * и учитываются в отчете об ошибках.
+     */
+    private abstract class ImportRows implements Iterator<UserImportRowProjection> {
+
+        private final BufferedReader reader;
+        private final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        private long lineNumber;
+        private long accepted;
+        private long rejected;
+        private UserImportRowProjection next;
+
+        ImportRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Разбирает непустую строку файла.
+         *
+         * @param line строка файла
+         * @return запрос на создание пользователя
+         * @throws IllegalArgumentException если строку не удалось разобрать
+         */
+        abstract CreateUserRequest parse(String line);
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                String line = readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!line.isBlank()) {
+                    next = validate(line);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public UserImportRowProjection next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            UserImportRowProjection row = next;
+            next = null;
+            return row;
+        }
+
+        String readLine() {
+            try {
+                String line = reader.readLine();
+                if (line != null) {
+                    lineNumber++;
+                }
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private UserImportRowProjection validate(String line) {
+            CreateUserRequest request;
+            try {
+                request = parse(line);
+            } catch (IllegalArgumentException e) {
+                reject(null, e.getMessage());
+                return null;
+            }
+
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(request.id(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return null;
+            }
+
+            accepted++;
+            return new UserImportRowProjection(request.id(), request.username(), request.teamName(), request.isActive());
+        }
+
+        private void reject(String userId, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportResponse.RowError(lineNumber, userId, message));
+            }
+        }
+    }
+
+    private final class NdjsonImportRows extends ImportRows {
+
+        NdjsonImportRows(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        CreateUserRequest parse(String line) {
+            CreateUserRequest request;
+            try {
+                request = objectMapper.readValue(line, CreateUserRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("некорректный JSON: " + e.getOriginalMessage());
+            }
+            if (request == null) {
+                throw new IllegalArgumentException("ожидался JSON объект");
+            }
+            return request;
+        }
+    }
+
+    private final class CsvImportRows extends ImportRows {
+
+        private final int[] columnIndexes = new int[CSV_COLUMNS.size()];
+        private final int columnsCount;
+
+        CsvImportRows(BufferedReader reader) {
+            super(reader);
+
+            String header = readLine();
+            while (header != null && header.isBlank()) {
+                header = readLine();
+            }
+            if (header == null) {
+                throw new InvalidImportException("Файл не содержит заголовка CSV");
+            }
+
+            List<String> columns = splitCsv(header.replace("\uFEFF", "")).stream()
+                    .map(String::trim)
+                    .toList();
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+                columnIndexes[i] = columns.indexOf(CSV_COLUMNS.get(i));
+                if (columnIndexes[i] < 0) {
+                    missing.add(CSV_COLUMNS.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new InvalidImportException("В заголовке CSV нет колонок: " + String.join(", ", missing));
+            }
+            columnsCount = columns.size();
+        }
+
+        @Override
+        CreateUserRequest parse(String line) {
+            List<String> values = splitCsv(line);
+            if (values.size() != columnsCount) {
+                throw new IllegalArgumentException(
+                        "ожидалось полей: " + columnsCount + ", получено: " + values.size());
+            }
+            return new CreateUserRequest(
+                    values.get(columnIndexes[0]),
+                    values.get(columnIndexes[1]),
+                    values.get(columnIndexes[2]),
+                    parseBoolean(values.get(columnIndexes[3]))
+            );
+        }
+
+        private static Boolean parseBoolean(String value) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw new IllegalArgumentException("isActive: ожидалось true или false");
+        }
+
+        private static List<String> splitCsv(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("незакрытые кавычки");
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+
+}
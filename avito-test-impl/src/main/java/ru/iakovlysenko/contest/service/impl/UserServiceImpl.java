@@ -4,23 +4,41 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.CreateUserRequest;
-import ru.iakovlysenko.contest.entity.PullRequest;
 import ru.iakovlysenko.contest.entity.Team;
 import ru.iakovlysenko.contest.entity.User;
-import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.ReviewAssignmentProjection;
+import ru.iakovlysenko.contest.projection.UserActivityChangeProjection;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
 import ru.iakovlysenko.contest.repository.TeamRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
+import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.mapper.PullRequestMapper;
 import ru.iakovlysenko.contest.mapper.UserMapper;
+import ru.iakovlysenko.contest.service.ReviewReassignmentService;
+import ru.iakovlysenko.contest.service.TeamRosterService;
 import ru.iakovlysenko.contest.service.UserService;
+import ru.iakovlysenko.contest.util.ReviewCursor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -33,15 +51,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int DEFAULT_REVIEW_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final PullRequestRepository pullRequestRepository;
+    private final PullRequestReviewerRepository pullRequestReviewerRepository;
     private final TeamRepository teamRepository;
+    private final TeamRosterService teamRosterService;
+    private final ReviewReassignmentService reviewReassignmentService;
     private final UserMapper userMapper;
     private final PullRequestMapper pullRequestMapper;
 
     @Override
     @Transactional
-    public UserResponse setIsActive(SetIsActiveRequest request) {
+    public UserWrapperResponse setIsActive(SetIsActiveRequest request) {
         log.info("Установка флага активности для пользователя {} в {}", request.userId(), request.isActive());
 
         User user = userRepository.findById(request.userId())
@@ -49,33 +71,130 @@ public class UserServiceImpl implements UserService {
 
         user.setIsActive(request.isActive());
         user = userRepository.save(user);
+        teamRosterService.onMemberChanged(user.getId(), user.getTeamName(), user.getIsActive());
+
+        ReviewReassignmentResponse reassignment = null;
+        if (!user.getIsActive() && Boolean.TRUE.equals(request.reassignOpenReviews())) {
+            reassignment = reviewReassignmentService.reassignOpenReviews(List.of(user.getId()));
+        }
 
         log.info("Флаг активности пользователя {} установлен в {}", request.userId(), request.isActive());
-        return userMapper.toResponse(user);
+        return new UserWrapperResponse(userMapper.toResponse(user), reassignment);
+    }
+
+    @Override
+    @Transactional
+    public BulkSetIsActiveResponse bulkSetIsActive(BulkSetIsActiveRequest request) {
+        final boolean isActive = request.isActive();
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        List<UserActivityChangeProjection> users;
+        List<String> notFound = List.of();
+        if (request.userIds() == null) {
+            log.info("Массовая установка флага активности для команды {} в {}", request.teamName(), isActive);
+
+            users = userRepository.setIsActiveByTeamName(request.teamName(), isActive, updatedAt);
+            if (users.isEmpty() && !teamRepository.existsByTeamName(request.teamName())) {
+                throw new NotFoundException("Команда не найдена: " + request.teamName());
+            }
+        } else {
+            log.info("Массовая установка флага активности для {} пользователей в {}", request.userIds().size(), isActive);
+
+            Set<String> requestedIds = new LinkedHashSet<>(request.userIds());
+            users = userRepository.setIsActiveByIds(requestedIds, isActive, updatedAt);
+            users.forEach(user -> requestedIds.remove(user.getId()));
+            notFound = List.copyOf(requestedIds);
+        }
+
+        List<String> updated = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        Map<String, String> changedTeamNames = new HashMap<>();
+        for (UserActivityChangeProjection user : users) {
+            if (user.getChanged()) {
+                updated.add(user.getId());
+                changedTeamNames.put(user.getId(), user.getTeamName());
+            } else {
+                unchanged.add(user.getId());
+            }
+        }
+        teamRosterService.onMembersChanged(changedTeamNames, isActive);
+
+        ReviewReassignmentResponse reassignment = null;
+        if (!isActive && Boolean.TRUE.equals(request.reassignOpenReviews()) && !users.isEmpty()) {
+            reassignment = reviewReassignmentService.reassignOpenReviews(
+                    users.stream().map(UserActivityChangeProjection::getId).toList());
+        }
+
+        log.info("Флаг активности установлен в {}: изменен у {}, уже был у {}, не найдено {}",
+                isActive, updated.size(), unchanged.size(), notFound.size());
+
+        return BulkSetIsActiveResponse.builder()
+                .isActive(isActive)
+                .updated(updated)
+                .unchanged(unchanged)
+                .notFound(notFound)
+                .reassignment(reassignment)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public GetReviewResponse getReview(String userId) {
-        log.info("Получение ревью для пользователя: {}", userId);
+    public GetReviewResponse getReview(String userId, PrStatus status, Integer limit, String after) {
+        log.info("Получение ревью для пользователя: {}, статус: {}", userId, status);
+
+        int pageSize = limit != null ? limit : DEFAULT_REVIEW_PAGE_SIZE;
+        ReviewCursor cursor = after != null ? ReviewCursor.decode(after) : null;
 
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден: " + userId);
         }
 
-        List<PullRequest> pullRequests = pullRequestRepository.findByReviewerIdWithDetails(userId);
+        // Запрашивается на одну строку больше страницы, чтобы узнать, есть ли следующая страница.
+        List<ReviewAssignmentProjection> assignments = pullRequestReviewerRepository.findReviewPage(
+                userId,
+                status,
+                cursor != null ? cursor.assignedAt() : null,
+                cursor != null ? cursor.pullRequestId() : null,
+                pageSize + 1
+        );
+
+        String nextCursor = null;
+        if (assignments.size() > pageSize) {
+            assignments = assignments.subList(0, pageSize);
+            ReviewAssignmentProjection last = assignments.get(pageSize - 1);
+            nextCursor = new ReviewCursor(last.assignedAt(), last.pullRequestId()).encode();
+        }
 
         GetReviewResponse response = new GetReviewResponse(
                 userId,
-                pullRequests.stream()
+                assignments.stream()
                         .map(pullRequestMapper::toShortResponse)
-                        .collect(Collectors.toList())
+                        .collect(Collectors.toList()),
+                nextCursor
         );
 
-        log.info("Найдено {} PR для ревьювера {}", pullRequests.size(), userId);
+        log.info("Найдено {} PR для ревьювера {}", assignments.size(), userId);
         return response;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReview(String userId, PrStatus status, Consumer<PullRequestShortResponse> action) {
+        log.info("Потоковое получение ревью для пользователя: {}, статус: {}", userId, status);
+
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден: " + userId);
+        }
+
+        AtomicLong count = new AtomicLong();
+        pullRequestReviewerRepository.streamReviews(userId, status, assignment -> {
+            action.accept(pullRequestMapper.toShortResponse(assignment));
+            count.incrementAndGet();
+        });
+
+        log.info("Передано {} PR для ревьювера {}", count.get(), userId);
+    }
+
     @Override
     @Transactional
     public UserResponse createUser(CreateUserRequest createUserRequest) {
@@ -84,14 +203,15 @@ public class UserServiceImpl implements UserService {
         Team team = teamRepository.findByTeamName(createUserRequest.teamName())
                 .orElseThrow(() -> new NotFoundException("Команда не найдена: " + createUserRequest.teamName()));
 
-        User newUser = User.builder()
-                .id(createUserRequest.id())
-                .username(createUserRequest.username())
-                .team(team)
-                .isActive(createUserRequest.isActive())
-                .build();
+        // Пользователь с уже существующим ID перезаписывается.
+        User newUser = userRepository.findById(createUserRequest.id())
+                .orElseGet(() -> User.builder().id(createUserRequest.id()).build());
+        newUser.setUsername(createUserRequest.username());
+        newUser.setTeam(team);
+        newUser.setIsActive(createUserRequest.isActive());
 
         newUser = userRepository.save(newUser);
+        teamRosterService.onMemberChanged(newUser.getId(), newUser.getTeamName(), newUser.getIsActive());
 
         log.info("Пользователь успешно создан: {}", createUserRequest.id());
         return userMapper.toResponse(newUser);
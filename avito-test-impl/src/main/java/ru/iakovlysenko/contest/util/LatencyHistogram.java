@@ -0,0 +1,133 @@
+package ru.iakovlysenko.contest.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма длительностей в миллисекундах с фиксированной относительной точностью по схеме HdrHistogram.
+ * <p>
+ * Значения до {@value #SUB_BUCKET_COUNT} мс хранятся точно, более крупные - в логарифмических корзинах,
+ * каждая из которых делится на {@value #SUB_BUCKET_HALF_COUNT} линейных подкорзин, поэтому погрешность
+ * не превышает 1/{@value #SUB_BUCKET_HALF_COUNT} от значения. Значения больше {@link #HIGHEST_TRACKABLE_MILLIS}
+ * учитываются в последней корзине. Память фиксирована ({@value #BUCKET_COUNT} счетчиков) и не зависит
+ * от количества записанных значений.
+ * <p>
+ * Запись потокобезопасна и не требует блокировок; гистограммы можно объединять сложением счетчиков.
+ *
+ * @author Iakov Lysenko
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAGNITUDE_BITS = 40;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAGNITUDE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    /**
+     * Наибольшее различимое значение, около 35 лет.
+     */
+    public static final long HIGHEST_TRACKABLE_MILLIS = (1L << MAGNITUDE_BITS) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Записывает длительность. Отрицательная длительность записывается как нулевая.
+     *
+     * @param duration длительность
+     */
+    public void record(Duration duration) {
+        recordMillis(duration.toMillis());
+    }
+
+    /**
+     * Записывает длительность в миллисекундах. Отрицательное значение записывается как ноль.
+     *
+     * @param millis длительность в миллисекундах
+     */
+    public void recordMillis(long millis) {
+        counts.incrementAndGet(indexOf(Math.min(Math.max(millis, 0), HIGHEST_TRACKABLE_MILLIS)));
+    }
+
+    /**
+     * Добавляет к гистограмме все значения другой гистограммы.
+     *
+     * @param other гистограмма, значения которой добавляются
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    /**
+     * Возвращает копию гистограммы. Значения, записываемые во время копирования, могут не попасть в копию.
+     *
+     * @return независимая копия
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    /**
+     * Возвращает количество записанных значений.
+     *
+     * @return количество значений
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает значение процентиля: наибольшее значение корзины, в которую попадает процентиль.
+     * Для согласованного результата нескольких процентилей их следует считать по {@link #copy() копии}.
+     *
+     * @param percentile процентиль от 0 до 100
+     * @return значение процентиля в миллисекундах или 0, если гистограмма пуста
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValueAt(i);
+            }
+        }
+        return highestValueAt(BUCKET_COUNT - 1);
+    }
+
+    private static int indexOf(long millis) {
+        if (millis < SUB_BUCKET_COUNT) {
+            return (int) millis;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(millis);
+        int shift = magnitude - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (millis >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,46 @@
+package ru.iakovlysenko.contest.util;
+
+import ru.iakovlysenko.contest.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного чтения статистики по пулл реквестам: идентификатор последнего PR страницы
+ * в порядке возрастания идентификаторов.
+ * <p>
+ * Клиенту передается в виде непрозрачной строки в Base64 URL.
+ *
+ * @param pullRequestId идентификатор пулл реквеста
+ * @author Iakov Lysenko
+ */
+public record PullRequestCursor(String pullRequestId) {
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(pullRequestId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор из строки, полученной от клиента.
+     *
+     * @param cursor строка курсора
+     * @return курсор
+     * @throws InvalidCursorException если строка не является курсором
+     */
+    public static PullRequestCursor decode(String cursor) {
+        try {
+            String pullRequestId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (pullRequestId.isEmpty()) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new PullRequestCursor(pullRequestId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.iakovlysenko.contest.util;
+
+import ru.iakovlysenko.contest.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор постраничного чтения назначений ревьювера: позиция последнего назначения страницы
+ * в порядке (created_at, pull_request_id).
+ * <p>
+ * Клиенту передается в виде непрозрачной строки в Base64 URL.
+ *
+ * @param assignedAt время назначения
+ * @param pullRequestId идентификатор пулл реквеста
+ * @author Iakov Lysenko
+ */
+public record ReviewCursor(LocalDateTime assignedAt, String pullRequestId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Кодирует курсор в непрозрачную строку.
+     *
+     * @return строка курсора
+     */
+    public String encode() {
+        String raw = assignedAt.toString() + SEPARATOR + pullRequestId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор из строки, полученной от клиента.
+     *
+     * @param cursor строка курсора
+     * @return курсор
+     * @throws InvalidCursorException если строка не является курсором
+     */
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex <= 0 || separatorIndex == raw.length() - 1) {
+                throw new InvalidCursorException(cursor);
+            }
+            return new ReviewCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    raw.substring(separatorIndex + 1)
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.iakovlysenko.contest.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Утилиты для работы с транзакциями.
+ *
+ * @author Iakov Lysenko
+ */
+@UtilityClass
+public class TransactionUtils {
+
+    /**
+     * Выполняет действие после успешного коммита текущей транзакции.
+     * Если транзакция не активна, действие выполняется сразу.
+     * Используется для обновления in-memory состояния, которое не должно видеть откатившиеся изменения.
+     *
+     * @param action действие
+     */
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие после отката текущей транзакции.
+     * Если транзакция не активна, действие не выполняется.
+     * Используется для компенсации in-memory изменений, примененных до коммита.
+     *
+     * @param action действие
+     */
+    public void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
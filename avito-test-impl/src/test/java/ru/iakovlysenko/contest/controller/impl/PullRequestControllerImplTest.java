@@ -9,19 +9,30 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.enums.MergeOutcome;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.ErrorResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
 import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.exception.PrExistsException;
 import ru.iakovlysenko.contest.exception.globalHandler.GlobalExceptionHandler;
+import ru.iakovlysenko.contest.filter.IdempotencyKeyFilter;
 import ru.iakovlysenko.contest.service.PullRequestService;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -70,6 +81,131 @@ class PullRequestControllerImplTest {
                 .andExpect(jsonPath("$.pr.assigned_reviewers").isArray());
     }
 
+    @Test
+    @DisplayName("Пакетное создание PR возвращает результат по каждому PR")
+    void createPullRequests_Success() throws Exception {
+        CreatePullRequestBatchRequest request = new CreatePullRequestBatchRequest(List.of(
+                new CreatePullRequestRequest("pr1", "PR1", "author1"),
+                new CreatePullRequestRequest("pr2", "PR2", "author1")
+        ));
+        PullRequestResponse prResponse = new PullRequestResponse(
+                "pr1",
+                "PR1",
+                "author1",
+                PrStatus.OPEN,
+                List.of("reviewer1"),
+                LocalDateTime.now(),
+                null
+        );
+        PullRequestBatchResponse batchResponse = new PullRequestBatchResponse(List.of(
+                PullRequestBatchResponse.Item.builder().pullRequestId("pr1").pr(prResponse).build(),
+                PullRequestBatchResponse.Item.builder()
+                        .pullRequestId("pr2")
+                        .error(new ErrorResponse.ErrorDetail(ErrorCode.PR_EXISTS, "exists"))
+                        .build()
+        ));
+
+        when(pullRequestService.createPullRequests(any(CreatePullRequestBatchRequest.class))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/pullRequest/createBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].pr.pull_request_id").value("pr1"))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].pull_request_id").value("pr2"))
+                .andExpect(jsonPath("$.results[1].error.code").value("PR_EXISTS"));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание с пустым списком PR возвращает ошибку валидации")
+    void createPullRequests_Empty_BadRequest() throws Exception {
+        mockMvc.perform(post("/pullRequest/createBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreatePullRequestBatchRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Повторный запрос с тем же Idempotency-Key возвращает сохраненный ответ без вызова сервиса")
+    void reassignReviewer_IdempotencyKey_ReplaysResponse() throws Exception {
+        ReassignRequest request = new ReassignRequest("pr1", "reviewer1");
+        PullRequestResponse prResponse = new PullRequestResponse(
+                "pr1",
+                "PR1",
+                "author1",
+                PrStatus.OPEN,
+                List.of("reviewer2"),
+                LocalDateTime.now(),
+                null
+        );
+
+        when(pullRequestService.reassignReviewer(any(ReassignRequest.class)))
+                .thenReturn(new ReassignResponse(prResponse, "reviewer2"))
+                .thenReturn(new ReassignResponse(prResponse, "reviewer3"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/pullRequest/reassign")
+                            .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "reassign-key")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.replaced_by").value("reviewer2"));
+        }
+
+        verify(pullRequestService, times(1)).reassignReviewer(any(ReassignRequest.class));
+    }
+
+    @Test
+    @DisplayName("Ответ с бизнес-ошибкой тоже возвращается повторно, а запросы без ключа выполняются каждый раз")
+    void createPullRequest_IdempotencyKey_ReplaysErrorAndSkipsRequestsWithoutKey() throws Exception {
+        CreatePullRequestRequest request = new CreatePullRequestRequest("pr1", "PR1", "author1");
+
+        when(pullRequestService.createPullRequest(any(CreatePullRequestRequest.class)))
+                .thenThrow(new PrExistsException("pr1"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "create-key")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error.code").value("PR_EXISTS"));
+        }
+        verify(pullRequestService, times(1)).createPullRequest(any(CreatePullRequestRequest.class));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+        verify(pullRequestService, times(3)).createPullRequest(any(CreatePullRequestRequest.class));
+    }
+
+    @Test
+    @DisplayName("Повтор Idempotency-Key с другим телом запроса отклоняется без вызова сервиса")
+    void createPullRequest_IdempotencyKeyWithDifferentBody_UnprocessableEntity() throws Exception {
+        when(pullRequestService.createPullRequest(any(CreatePullRequestRequest.class)))
+                .thenThrow(new PrExistsException("pr1"));
+
+        mockMvc.perform(post("/pullRequest/create")
+                        .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreatePullRequestRequest("pr1", "PR1", "author1"))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/pullRequest/create")
+                        .header(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "reused-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreatePullRequestRequest("pr2", "PR2", "author1"))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error.code").value("IDEMPOTENCY_KEY_REUSED"))
+                .andExpect(header().doesNotExist(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER));
+
+        verify(pullRequestService, times(1)).createPullRequest(any(CreatePullRequestRequest.class));
+    }
+
     @Test
     @DisplayName("Успешное слияние PR")
     void mergePullRequest_Success() throws Exception {
@@ -95,6 +231,52 @@ class PullRequestControllerImplTest {
                 .andExpect(jsonPath("$.pr.mergedAt").exists());
     }
 
+    @Test
+    @DisplayName("Пакетное слияние PR возвращает результат по каждому ID")
+    void mergePullRequests_Success() throws Exception {
+        PullRequestResponse prResponse = new PullRequestResponse(
+                "pr1",
+                "PR1",
+                "author1",
+                PrStatus.MERGED,
+                List.of("reviewer1"),
+                LocalDateTime.now().minusHours(1),
+                LocalDateTime.now()
+        );
+        PullRequestMergeBatchResponse batchResponse = new PullRequestMergeBatchResponse(List.of(
+                PullRequestMergeBatchResponse.Item.builder()
+                        .pullRequestId("pr1")
+                        .outcome(MergeOutcome.MERGED)
+                        .pr(prResponse)
+                        .build(),
+                PullRequestMergeBatchResponse.Item.builder()
+                        .pullRequestId("pr2")
+                        .outcome(MergeOutcome.NOT_FOUND)
+                        .build()
+        ));
+
+        when(pullRequestService.mergePullRequests(any(MergePullRequestBatchRequest.class))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/pullRequest/mergeBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestBatchRequest(List.of("pr1", "pr2")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].outcome").value("MERGED"))
+                .andExpect(jsonPath("$.results[0].pr.status").value("MERGED"))
+                .andExpect(jsonPath("$.results[1].pull_request_id").value("pr2"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[1].pr").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Пакетное слияние с пустым ID возвращает ошибку валидации")
+    void mergePullRequests_BlankId_BadRequest() throws Exception {
+        mockMvc.perform(post("/pullRequest/mergeBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestBatchRequest(List.of("pr1", " ")))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Успешное переназначение ревьювера")
     void reassignReviewer_Success() throws Exception {
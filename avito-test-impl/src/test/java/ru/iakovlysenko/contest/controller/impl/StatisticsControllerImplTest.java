@@ -1,5 +1,6 @@
 package ru.iakovlysenko.contest.controller.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,13 +9,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
 import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsSnapshot;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
+import ru.iakovlysenko.contest.exception.InvalidRangeException;
 import ru.iakovlysenko.contest.exception.globalHandler.GlobalExceptionHandler;
 import ru.iakovlysenko.contest.service.StatisticsService;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,6 +40,9 @@ class StatisticsControllerImplTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     private StatisticsService statisticsService;
 
@@ -45,10 +57,11 @@ class StatisticsControllerImplTest {
                 List.of(
                         new StatisticsResponse.PullRequestReviewersStatistic("pr1", 2L),
                         new StatisticsResponse.PullRequestReviewersStatistic("pr2", 1L)
-                )
+                ),
+                null
         );
 
-        when(statisticsService.getStatistics()).thenReturn(response);
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now()));
 
         mockMvc.perform(get("/statistics")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -72,10 +85,11 @@ class StatisticsControllerImplTest {
     void getStatistics_EmptyData_Success() throws Exception {
         StatisticsResponse response = new StatisticsResponse(
                 List.of(),
-                List.of()
+                List.of(),
+                null
         );
 
-        when(statisticsService.getStatistics()).thenReturn(response);
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now()));
 
         mockMvc.perform(get("/statistics")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -95,10 +109,11 @@ class StatisticsControllerImplTest {
                         new StatisticsResponse.UserAssignmentsStatistic("user2", 7L),
                         new StatisticsResponse.UserAssignmentsStatistic("user3", 2L)
                 ),
-                List.of()
+                List.of(),
+                null
         );
 
-        when(statisticsService.getStatistics()).thenReturn(response);
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now()));
 
         mockMvc.perform(get("/statistics")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -120,10 +135,11 @@ class StatisticsControllerImplTest {
                         new StatisticsResponse.PullRequestReviewersStatistic("pr1", 2L),
                         new StatisticsResponse.PullRequestReviewersStatistic("pr2", 2L),
                         new StatisticsResponse.PullRequestReviewersStatistic("pr3", 1L)
-                )
+                ),
+                null
         );
 
-        when(statisticsService.getStatistics()).thenReturn(response);
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now()));
 
         mockMvc.perform(get("/statistics")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -145,10 +161,11 @@ class StatisticsControllerImplTest {
     void getStatistics_JsonStructure_Success() throws Exception {
         StatisticsResponse response = new StatisticsResponse(
                 List.of(new StatisticsResponse.UserAssignmentsStatistic("user1", 5L)),
-                List.of(new StatisticsResponse.PullRequestReviewersStatistic("pr1", 2L))
+                List.of(new StatisticsResponse.PullRequestReviewersStatistic("pr1", 2L)),
+                null
         );
 
-        when(statisticsService.getStatistics()).thenReturn(response);
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now()));
 
         mockMvc.perform(get("/statistics")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -160,4 +177,163 @@ class StatisticsControllerImplTest {
                 .andExpect(jsonPath("$.reviewers_per_pr[0].reviewers_count").exists());
     }
 
+    @Test
+    @DisplayName("Снимок отдается с заголовком возраста без пересчета")
+    void getStatistics_SnapshotAgeHeader() throws Exception {
+        StatisticsResponse response = new StatisticsResponse(
+                List.of(new StatisticsResponse.UserAssignmentsStatistic("user1", 5L)),
+                List.of(),
+                null
+        );
+
+        when(statisticsService.getSnapshot()).thenReturn(snapshot(response, Instant.now().minusSeconds(30)));
+
+        mockMvc.perform(get("/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "30"))
+                .andExpect(jsonPath("$.assignments_by_user[0].user_id").value("user1"));
+
+        verify(statisticsService, never()).refreshSnapshot();
+    }
+
+    @Test
+    @DisplayName("Параметр refresh пересчитывает снимок синхронно")
+    void getStatistics_Refresh() throws Exception {
+        StatisticsResponse response = new StatisticsResponse(
+                List.of(new StatisticsResponse.UserAssignmentsStatistic("user1", 6L)),
+                List.of(),
+                null
+        );
+
+        when(statisticsService.refreshSnapshot()).thenReturn(snapshot(response, Instant.now()));
+
+        mockMvc.perform(get("/statistics").param("refresh", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "0"))
+                .andExpect(jsonPath("$.assignments_by_user[0].assignments_count").value(6));
+
+        verify(statisticsService, never()).getSnapshot();
+    }
+
+    @Test
+    @DisplayName("Параметры выборки считают статистику запросом к базе, минуя снимок")
+    void getStatistics_Selection() throws Exception {
+        StatisticsResponse response = new StatisticsResponse(
+                List.of(new StatisticsResponse.UserAssignmentsStatistic("user1", 5L)),
+                List.of(new StatisticsResponse.PullRequestReviewersStatistic("pr1", 2L)),
+                "cHIx"
+        );
+
+        when(statisticsService.getStatistics("TestTeam", 1, 1, null)).thenReturn(response);
+
+        mockMvc.perform(get("/statistics")
+                        .param("team_name", "TestTeam")
+                        .param("top", "1")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "0"))
+                .andExpect(jsonPath("$.assignments_by_user.length()").value(1))
+                .andExpect(jsonPath("$.reviewers_per_pr[0].pull_request_id").value("pr1"))
+                .andExpect(jsonPath("$.next_cursor").value("cHIx"));
+
+        verify(statisticsService, never()).getSnapshot();
+    }
+
+    @Test
+    @DisplayName("Слишком большой top должен вернуть ошибку валидации")
+    void getStatistics_TopTooLarge_Error() throws Exception {
+        mockMvc.perform(get("/statistics").param("top", "1001"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(statisticsService);
+    }
+
+    @Test
+    @DisplayName("Успешное получение временного ряда назначений по неделям")
+    void getAssignmentsTimeseries_Success() throws Exception {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        StatisticsTimeseriesResponse response = StatisticsTimeseriesResponse.builder()
+                .granularity(TimeseriesGranularity.WEEK)
+                .from(from)
+                .to(to)
+                .points(List.of(new StatisticsTimeseriesResponse.Point("user1", LocalDate.of(2025, 1, 6), 4L)))
+                .build();
+
+        when(statisticsService.getAssignmentsTimeseries(from, to, TimeseriesGranularity.WEEK, "user1"))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/statistics/timeseries")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .param("granularity", "WEEK")
+                        .param("user_id", "user1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("WEEK"))
+                .andExpect(jsonPath("$.from").value("2025-01-01"))
+                .andExpect(jsonPath("$.points[0].user_id").value("user1"))
+                .andExpect(jsonPath("$.points[0].period_start").value("2025-01-06"))
+                .andExpect(jsonPath("$.points[0].assignments_count").value(4));
+    }
+
+    @Test
+    @DisplayName("Некорректный диапазон временного ряда должен вернуть ошибку")
+    void getAssignmentsTimeseries_InvalidRange_Error() throws Exception {
+        LocalDate from = LocalDate.of(2025, 2, 1);
+        LocalDate to = LocalDate.of(2025, 1, 1);
+
+        when(statisticsService.getAssignmentsTimeseries(from, to, TimeseriesGranularity.DAY, null))
+                .thenThrow(new InvalidRangeException("Начало диапазона позже его конца"));
+
+        mockMvc.perform(get("/statistics/timeseries")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_RANGE"));
+    }
+
+    @Test
+    @DisplayName("Успешное получение процентилей времени до слияния по командам")
+    void getMergeLatency_Success() throws Exception {
+        when(statisticsService.getMergeLatency()).thenReturn(new MergeLatencyResponse(List.of(
+                new MergeLatencyResponse.TeamMergeLatency("backend", 10L, 3_600_000L, 7_200_000L, 86_400_000L)
+        )));
+
+        mockMvc.perform(get("/statistics/mergeLatency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teams[0].team_name").value("backend"))
+                .andExpect(jsonPath("$.teams[0].merged_count").value(10))
+                .andExpect(jsonPath("$.teams[0].p50_ms").value(3_600_000))
+                .andExpect(jsonPath("$.teams[0].p90_ms").value(7_200_000))
+                .andExpect(jsonPath("$.teams[0].p99_ms").value(86_400_000));
+    }
+
+    @Test
+    @DisplayName("Успешное получение статистики по командам")
+    void getTeamStatistics_Success() throws Exception {
+        when(statisticsService.getTeamStatistics()).thenReturn(new TeamStatisticsResponse(List.of(
+                TeamStatisticsResponse.TeamStatistic.builder()
+                        .teamName("backend")
+                        .membersCount(4L)
+                        .openPullRequestsCount(2L)
+                        .assignmentsCount(6L)
+                        .assignmentsPerMember(1.5)
+                        .averageReviewersPerPullRequest(2.0)
+                        .build()
+        )));
+
+        mockMvc.perform(get("/statistics/teams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teams[0].team_name").value("backend"))
+                .andExpect(jsonPath("$.teams[0].members_count").value(4))
+                .andExpect(jsonPath("$.teams[0].open_pr_count").value(2))
+                .andExpect(jsonPath("$.teams[0].assignments_count").value(6))
+                .andExpect(jsonPath("$.teams[0].assignments_per_member").value(1.5))
+                .andExpect(jsonPath("$.teams[0].avg_reviewers_per_pr").value(2.0));
+    }
+
+    private StatisticsSnapshot snapshot(StatisticsResponse response, Instant computedAt) throws Exception {
+        return new StatisticsSnapshot(response, objectMapper.writeValueAsBytes(response), computedAt);
+    }
+
 }
@@ -10,16 +10,21 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
 import ru.iakovlysenko.contest.dto.response.TeamMemberResponse;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 import ru.iakovlysenko.contest.exception.globalHandler.GlobalExceptionHandler;
 import ru.iakovlysenko.contest.service.TeamService;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -106,4 +111,59 @@ class TeamControllerImplTest {
                         .content(objectMapper.writeValueAsString(invalidRequest)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("Успешное изменение состава команды")
+    void updateMembers_Success() throws Exception {
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "TestTeam",
+                List.of(new TeamRequest.TeamMemberRequest("user3", "User3", true)),
+                List.of("user4"),
+                null,
+                List.of("user2"),
+                null
+        );
+        UpdateTeamMembersResponse response = UpdateTeamMembersResponse.builder()
+                .teamName("TestTeam")
+                .added(List.of("user3"))
+                .activated(List.of())
+                .deactivated(List.of("user2"))
+                .unchanged(List.of())
+                .removed(List.of())
+                .notRemoved(List.of("user4"))
+                .notFound(List.of())
+                .build();
+
+        when(teamService.updateMembers(request)).thenReturn(response);
+
+        mockMvc.perform(patch("/team/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.team_name").value("TestTeam"))
+                .andExpect(jsonPath("$.added[0]").value("user3"))
+                .andExpect(jsonPath("$.deactivated[0]").value("user2"))
+                .andExpect(jsonPath("$.not_removed[0]").value("user4"))
+                .andExpect(jsonPath("$.reassignment").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Пользователь не может входить в несколько изменений состава")
+    void updateMembers_OverlappingChanges_ValidationError() throws Exception {
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "TestTeam", null, List.of("user1"), List.of("user1"), null, null);
+
+        mockMvc.perform(patch("/team/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.message").value(startsWith("disjoint")));
+
+        mockMvc.perform(patch("/team/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"team_name\":\"TestTeam\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(teamService);
+    }
 }
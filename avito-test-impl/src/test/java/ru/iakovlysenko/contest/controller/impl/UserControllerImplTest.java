@@ -9,18 +9,30 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.iakovlysenko.contest.dto.enums.UserImportFormat;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
+import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
 import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.exception.globalHandler.GlobalExceptionHandler;
+import ru.iakovlysenko.contest.service.UserImportService;
 import ru.iakovlysenko.contest.service.UserService;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,23 +53,50 @@ class UserControllerImplTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     @DisplayName("Успешная установка флага активности")
     void setIsActive_Success() throws Exception {
-        SetIsActiveRequest request = new SetIsActiveRequest("user1", false);
+        SetIsActiveRequest request = new SetIsActiveRequest("user1", false, null);
         UserResponse userResponse = new UserResponse("user1", "User1", "Team1", false);
 
-        when(userService.setIsActive(any(SetIsActiveRequest.class))).thenReturn(userResponse);
+        when(userService.setIsActive(any(SetIsActiveRequest.class))).thenReturn(new UserWrapperResponse(userResponse, null));
 
         mockMvc.perform(post("/users/setIsActive")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user.user_id").value("user1"))
-                .andExpect(jsonPath("$.user.is_active").value(false));
+                .andExpect(jsonPath("$.user.is_active").value(false))
+                .andExpect(jsonPath("$.reassignment").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Деактивация с переназначением возвращает итоги переназначения")
+    void setIsActive_WithReassignment_ReturnsSummary() throws Exception {
+        SetIsActiveRequest request = new SetIsActiveRequest("user1", false, true);
+        UserResponse userResponse = new UserResponse("user1", "User1", "Team1", false);
+        ReviewReassignmentResponse reassignment = new ReviewReassignmentResponse(
+                List.of(new ReviewReassignmentResponse.Item("pr1", "user1", "user2")),
+                List.of(ReviewReassignmentResponse.Item.builder().pullRequestId("pr2").oldReviewerId("user1").build())
+        );
+
+        when(userService.setIsActive(any(SetIsActiveRequest.class))).thenReturn(new UserWrapperResponse(userResponse, reassignment));
+
+        mockMvc.perform(post("/users/setIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.is_active").value(false))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].pull_request_id").value("pr1"))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].new_reviewer_id").value("user2"))
+                .andExpect(jsonPath("$.reassignment.unassigned[0].pull_request_id").value("pr2"))
+                .andExpect(jsonPath("$.reassignment.unassigned[0].new_reviewer_id").doesNotExist());
     }
 
     @Test
@@ -68,23 +107,111 @@ class UserControllerImplTest {
                 List.of(
                         new PullRequestShortResponse("pr1", "PR1", "author1", PrStatus.OPEN),
                         new PullRequestShortResponse("pr2", "PR2", "author2", PrStatus.OPEN)
-                )
+                ),
+                null
         );
 
-        when(userService.getReview("user1")).thenReturn(response);
+        when(userService.getReview("user1", null, null, null)).thenReturn(response);
 
         mockMvc.perform(get("/users/getReview")
                         .param("user_id", "user1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user_id").value("user1"))
                 .andExpect(jsonPath("$.pull_requests").isArray())
-                .andExpect(jsonPath("$.pull_requests.length()").value(2));
+                .andExpect(jsonPath("$.pull_requests.length()").value(2))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Получение страницы PR передает статус, размер страницы и курсор и возвращает курсор следующей страницы")
+    void getReview_Page_Success() throws Exception {
+        GetReviewResponse response = new GetReviewResponse(
+                "user1",
+                List.of(new PullRequestShortResponse("pr1", "PR1", "author1", PrStatus.OPEN)),
+                "next"
+        );
+
+        when(userService.getReview("user1", PrStatus.OPEN, 1, "cursor")).thenReturn(response);
+
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "user1")
+                        .param("status", "OPEN")
+                        .param("limit", "1")
+                        .param("after", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next_cursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("Размер страницы вне допустимого диапазона возвращает ошибку валидации")
+    void getReview_InvalidLimit_BadRequest() throws Exception {
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "user1")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "user1")
+                        .param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("NDJSON вариант передает по одной строке JSON на каждый PR")
+    void streamReview_Ndjson_Success() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PullRequestShortResponse> action = invocation.getArgument(2);
+            action.accept(new PullRequestShortResponse("pr1", "PR1", "author1", PrStatus.OPEN));
+            action.accept(new PullRequestShortResponse("pr2", "PR2", "author2", PrStatus.MERGED));
+            return null;
+        }).when(userService).streamReview(eq("user1"), eq(PrStatus.OPEN), any());
+
+        String body = mockMvc.perform(get("/users/getReview")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("user_id", "user1")
+                        .param("status", "OPEN"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body.split("\n")).containsExactly(
+                "{\"pull_request_id\":\"pr1\",\"pull_request_name\":\"PR1\",\"author_id\":\"author1\",\"status\":\"OPEN\"}",
+                "{\"pull_request_id\":\"pr2\",\"pull_request_name\":\"PR2\",\"author_id\":\"author2\",\"status\":\"MERGED\"}"
+        );
+        assertThat(body).endsWith("\n");
+        verify(userService, never()).getReview(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("NDJSON вариант для несуществующего пользователя возвращает ошибку до начала передачи")
+    void streamReview_UserNotFound_Error() throws Exception {
+        doThrow(new NotFoundException("Пользователь не найден: nonexistent"))
+                .when(userService).streamReview(eq("nonexistent"), isNull(), any());
+
+        mockMvc.perform(get("/users/getReview")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("user_id", "nonexistent"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Неизвестный статус PR возвращает ошибку валидации")
+    void getReview_InvalidStatus_BadRequest() throws Exception {
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "user1")
+                        .param("status", "CLOSED"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
     }
 
     @Test
     @DisplayName("Валидация запроса на установку флага активности")
     void setIsActive_ValidationError() throws Exception {
-        SetIsActiveRequest invalidRequest = new SetIsActiveRequest("", null);
+        SetIsActiveRequest invalidRequest = new SetIsActiveRequest("", null, null);
 
         mockMvc.perform(post("/users/setIsActive")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -92,4 +219,77 @@ class UserControllerImplTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Успешная массовая установка флага активности")
+    void bulkSetIsActive_Success() throws Exception {
+        BulkSetIsActiveResponse response = BulkSetIsActiveResponse.builder()
+                .isActive(false)
+                .updated(List.of("user1"))
+                .unchanged(List.of())
+                .notFound(List.of("missing"))
+                .build();
+
+        when(userService.bulkSetIsActive(any(BulkSetIsActiveRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkSetIsActiveRequest(null, List.of("user1", "missing"), false, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[0]").value("user1"))
+                .andExpect(jsonPath("$.not_found[0]").value("missing"))
+                .andExpect(jsonPath("$.reassignment").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Массовая установка флага с командой и списком ID одновременно возвращает ошибку валидации")
+    void bulkSetIsActive_BothTargets_BadRequest() throws Exception {
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkSetIsActiveRequest("Team1", List.of("user1"), false, null))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkSetIsActiveRequest(null, null, false, null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Импорт CSV передает тело запроса сервису и возвращает отчет")
+    void importUsers_Csv_Success() throws Exception {
+        UserImportResponse response = UserImportResponse.builder()
+                .acceptedCount(1L)
+                .rejectedCount(1L)
+                .usersCreatedCount(1L)
+                .usersUpdatedCount(0L)
+                .teamsCreatedCount(0L)
+                .errors(List.of(new UserImportResponse.RowError(3L, null, "isActive: ожидалось true или false")))
+                .errorsTruncated(false)
+                .build();
+        when(userImportService.importUsers(any(), eq(UserImportFormat.CSV))).thenReturn(response);
+
+        mockMvc.perform(post("/users/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("id,username,teamName,isActive\nuser1,User1,Team1,true\nuser2,User2,Team1,maybe\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted_count").value(1))
+                .andExpect(jsonPath("$.rejected_count").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].user_id").doesNotExist())
+                .andExpect(jsonPath("$.errors_truncated").value(false));
+    }
+
+    @Test
+    @DisplayName("Импорт в неподдерживаемом формате отклоняется без обращения к сервису")
+    void importUsers_UnsupportedFormat_Error() throws Exception {
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(userImportService);
+    }
 }
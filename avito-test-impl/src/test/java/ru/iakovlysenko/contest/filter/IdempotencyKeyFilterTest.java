@@ -0,0 +1,142 @@
+package ru.iakovlysenko.contest.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тесты для {@link IdempotencyKeyFilter}.
+ *
+ * @author Iakov Lysenko
+ */
+@DisplayName("Тесты для IdempotencyKeyFilter")
+class IdempotencyKeyFilterTest {
+
+    private final IdempotencyKeyFilter filter =
+            new IdempotencyKeyFilter(10, Duration.ofMinutes(1), Duration.ofMillis(50), new ObjectMapper());
+
+    @Test
+    @DisplayName("Повтор, не дождавшийся первого запроса, получает 409, а первый запрос затем сохраняет ответ")
+    void doFilter_FirstRequestInProgress_Conflict() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(request(), response, (req, res) -> {
+                    req.getInputStream().readAllBytes();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    res.getWriter().write("{\"ok\":true}");
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        filter.doFilter(request(), retry, (req, res) -> {
+            throw new AssertionError("Повтор не должен выполняться");
+        });
+        assertThat(retry.getStatus()).isEqualTo(409);
+        assertThat(retry.getContentAsString()).contains("IDEMPOTENCY_KEY_IN_PROGRESS");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"ok\":true}");
+
+        MockHttpServletResponse replay = new MockHttpServletResponse();
+        filter.doFilter(request(), replay, (req, res) -> {
+            throw new AssertionError("Повтор не должен выполняться");
+        });
+        assertThat(replay.getContentAsString()).isEqualTo("{\"ok\":true}");
+        assertThat(replay.getHeader(IdempotencyKeyFilter.IDEMPOTENT_REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    @DisplayName("После ошибки сервера первого запроса запрос заново выполняет только один из ожидавших повторов")
+    void doFilter_FirstRequestFailed_OnlyOneWaiterExecutes() throws Exception {
+        IdempotencyKeyFilter waitingFilter =
+                new IdempotencyKeyFilter(10, Duration.ofMinutes(1), Duration.ofSeconds(5), new ObjectMapper());
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger retriesExecuted = new AtomicInteger();
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                waitingFilter.doFilter(request(), response, (req, res) -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    ((HttpServletResponse) res).setStatus(500);
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        }, executor);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CompletableFuture<MockHttpServletResponse>> waiters = IntStream.range(0, 2)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    try {
+                        waitingFilter.doFilter(request(), response, (req, res) -> {
+                            retriesExecuted.incrementAndGet();
+                            res.getWriter().write("{\"ok\":true}");
+                        });
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return response;
+                }, executor))
+                .toList();
+        // Повторы должны успеть встать в ожидание ответа первого запроса
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(500);
+        for (CompletableFuture<MockHttpServletResponse> waiter : waiters) {
+            MockHttpServletResponse response = waiter.get(5, TimeUnit.SECONDS);
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsString()).isEqualTo("{\"ok\":true}");
+        }
+        assertThat(retriesExecuted).hasValue(1);
+        executor.shutdown();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pullRequest/merge");
+        request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "merge-key");
+        request.setContentType("application/json");
+        request.setContent("{\"pull_request_id\":\"pr1\"}".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.iakovlysenko.contest.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit тесты для {@link IdempotentResponseCache}.
+ *
+ * @author Iakov Lysenko
+ */
+@DisplayName("Тесты для IdempotentResponseCache")
+class IdempotentResponseCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("Повтор ключа получает запись первого запроса с хешем его тела")
+    void putIfAbsent_ReturnsFirstResponse() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(10, 1000, now::get);
+        CompletableFuture<IdempotentResponseCache.StoredResponse> first = new CompletableFuture<>();
+
+        assertThat(cache.putIfAbsent("key", "hash", first)).isNull();
+        assertThat(cache.putIfAbsent("key", "other", new CompletableFuture<>()))
+                .extracting(IdempotentResponseCache.Entry::requestHash, IdempotentResponseCache.Entry::response)
+                .containsExactly("hash", first);
+    }
+
+    @Test
+    @DisplayName("Запись удаляется по истечении времени жизни")
+    void putIfAbsent_EvictsExpired() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(10, 1000, now::get);
+        cache.putIfAbsent("key", "hash", CompletableFuture.completedFuture(null));
+
+        now.set(1000);
+
+        assertThat(cache.putIfAbsent("key", "hash", new CompletableFuture<>())).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("При превышении размера удаляется самая старая завершенная запись")
+    void putIfAbsent_BoundedBySize() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(2, 1000, now::get);
+        cache.putIfAbsent("key1", "hash", CompletableFuture.completedFuture(null));
+        cache.putIfAbsent("key2", "hash", CompletableFuture.completedFuture(null));
+        cache.putIfAbsent("key3", "hash", new CompletableFuture<>());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.putIfAbsent("key1", "hash", new CompletableFuture<>())).isNull();
+    }
+
+    @Test
+    @DisplayName("Запись выполняющегося запроса не вытесняется ни по времени жизни, ни по размеру")
+    void putIfAbsent_KeepsInFlightEntries() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(2, 1000, now::get);
+        CompletableFuture<IdempotentResponseCache.StoredResponse> inFlight = new CompletableFuture<>();
+        cache.putIfAbsent("key1", "hash", inFlight);
+        cache.putIfAbsent("key2", "hash", CompletableFuture.completedFuture(null));
+
+        now.set(1000);
+        cache.putIfAbsent("key3", "hash", new CompletableFuture<>());
+
+        assertThat(cache.putIfAbsent("key1", "hash", new CompletableFuture<>()))
+                .extracting(IdempotentResponseCache.Entry::response)
+                .isSameAs(inFlight);
+        assertThatThrownBy(() -> cache.putIfAbsent("key4", "hash", new CompletableFuture<>()))
+                .isInstanceOf(IdempotentResponseCache.CacheFullException.class);
+
+        inFlight.complete(null);
+        assertThat(cache.putIfAbsent("key4", "hash", new CompletableFuture<>())).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Снятие резервирования удаляет только запись своего запроса")
+    void remove_OnlyOwnEntry() {
+        IdempotentResponseCache cache = new IdempotentResponseCache(10, 1000, now::get);
+        CompletableFuture<IdempotentResponseCache.StoredResponse> first = new CompletableFuture<>();
+        cache.putIfAbsent("key", "hash", first);
+
+        cache.remove("key", new CompletableFuture<>());
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.remove("key", first);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -1,6 +1,10 @@
 package ru.iakovlysenko.contest.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,10 +21,30 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import ru.iakovlysenko.contest.AvitoTestApplication;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.PullRequestReviewersCountProjection;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,23 +72,49 @@ class PullRequestIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
         registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
     }
 
+    /**
+     * Бюджет SQL-запросов на создание PR: атомарная вставка PR вместе с чтением автора и вставка двух назначений ревьюверов.
+     */
+    private static final long CREATE_STATEMENT_BUDGET = 3;
+
+    /**
+     * Бюджет SQL-запросов на слияние PR: условное обновление статуса вместе с чтением ревьюверов.
+     */
+    private static final long MERGE_STATEMENT_BUDGET = 1;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Autowired
+    private AssignmentStatisticsService assignmentStatisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String uniqueTeamName;
+
     @BeforeEach
     void setUp() throws Exception {
-        String uniqueTeamName = "PRTestTeam_" + System.currentTimeMillis();
+        uniqueTeamName = "PRTestTeam_" + System.currentTimeMillis();
         TeamRequest teamRequest = new TeamRequest(
                 uniqueTeamName,
                 java.util.List.of(
                         new TeamRequest.TeamMemberRequest("author1", "Author1", true),
                         new TeamRequest.TeamMemberRequest("reviewer1", "Reviewer1", true),
-                        new TeamRequest.TeamMemberRequest("reviewer2", "Reviewer2", true)
+                        new TeamRequest.TeamMemberRequest("reviewer2", "Reviewer2", true),
+                        new TeamRequest.TeamMemberRequest("reviewer3", "Reviewer3", true)
                 )
         );
 
@@ -94,6 +145,65 @@ class PullRequestIntegrationTest {
                 .andExpect(jsonPath("$.pr.assigned_reviewers.length()").value(2));
     }
 
+    @Test
+    @DisplayName("Создание PR укладывается в бюджет SQL-запросов")
+    void createPullRequest_StatementBudget() throws Exception {
+        // Первое создание загружает состав команды в память, поэтому измеряется второе
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-budget-1", "PR budget 1", "author1"))))
+                .andExpect(status().isCreated());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-budget-2", "PR budget 2", "author1"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers.length()").value(2));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(CREATE_STATEMENT_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Параллельное создание PR с одним ID создает его ровно один раз, остальные получают PR_EXISTS")
+    void createPullRequest_Concurrent_SingleWinner() throws Exception {
+        int threads = 8;
+        String content = objectMapper.writeValueAsString(
+                new CreatePullRequestRequest("pr-concurrent", "PR concurrent", "author1"));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/pullRequest/create")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(content))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(results).containsOnly(201, 400);
+            assertThat(results).filteredOn(status -> status == 201).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("Успешное слияние PR")
     void mergePullRequest_Success() throws Exception {
@@ -113,6 +223,92 @@ class PullRequestIntegrationTest {
                 .andExpect(jsonPath("$.pr.mergedAt").exists());
     }
 
+    @Test
+    @DisplayName("Слияние PR пополняет гистограмму времени до слияния команды автора один раз")
+    void statisticsMergeLatency_RecordedOnMerge() throws Exception {
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-latency-1", "PR latency 1", "author1"))))
+                .andExpect(status().isCreated());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/pullRequest/merge")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new MergePullRequestRequest("pr-latency-1"))))
+                    .andExpect(status().isOk());
+        }
+
+        String team = "$.teams[?(@.team_name == '" + uniqueTeamName + "')]";
+        mockMvc.perform(get("/statistics/mergeLatency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(team + ".merged_count").value(1))
+                .andExpect(jsonPath(team + ".p50_ms").exists())
+                .andExpect(jsonPath(team + ".p99_ms").exists());
+    }
+
+    @Test
+    @DisplayName("Первое и повторное слияние PR укладываются в бюджет SQL-запросов")
+    void mergePullRequest_StatementBudget() throws Exception {
+        var createResult = mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-merge-budget", "PR merge budget", "author1"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String assignedReviewers = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers")
+                .toString();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String content = objectMapper.writeValueAsString(new MergePullRequestRequest("pr-merge-budget"));
+
+        for (int i = 0; i < 2; i++) {
+            statistics.clear();
+
+            mockMvc.perform(post("/pullRequest/merge")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(content))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pr.status").value("MERGED"))
+                    .andExpect(jsonPath("$.pr.mergedAt").exists())
+                    .andExpect(content().json("{\"pr\":{\"assigned_reviewers\":" + assignedReviewers + "}}"));
+
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MERGE_STATEMENT_BUDGET);
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетное слияние PR укладывается в один SQL-запрос и возвращает результат по каждому ID")
+    void mergePullRequests_StatementBudget() throws Exception {
+        for (String id : List.of("pr-batch-1", "pr-batch-2")) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new CreatePullRequestRequest(id, id, "author1"))))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/pullRequest/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestRequest("pr-batch-2"))))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(post("/pullRequest/mergeBatch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestBatchRequest(
+                                List.of("pr-batch-1", "pr-batch-2", "pr-batch-missing")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].outcome").value("MERGED"))
+                .andExpect(jsonPath("$.results[0].pr.status").value("MERGED"))
+                .andExpect(jsonPath("$.results[0].pr.assigned_reviewers.length()").value(2))
+                .andExpect(jsonPath("$.results[1].outcome").value("ALREADY_MERGED"))
+                .andExpect(jsonPath("$.results[1].pr.assigned_reviewers.length()").value(2))
+                .andExpect(jsonPath("$.results[2].outcome").value("NOT_FOUND"));
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MERGE_STATEMENT_BUDGET);
+    }
+
     @Test
     @DisplayName("Идемпотентность merge - повторное слияние")
     void mergePullRequest_Idempotent() throws Exception {
@@ -141,12 +337,16 @@ class PullRequestIntegrationTest {
     @DisplayName("Успешное переназначение ревьювера")
     void reassignReviewer_Success() throws Exception {
         CreatePullRequestRequest createRequest = new CreatePullRequestRequest("pr4", "PR4", "author1");
-        mockMvc.perform(post("/pullRequest/create")
+        var createResult = mockMvc.perform(post("/pullRequest/create")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createRequest)))
-                .andExpect(status().isCreated());
+                .andExpect(status().isCreated())
+                .andReturn();
+        String assignedReviewerId = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers/0")
+                .asText();
 
-        ReassignRequest reassignRequest = new ReassignRequest("pr4", "reviewer1");
+        ReassignRequest reassignRequest = new ReassignRequest("pr4", assignedReviewerId);
 
         mockMvc.perform(post("/pullRequest/reassign")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -156,6 +356,211 @@ class PullRequestIntegrationTest {
                 .andExpect(jsonPath("$.pr.status").value("OPEN"));
     }
 
+    @Test
+    @DisplayName("Статистика из счетчиков совпадает с группировкой по таблице назначений открытых PR")
+    void statistics_MatchesAssignmentsTable() throws Exception {
+        var createResult = mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-stats-1", "PR stats 1", "author1"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String assignedReviewerId = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers/0")
+                .asText();
+        mockMvc.perform(post("/pullRequest/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReassignRequest("pr-stats-1", assignedReviewerId))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-stats-2", "PR stats 2", "author1"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/pullRequest/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestRequest("pr-stats-2"))))
+                .andExpect(status().isOk());
+
+        JsonNode statistics = objectMapper.readTree(mockMvc.perform(get("/statistics").param("refresh", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Age", "0"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+        Map<String, Long> assignmentsByUser = new HashMap<>();
+        statistics.get("assignments_by_user").forEach(item ->
+                assignmentsByUser.put(item.get("user_id").asText(), item.get("assignments_count").asLong()));
+        Map<String, Long> reviewersPerPullRequest = new HashMap<>();
+        statistics.get("reviewers_per_pr").forEach(item ->
+                reviewersPerPullRequest.put(item.get("pull_request_id").asText(), item.get("reviewers_count").asLong()));
+
+        assertThat(assignmentsByUser).isEqualTo(pullRequestReviewerRepository.countAssignmentsPerReviewer().stream()
+                .collect(Collectors.toMap(ReviewerAssignmentCountProjection::getReviewerId,
+                        ReviewerAssignmentCountProjection::getAssignmentsCount)));
+        assertThat(reviewersPerPullRequest).isEqualTo(pullRequestReviewerRepository
+                .countReviewersPerPullRequestByStatus(PrStatus.OPEN).stream()
+                .collect(Collectors.toMap(PullRequestReviewersCountProjection::getPullRequestId,
+                        PullRequestReviewersCountProjection::getReviewersCount)));
+        assertThat(reviewersPerPullRequest).containsEntry("pr-stats-1", 2L).doesNotContainKey("pr-stats-2");
+
+        assignmentStatisticsService.reconcile();
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(assignmentsByUser);
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(reviewersPerPullRequest);
+    }
+
+    @Test
+    @DisplayName("Дневная свертка назначений совпадает с группировкой таблицы назначений после создания и переназначения")
+    void statisticsTimeseries_MatchesAssignmentsTable() throws Exception {
+        var createResult = mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("pr-daily-1", "PR daily 1", "author1"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String assignedReviewerId = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers/0")
+                .asText();
+        mockMvc.perform(post("/pullRequest/reassign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReassignRequest("pr-daily-1", assignedReviewerId))))
+                .andExpect(status().isOk());
+
+        Map<String, Long> expected = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT u.id || '/' || r.created_at::date AS key, COUNT(*) AS assignments_count
+                FROM pull_request_reviewers r
+                JOIN users u ON u.user_key = r.reviewer_key
+                GROUP BY u.id, r.created_at::date
+                """, rs -> {
+            expected.put(rs.getString("key"), rs.getLong("assignments_count"));
+        });
+        Map<String, Long> rollup = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT u.id || '/' || d.day AS key, d.assignments_count
+                FROM reviewer_assignments_daily d
+                JOIN users u ON u.user_key = d.reviewer_key
+                WHERE d.assignments_count > 0
+                """, rs -> {
+            rollup.put(rs.getString("key"), rs.getLong("assignments_count"));
+        });
+        assertThat(rollup).isNotEmpty().isEqualTo(expected);
+
+        LocalDate today = jdbcTemplate.queryForObject("SELECT current_date", LocalDate.class);
+        JsonNode timeseries = objectMapper.readTree(mockMvc.perform(get("/statistics/timeseries")
+                        .param("from", today.toString())
+                        .param("to", today.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        Map<String, Long> todayPoints = new HashMap<>();
+        timeseries.get("points").forEach(point -> todayPoints.put(
+                point.get("user_id").asText() + "/" + point.get("period_start").asText(),
+                point.get("assignments_count").asLong()));
+        assertThat(todayPoints).isEqualTo(expected.entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("/" + today))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+
+        mockMvc.perform(get("/statistics/timeseries")
+                        .param("from", today.toString())
+                        .param("to", today.minusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_RANGE"));
+    }
+
+    @Test
+    @DisplayName("Статистика по командам считает открытые PR, назначения на участника и ревьюверов на PR одним запросом")
+    void statisticsTeams_AggregatedPerTeam() throws Exception {
+        // Отдельная команда с новыми пользователями: участники общей команды тестов переходят между командами
+        // вместе со своими PR и назначениями из предыдущих тестов
+        String suffix = String.valueOf(System.nanoTime());
+        String teamName = "StatsTeam_" + suffix;
+        String authorId = "stats-author-" + suffix;
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest(teamName, List.of(
+                                new TeamRequest.TeamMemberRequest(authorId, "Author", true),
+                                new TeamRequest.TeamMemberRequest("stats-reviewer1-" + suffix, "Reviewer1", true),
+                                new TeamRequest.TeamMemberRequest("stats-reviewer2-" + suffix, "Reviewer2", true),
+                                new TeamRequest.TeamMemberRequest("stats-reviewer3-" + suffix, "Reviewer3", true)
+                        )))))
+                .andExpect(status().isCreated());
+        for (String pullRequestId : List.of("pr-team-1-" + suffix, "pr-team-2-" + suffix)) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new CreatePullRequestRequest(pullRequestId, pullRequestId, authorId))))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/pullRequest/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestRequest("pr-team-2-" + suffix))))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        String team = "$.teams[?(@.team_name == '" + teamName + "')]";
+        mockMvc.perform(get("/statistics/teams"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(team + ".members_count").value(4))
+                .andExpect(jsonPath(team + ".open_pr_count").value(1))
+                .andExpect(jsonPath(team + ".assignments_count").value(4))
+                .andExpect(jsonPath(team + ".assignments_per_member").value(1.0))
+                .andExpect(jsonPath(team + ".avg_reviewers_per_pr").value(2.0));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Выборка статистики по команде возвращает топ ревьюверов и страницы PR по курсору")
+    void statistics_TeamTopAndPages() throws Exception {
+        for (String pullRequestId : List.of("pr-top-1", "pr-top-2", "pr-top-3")) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new CreatePullRequestRequest(pullRequestId, pullRequestId, "author1"))))
+                    .andExpect(status().isCreated());
+        }
+
+        JsonNode top = objectMapper.readTree(mockMvc.perform(get("/statistics")
+                        .param("team_name", uniqueTeamName)
+                        .param("top", "1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        long maxAssignments = pullRequestReviewerRepository.countAssignmentsPerReviewer().stream()
+                .mapToLong(ReviewerAssignmentCountProjection::getAssignmentsCount)
+                .max()
+                .orElseThrow();
+        assertThat(top.get("assignments_by_user")).hasSize(1);
+        assertThat(top.at("/assignments_by_user/0/assignments_count").asLong()).isEqualTo(maxAssignments);
+
+        List<String> pagedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/statistics").param("team_name", uniqueTeamName).param("limit", "2");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString());
+            assertThat(page.get("reviewers_per_pr").size()).isLessThanOrEqualTo(2);
+            page.get("reviewers_per_pr").forEach(item -> pagedIds.add(item.get("pull_request_id").asText()));
+            cursor = page.hasNonNull("next_cursor") ? page.get("next_cursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(pagedIds).isSorted().doesNotHaveDuplicates().contains("pr-top-1", "pr-top-2", "pr-top-3");
+
+        mockMvc.perform(get("/statistics").param("team_name", "NoSuchTeam"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Переназначение ревьювера на слитом PR должно вернуть ошибку")
     void reassignReviewer_MergedPr_Error() throws Exception {
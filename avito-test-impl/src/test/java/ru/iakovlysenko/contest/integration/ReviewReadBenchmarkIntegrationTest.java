@@ -0,0 +1,173 @@
+package ru.iakovlysenko.contest.integration;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.iakovlysenko.contest.AvitoTestApplication;
+import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
+import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.mapper.PullRequestMapper;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение чтения PR ревьювера через загрузку сущностей и через проекции на 10 000 назначений.
+ *
+ * @author Iakov Lysenko
+ */
+@Slf4j
+@SpringBootTest(classes = AvitoTestApplication.class)
+@Testcontainers
+@DisplayName("Бенчмарк чтения PR ревьювера")
+class ReviewReadBenchmarkIntegrationTest {
+
+    private static final int ASSIGNMENTS = 10_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    private static final String REVIEWER_ID = "bench-reviewer";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Autowired
+    private PullRequestMapper pullRequestMapper;
+
+    @Test
+    @DisplayName("Чтение через проекции не загружает сущности и быстрее чтения через EntityGraph")
+    void getReview_ProjectionVersusEntityGraph() {
+        seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Supplier<List<PullRequestShortResponse>> entityGraphRead = () -> readOnly.execute(status -> {
+            // Прежний путь чтения: PR ревьювера с EntityGraph по автору и всем ревьюверам
+            EntityGraph<?> graph = entityManager.createEntityGraph(PullRequest.class);
+            graph.addAttributeNodes("author", "reviewers");
+            return entityManager.createQuery(
+                            "SELECT DISTINCT pr FROM PullRequest pr JOIN pr.reviewers r WHERE r.reviewer.id = :reviewerId",
+                            PullRequest.class)
+                    .setParameter("reviewerId", REVIEWER_ID)
+                    .setHint("jakarta.persistence.fetchgraph", graph)
+                    .getResultList()
+                    .stream()
+                    .map(pullRequestMapper::toShortResponse)
+                    .toList();
+        });
+        Supplier<List<PullRequestShortResponse>> projectionRead = () -> readOnly.execute(status ->
+                pullRequestReviewerRepository.findReviewPage(REVIEWER_ID, null, null, null, ASSIGNMENTS)
+                        .stream()
+                        .map(pullRequestMapper::toShortResponse)
+                        .toList());
+
+        statistics.clear();
+        List<PullRequestShortResponse> fromEntities = entityGraphRead.get();
+        long entitiesLoaded = statistics.getEntityLoadCount();
+
+        statistics.clear();
+        List<PullRequestShortResponse> fromProjections = projectionRead.get();
+        long projectionEntitiesLoaded = statistics.getEntityLoadCount();
+
+        assertThat(fromProjections).hasSize(ASSIGNMENTS).containsExactlyInAnyOrderElementsOf(fromEntities);
+        assertThat(entitiesLoaded).isGreaterThanOrEqualTo(ASSIGNMENTS);
+        assertThat(projectionEntitiesLoaded).isZero();
+
+        long entityGraphMillis = medianMillis(entityGraphRead);
+        long projectionMillis = medianMillis(projectionRead);
+        log.info("Чтение {} назначений ревьювера: EntityGraph - {} мс, {} сущностей; проекции - {} мс, {} сущностей",
+                ASSIGNMENTS, entityGraphMillis, entitiesLoaded, projectionMillis, projectionEntitiesLoaded);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO teams (team_name) VALUES ('BenchTeam')");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, team_key, is_active)
+                SELECT v.id, v.username, t.team_key, true
+                FROM teams t CROSS JOIN (VALUES ('bench-author', 'Author'), ('bench-reviewer', 'Reviewer'),
+                                                ('bench-second', 'Second')) AS v(id, username)
+                WHERE t.team_name = 'BenchTeam'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO pull_request_ids (id)
+                SELECT 'bench-pr-' || g FROM generate_series(1, ?) g
+                """, ASSIGNMENTS);
+        jdbcTemplate.update("""
+                INSERT INTO pull_requests (pull_request_key, id, pull_request_name, author_key, status, created_at)
+                SELECT i.pull_request_key, i.id, 'Bench PR ' || g, a.user_key, 'OPEN', now() - g * interval '1 second'
+                FROM users a CROSS JOIN generate_series(1, ?) g
+                JOIN pull_request_ids i ON i.id = 'bench-pr-' || g
+                WHERE a.id = 'bench-author'
+                """, ASSIGNMENTS);
+        jdbcTemplate.update("""
+                INSERT INTO pull_request_reviewers (pull_request_key, reviewer_key, created_at)
+                SELECT pr.pull_request_key, r.user_key, pr.created_at
+                FROM pull_requests pr CROSS JOIN users r
+                WHERE pr.author_key = (SELECT user_key FROM users WHERE id = 'bench-author')
+                  AND r.id IN ('bench-reviewer', 'bench-second')
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static long medianMillis(Supplier<?> read) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            read.get();
+        }
+        long[] millis = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            read.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_ITERATIONS / 2];
+    }
+}
@@ -1,13 +1,18 @@
 package ru.iakovlysenko.contest.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
@@ -15,9 +20,25 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import ru.iakovlysenko.contest.AvitoTestApplication;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
+import ru.iakovlysenko.contest.entity.User;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,14 +66,23 @@ class TeamIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
         registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
     }
 
+    private static final int LARGE_TEAM_SIZE = 300;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
 
@@ -126,6 +156,123 @@ class TeamIntegrationTest {
                 .andExpect(jsonPath("$.error.code").value("TEAM_EXISTS"));
     }
 
+    @Test
+    @DisplayName("Создание большой команды выполняется постоянным количеством запросов и переносит существующих пользователей")
+    void createTeam_LargeTeam_ConstantStatements() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("BulkSourceTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("bulk-0", "Old0", true),
+                                new TeamRequest.TeamMemberRequest("bulk-keep", "Keep", true)
+                        )))))
+                .andExpect(status().isCreated());
+
+        List<TeamRequest.TeamMemberRequest> members = IntStream.range(0, LARGE_TEAM_SIZE)
+                .mapToObj(i -> new TeamRequest.TeamMemberRequest("bulk-" + i, "Bulk" + i, i % 2 == 0))
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(jdbcTemplate);
+
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("BulkTeam", members))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.team.members.length()").value(LARGE_TEAM_SIZE));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<User> users) -> users.size() == LARGE_TEAM_SIZE),
+                eq(LARGE_TEAM_SIZE), any());
+
+        mockMvc.perform(get("/team/get").param("team_name", "BulkTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(LARGE_TEAM_SIZE))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'bulk-0')].username").value("Bulk0"));
+        mockMvc.perform(get("/team/get").param("team_name", "BulkSourceTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(1))
+                .andExpect(jsonPath("$.members[0].user_id").value("bulk-keep"));
+    }
+
+    @Test
+    @DisplayName("Изменение состава команды применяет все изменения и обновляет состав для назначения ревьюверов")
+    void updateMembers_AppliesDeltasAndUpdatesRoster() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("PatchSourceTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("patch-mover", "Mover", true)
+                        )))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("PatchTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("patch-author", "Author", true),
+                                new TeamRequest.TeamMemberRequest("patch-r1", "Reviewer1", true),
+                                new TeamRequest.TeamMemberRequest("patch-r2", "Reviewer2", true),
+                                new TeamRequest.TeamMemberRequest("patch-old", "Old", false)
+                        )))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("patch-pr-1", "Patch PR 1", "patch-author"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers.length()").value(2));
+
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "PatchTeam",
+                List.of(
+                        new TeamRequest.TeamMemberRequest("patch-mover", "Mover", true),
+                        new TeamRequest.TeamMemberRequest("patch-new", "New", false)
+                ),
+                List.of("patch-old", "patch-author", "patch-missing"),
+                null,
+                List.of("patch-r1"),
+                true
+        );
+
+        mockMvc.perform(patch("/team/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(containsInAnyOrder("patch-mover", "patch-new")))
+                .andExpect(jsonPath("$.deactivated").value(contains("patch-r1")))
+                .andExpect(jsonPath("$.removed").value(contains("patch-old")))
+                .andExpect(jsonPath("$.not_removed").value(contains("patch-author")))
+                .andExpect(jsonPath("$.not_found").value(contains("patch-missing")))
+                .andExpect(jsonPath("$.reassignment.unassigned[0].pull_request_id").value("patch-pr-1"))
+                .andExpect(jsonPath("$.reassignment.unassigned[0].old_reviewer_id").value("patch-r1"));
+
+        mockMvc.perform(get("/team/get").param("team_name", "PatchTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members[*].user_id")
+                        .value(containsInAnyOrder("patch-author", "patch-r1", "patch-r2", "patch-mover", "patch-new")))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'patch-r1')].is_active").value(false));
+        mockMvc.perform(get("/team/get").param("team_name", "PatchSourceTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(0));
+
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("patch-pr-2", "Patch PR 2", "patch-author"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers").value(containsInAnyOrder("patch-r2", "patch-mover")));
+    }
+
+    @Test
+    @DisplayName("Изменение состава несуществующей команды должно вернуть ошибку")
+    void updateMembers_TeamNotFound_Error() throws Exception {
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "MissingPatchTeam", null, null, List.of("someone"), null, null);
+
+        mockMvc.perform(patch("/team/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("NOT_FOUND"));
+    }
+
     @Test
     @DisplayName("Получение несуществующей команды должно вернуть ошибку")
     void getTeam_NotFound_Error() throws Exception {
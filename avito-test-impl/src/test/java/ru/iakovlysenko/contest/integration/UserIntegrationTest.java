@@ -15,10 +15,17 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import ru.iakovlysenko.contest.AvitoTestApplication;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -80,7 +87,7 @@ class UserIntegrationTest {
     @Test
     @DisplayName("Успешная установка флага активности пользователя")
     void setIsActive_Success() throws Exception {
-        SetIsActiveRequest request = new SetIsActiveRequest("user1", false);
+        SetIsActiveRequest request = new SetIsActiveRequest("user1", false, null);
 
         mockMvc.perform(post("/users/setIsActive")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -90,6 +97,120 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.user.is_active").value(false));
     }
 
+    @Test
+    @DisplayName("Деактивация с переназначением переносит открытые ревью на активных участников команды")
+    void setIsActive_ReassignOpenReviews() throws Exception {
+        List<String> memberIds = List.of("ra-reviewer1", "ra-reviewer2", "ra-reviewer3");
+        List<TeamRequest.TeamMemberRequest> members = new ArrayList<>();
+        members.add(new TeamRequest.TeamMemberRequest("ra-author", "Author", true));
+        memberIds.forEach(id -> members.add(new TeamRequest.TeamMemberRequest(id, id, true)));
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("ReassignTeam", members))))
+                .andExpect(status().isCreated());
+
+        var createResult = mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("ra-pr", "Reassign PR", "ra-author"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        List<String> assigned = new ArrayList<>();
+        objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers")
+                .forEach(node -> assigned.add(node.asText()));
+        String spare = memberIds.stream().filter(id -> !assigned.contains(id)).findFirst().orElseThrow();
+
+        mockMvc.perform(post("/users/setIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SetIsActiveRequest(assigned.get(0), false, true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.is_active").value(false))
+                .andExpect(jsonPath("$.reassignment.reassigned.length()").value(1))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].pull_request_id").value("ra-pr"))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].old_reviewer_id").value(assigned.get(0)))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].new_reviewer_id").value(spare))
+                .andExpect(jsonPath("$.reassignment.unassigned").isEmpty());
+
+        mockMvc.perform(get("/users/getReview").param("user_id", spare))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("ra-pr"));
+        mockMvc.perform(get("/users/getReview").param("user_id", assigned.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests").isEmpty());
+
+        mockMvc.perform(post("/users/setIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SetIsActiveRequest(spare, false, true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reassignment.reassigned").isEmpty())
+                .andExpect(jsonPath("$.reassignment.unassigned[0].pull_request_id").value("ra-pr"))
+                .andExpect(jsonPath("$.reassignment.unassigned[0].old_reviewer_id").value(spare));
+
+        mockMvc.perform(get("/users/getReview").param("user_id", spare))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Массовая деактивация переназначает ревью и сразу исключает пользователей из выбора ревьюверов")
+    void bulkSetIsActive_ReassignsAndUpdatesRoster() throws Exception {
+        List<String> memberIds = List.of("bulk-reviewer1", "bulk-reviewer2", "bulk-reviewer3");
+        List<TeamRequest.TeamMemberRequest> members = new ArrayList<>();
+        members.add(new TeamRequest.TeamMemberRequest("bulk-author", "Author", true));
+        memberIds.forEach(id -> members.add(new TeamRequest.TeamMemberRequest(id, id, true)));
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("BulkTeam", members))))
+                .andExpect(status().isCreated());
+
+        var createResult = mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("bulk-pr1", "Bulk PR 1", "bulk-author"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        List<String> assigned = new ArrayList<>();
+        objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .at("/pr/assigned_reviewers")
+                .forEach(node -> assigned.add(node.asText()));
+        String spare = memberIds.stream().filter(id -> !assigned.contains(id)).findFirst().orElseThrow();
+
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkSetIsActiveRequest(
+                                null, List.of(assigned.get(0), assigned.get(1), "bulk-missing"), false, true))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated.length()").value(2))
+                .andExpect(jsonPath("$.not_found[0]").value("bulk-missing"))
+                .andExpect(jsonPath("$.reassignment.reassigned.length()").value(1))
+                .andExpect(jsonPath("$.reassignment.reassigned[0].new_reviewer_id").value(spare))
+                .andExpect(jsonPath("$.reassignment.unassigned.length()").value(1));
+
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("bulk-pr2", "Bulk PR 2", "bulk-author"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers.length()").value(1))
+                .andExpect(jsonPath("$.pr.assigned_reviewers[0]").value(spare));
+
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkSetIsActiveRequest("BulkTeam", null, false, null))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated.length()").value(2))
+                .andExpect(jsonPath("$.unchanged.length()").value(2))
+                .andExpect(jsonPath("$.reassignment").doesNotExist());
+
+        mockMvc.perform(post("/users/bulkSetIsActive")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkSetIsActiveRequest("NoSuchTeam", null, false, null))))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("Успешное получение списка PR для ревьювера")
     void getReview_Success() throws Exception {
@@ -108,10 +229,237 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("pr1"));
     }
 
+    @Test
+    @DisplayName("Постраничное получение списка PR по курсору возвращает все назначения без повторов")
+    void getReview_Pagination() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("PageTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("page-author", "Author", true),
+                                new TeamRequest.TeamMemberRequest("page-reviewer", "Reviewer", true)
+                        )))))
+                .andExpect(status().isCreated());
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new CreatePullRequestRequest("page-pr" + i, "Page PR " + i, "page-author"))))
+                    .andExpect(status().isCreated());
+        }
+
+        var firstPage = mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "page-reviewer")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests.length()").value(2))
+                .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("page-pr3"))
+                .andExpect(jsonPath("$.pull_requests[1].pull_request_id").value("page-pr2"))
+                .andExpect(jsonPath("$.next_cursor").isNotEmpty())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .get("next_cursor").asText();
+
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "page-reviewer")
+                        .param("limit", "2")
+                        .param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests.length()").value(1))
+                .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("page-pr1"))
+                .andExpect(jsonPath("$.next_cursor").doesNotExist());
+
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "page-reviewer")
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    @DisplayName("Фильтр по статусу возвращает только открытые или только слитые PR ревьювера")
+    void getReview_StatusFilter() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("StatusTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("status-author", "Author", true),
+                                new TeamRequest.TeamMemberRequest("status-reviewer", "Reviewer", true)
+                        )))))
+                .andExpect(status().isCreated());
+        for (String id : List.of("status-pr1", "status-pr2")) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new CreatePullRequestRequest(id, id, "status-author"))))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/pullRequest/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestRequest("status-pr1"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "status-reviewer")
+                        .param("status", "OPEN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests.length()").value(1))
+                .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("status-pr2"));
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "status-reviewer")
+                        .param("status", "MERGED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests.length()").value(1))
+                .andExpect(jsonPath("$.pull_requests[0].pull_request_id").value("status-pr1"))
+                .andExpect(jsonPath("$.pull_requests[0].status").value("MERGED"));
+        mockMvc.perform(get("/users/getReview")
+                        .param("user_id", "status-reviewer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pull_requests.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("NDJSON вариант передает все PR ревьювера построчно от последних назначений")
+    void streamReview_Ndjson() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("StreamTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("stream-author", "Author", true),
+                                new TeamRequest.TeamMemberRequest("stream-reviewer", "Reviewer", true)
+                        )))))
+                .andExpect(status().isCreated());
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/pullRequest/create")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new CreatePullRequestRequest("stream-pr" + i, "Stream PR " + i, "stream-author"))))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/pullRequest/merge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MergePullRequestRequest("stream-pr2"))))
+                .andExpect(status().isOk());
+
+        String all = mockMvc.perform(get("/users/getReview")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("user_id", "stream-reviewer"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        List<String> ids = new ArrayList<>();
+        for (String line : all.split("\n")) {
+            ids.add(objectMapper.readTree(line).get("pull_request_id").asText());
+        }
+        assertThat(ids).containsExactly("stream-pr3", "stream-pr2", "stream-pr1");
+
+        String open = mockMvc.perform(get("/users/getReview")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("user_id", "stream-reviewer")
+                        .param("status", "OPEN"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(open.split("\n")).hasSize(2).noneMatch(line -> line.contains("stream-pr2"));
+
+        mockMvc.perform(get("/users/getReview")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .param("user_id", "nonexistent"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("Импорт CSV создает команду и пользователей, переносит существующих и отчитывается об ошибках")
+    void importUsers_Csv() throws Exception {
+        mockMvc.perform(post("/team/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TeamRequest("ImportSourceTeam", List.of(
+                                new TeamRequest.TeamMemberRequest("import-author", "Author", true),
+                                new TeamRequest.TeamMemberRequest("import-moved", "Moved", true)
+                        )))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("import-pr1", "Import PR 1", "import-author"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers[0]").value("import-moved"));
+
+        String csv = """
+                teamName,id,username,isActive
+                ImportTeam,import-1,First,true
+                ImportTeam,import-2,"Second, Jr.",false
+                ImportTeam,import-moved,Moved,true
+                ImportTeam,,Nameless,true
+                ImportTeam,import-3,Third,maybe
+                ImportTeam,import-1,First Renamed,true
+                """;
+        mockMvc.perform(post("/users/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted_count").value(4))
+                .andExpect(jsonPath("$.rejected_count").value(2))
+                .andExpect(jsonPath("$.users_created_count").value(2))
+                .andExpect(jsonPath("$.users_updated_count").value(1))
+                .andExpect(jsonPath("$.teams_created_count").value(1))
+                .andExpect(jsonPath("$.errors_truncated").value(false))
+                .andExpect(jsonPath("$.errors[0].line").value(5))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("id:")))
+                .andExpect(jsonPath("$.errors[1].line").value(6))
+                .andExpect(jsonPath("$.errors[1].user_id").doesNotExist());
+
+        mockMvc.perform(get("/team/get").param("team_name", "ImportTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(3))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'import-1')].username").value("First Renamed"))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'import-2')].username").value("Second, Jr."))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'import-2')].is_active").value(false));
+
+        // Загруженный ранее состав исходной команды сброшен: перенесенный участник больше не назначается
+        mockMvc.perform(post("/pullRequest/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreatePullRequestRequest("import-pr2", "Import PR 2", "import-author"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pr.assigned_reviewers.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Импорт NDJSON обновляет существующих пользователей, а CSV без нужных колонок отклоняется целиком")
+    void importUsers_NdjsonAndInvalidHeader() throws Exception {
+        String ndjson = """
+                {"id":"user1","username":"User1 Imported","teamName":"NdjsonImportTeam","isActive":true}
+                {"id":"ndjson-1","username":"Ndjson1","teamName":"NdjsonImportTeam","isActive":true}
+                {"id":"ndjson-2","username":
+                """;
+        mockMvc.perform(post("/users/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted_count").value(2))
+                .andExpect(jsonPath("$.rejected_count").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        mockMvc.perform(get("/team/get").param("team_name", "NdjsonImportTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(2))
+                .andExpect(jsonPath("$.members[?(@.user_id == 'user1')].username").value("User1 Imported"));
+
+        mockMvc.perform(post("/users/import")
+                        .contentType("text/csv")
+                        .content("id,username\nheader-1,Header1\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("INVALID_IMPORT"));
+        mockMvc.perform(get("/team/get").param("team_name", "NdjsonImportTeam"))
+                .andExpect(jsonPath("$.members.length()").value(2));
+    }
+
     @Test
     @DisplayName("Установка флага активности для несуществующего пользователя должна вернуть ошибку")
     void setIsActive_UserNotFound_Error() throws Exception {
-        SetIsActiveRequest request = new SetIsActiveRequest("nonexistent", false);
+        SetIsActiveRequest request = new SetIsActiveRequest("nonexistent", false, null);
 
         mockMvc.perform(post("/users/setIsActive")
                         .contentType(MediaType.APPLICATION_JSON)
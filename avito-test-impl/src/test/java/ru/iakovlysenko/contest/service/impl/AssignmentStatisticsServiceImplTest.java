@@ -0,0 +1,157 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.iakovlysenko.contest.entity.PullRequest;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+import ru.iakovlysenko.contest.entity.User;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.PullRequestReviewersCountProjection;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link AssignmentStatisticsServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для AssignmentStatisticsServiceImpl")
+class AssignmentStatisticsServiceImplTest {
+
+    @Mock
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Mock
+    private ReviewerAssignmentCountProjection assignmentProjection;
+
+    @Mock
+    private PullRequestReviewersCountProjection reviewersProjection;
+
+    @InjectMocks
+    private AssignmentStatisticsServiceImpl assignmentStatisticsService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Счетчики инициализируются группировкой назначений из базы")
+    void loadCounters_Success() {
+        when(assignmentProjection.getReviewerId()).thenReturn("user1");
+        when(assignmentProjection.getAssignmentsCount()).thenReturn(3L);
+        when(reviewersProjection.getPullRequestId()).thenReturn("pr1");
+        when(reviewersProjection.getReviewersCount()).thenReturn(2L);
+        when(pullRequestReviewerRepository.countAssignmentsPerReviewer()).thenReturn(List.of(assignmentProjection));
+        when(pullRequestReviewerRepository.countReviewersPerPullRequestByStatus(PrStatus.OPEN))
+                .thenReturn(List.of(reviewersProjection));
+
+        assignmentStatisticsService.loadCounters();
+
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 3L));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr1", 2L));
+    }
+
+    @Test
+    @DisplayName("Создание и удаление назначений изменяют счетчики, а обнулившиеся не попадают в статистику")
+    void createAndDelete_UpdateCounters() {
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr1", "user1"), assignment("pr1", "user2")));
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr2", "user1")));
+        assignmentStatisticsService.onAssignmentsDeleted(List.of(assignment("pr1", "user2")));
+
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 2L));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr1", 1L, "pr2", 1L));
+        verifyNoInteractions(pullRequestReviewerRepository);
+    }
+
+    @Test
+    @DisplayName("Слитый пулл реквест исключается из счетчиков по пулл реквестам, назначения ревьюверов остаются")
+    void onPullRequestsMerged_DropsPullRequestCounter() {
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr1", "user1"), assignment("pr2", "user1")));
+
+        assignmentStatisticsService.onPullRequestsMerged(List.of("pr1"));
+
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 2L));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr2", 1L));
+    }
+
+    @Test
+    @DisplayName("Изменение внутри транзакции применяется только после коммита")
+    void onAssignmentsCreated_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr1", "user1")));
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 1L));
+    }
+
+    @Test
+    @DisplayName("Сверка заменяет разошедшиеся счетчики значениями из базы")
+    void reconcile_RebuildsCounters() {
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr1", "user1"), assignment("pr2", "user2")));
+        when(assignmentProjection.getReviewerId()).thenReturn("user1");
+        when(assignmentProjection.getAssignmentsCount()).thenReturn(4L);
+        when(reviewersProjection.getPullRequestId()).thenReturn("pr1");
+        when(reviewersProjection.getReviewersCount()).thenReturn(1L);
+        when(pullRequestReviewerRepository.countAssignmentsPerReviewer()).thenReturn(List.of(assignmentProjection));
+        when(pullRequestReviewerRepository.countReviewersPerPullRequestByStatus(PrStatus.OPEN))
+                .thenReturn(List.of(reviewersProjection));
+
+        assignmentStatisticsService.reconcile();
+
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 4L));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr1", 1L));
+    }
+
+    @Test
+    @DisplayName("Изменения, примененные во время сверки, повторяются на пересобранных счетчиках")
+    void reconcile_ReplaysChangesAppliedDuringRebuild() {
+        when(assignmentProjection.getReviewerId()).thenReturn("user1");
+        when(assignmentProjection.getAssignmentsCount()).thenReturn(4L);
+        when(reviewersProjection.getPullRequestId()).thenReturn("pr1");
+        when(reviewersProjection.getReviewersCount()).thenReturn(1L);
+        when(pullRequestReviewerRepository.countAssignmentsPerReviewer()).thenAnswer(invocation -> {
+            // Коммит между чтением базы и подменой счетчиков
+            assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr2", "user1")));
+            return List.of(assignmentProjection);
+        });
+        when(pullRequestReviewerRepository.countReviewersPerPullRequestByStatus(PrStatus.OPEN))
+                .thenAnswer(invocation -> {
+                    assignmentStatisticsService.onPullRequestsMerged(List.of("pr1"));
+                    return List.of(reviewersProjection);
+                });
+
+        assignmentStatisticsService.reconcile();
+
+        assertThat(assignmentStatisticsService.getAssignmentsByReviewer()).isEqualTo(Map.of("user1", 5L));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr2", 1L));
+
+        assignmentStatisticsService.onAssignmentsCreated(List.of(assignment("pr3", "user2")));
+        assertThat(assignmentStatisticsService.getReviewersByPullRequest()).isEqualTo(Map.of("pr2", 1L, "pr3", 1L));
+    }
+
+    private static PullRequestReviewer assignment(String pullRequestId, String reviewerId) {
+        return PullRequestReviewer.builder()
+                .pullRequest(PullRequest.builder().id(pullRequestId).build())
+                .reviewer(User.builder().id(reviewerId).build())
+                .build();
+    }
+}
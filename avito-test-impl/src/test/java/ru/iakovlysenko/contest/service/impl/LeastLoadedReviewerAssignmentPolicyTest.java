@@ -0,0 +1,72 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link LeastLoadedReviewerAssignmentPolicy}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для LeastLoadedReviewerAssignmentPolicy")
+class LeastLoadedReviewerAssignmentPolicyTest {
+
+    @Mock
+    private ReviewLoadService reviewLoadService;
+
+    @InjectMocks
+    private LeastLoadedReviewerAssignmentPolicy policy;
+
+    @Test
+    @DisplayName("Выбираются кандидаты с наименьшим количеством открытых назначений")
+    void selectReviewers_PicksLeastLoaded() {
+        when(reviewLoadService.getOpenReviewsCount("user1")).thenReturn(10L);
+        when(reviewLoadService.getOpenReviewsCount("user2")).thenReturn(0L);
+        when(reviewLoadService.getOpenReviewsCount("user3")).thenReturn(5L);
+        when(reviewLoadService.getOpenReviewsCount("user4")).thenReturn(1L);
+
+        List<String> result = policy.selectReviewers(
+                List.of("author1", "user1", "user2", "user3", "user4"), 2, List.of("author1"));
+
+        assertThat(result).containsExactly("user2", "user4");
+        verify(reviewLoadService, never()).getOpenReviewsCount("author1");
+    }
+
+    @Test
+    @DisplayName("Среди одинаково загруженных кандидатов выбор случайный")
+    void selectReviewers_RandomTieBreak() {
+        when(reviewLoadService.getOpenReviewsCount(anyString())).thenReturn(3L);
+        when(reviewLoadService.getOpenReviewsCount("user4")).thenReturn(7L);
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            List<String> result = policy.selectReviewers(List.of("user1", "user2", "user3", "user4"), 1, List.of());
+            assertThat(result).hasSize(1).doesNotContain("user4");
+            picked.addAll(result);
+        }
+        assertThat(picked).containsExactlyInAnyOrder("user1", "user2", "user3");
+    }
+
+    @Test
+    @DisplayName("При недостатке кандидатов возвращаются все доступные")
+    void selectReviewers_NotEnoughCandidates() {
+        when(reviewLoadService.getOpenReviewsCount("user1")).thenReturn(4L);
+
+        assertThat(policy.selectReviewers(List.of("author1", "user1"), 2, List.of("author1")))
+                .containsExactly("user1");
+        assertThat(policy.selectReviewers(List.of(), 2, List.of())).isEmpty();
+    }
+}
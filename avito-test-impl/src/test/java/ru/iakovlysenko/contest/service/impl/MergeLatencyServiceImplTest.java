@@ -0,0 +1,93 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.iakovlysenko.contest.projection.MergeLatencyProjection;
+import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.util.LatencyHistogram;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link MergeLatencyServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для MergeLatencyServiceImpl")
+class MergeLatencyServiceImplTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private PullRequestRepository pullRequestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MergeLatencyServiceImpl mergeLatencyService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Гистограммы загружаются потоковым чтением слитых PR по командам авторов")
+    void loadHistograms_Success() {
+        when(pullRequestRepository.streamMergeLatencies()).thenReturn(Stream.of(
+                new MergeLatencyProjection("backend", CREATED_AT, CREATED_AT.plusMinutes(1)),
+                new MergeLatencyProjection("backend", CREATED_AT, CREATED_AT.plusMinutes(2)),
+                new MergeLatencyProjection("android", CREATED_AT, CREATED_AT.plusSeconds(1))
+        ));
+
+        mergeLatencyService.loadHistograms();
+
+        Map<String, LatencyHistogram> histograms = mergeLatencyService.getHistograms();
+        assertThat(histograms).containsOnlyKeys("backend", "android");
+        assertThat(histograms.get("backend").getTotalCount()).isEqualTo(2);
+        assertThat(histograms.get("android").getValueAtPercentile(50)).isCloseTo(1_000L, within(16L));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Слияние внутри транзакции учитывается только после коммита")
+    void onPullRequestMerged_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        mergeLatencyService.onPullRequestMerged("backend", CREATED_AT, CREATED_AT.plusHours(1));
+        assertThat(mergeLatencyService.getHistograms()).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(mergeLatencyService.getHistograms().get("backend").getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Возвращаемые гистограммы - копии, не меняющиеся при следующих слияниях")
+    void getHistograms_ReturnsCopies() {
+        mergeLatencyService.onPullRequestMerged("backend", CREATED_AT, CREATED_AT.plusHours(1));
+        LatencyHistogram before = mergeLatencyService.getHistograms().get("backend");
+
+        mergeLatencyService.onPullRequestMerged("backend", CREATED_AT, CREATED_AT.plusHours(2));
+
+        assertThat(before.getTotalCount()).isEqualTo(1);
+        assertThat(mergeLatencyService.getHistograms().get("backend").getTotalCount()).isEqualTo(2);
+    }
+}
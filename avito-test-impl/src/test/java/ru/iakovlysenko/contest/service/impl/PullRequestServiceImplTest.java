@@ -1,6 +1,5 @@
 package ru.iakovlysenko.contest.service.impl;
 
-import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,9 +7,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.dto.enums.ErrorCode;
+import ru.iakovlysenko.contest.dto.request.CreatePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.CreatePullRequestRequest;
+import ru.iakovlysenko.contest.dto.enums.MergeOutcome;
+import ru.iakovlysenko.contest.dto.request.MergePullRequestBatchRequest;
 import ru.iakovlysenko.contest.dto.request.MergePullRequestRequest;
 import ru.iakovlysenko.contest.dto.request.ReassignRequest;
+import ru.iakovlysenko.contest.dto.response.PullRequestBatchResponse;
+import ru.iakovlysenko.contest.dto.response.PullRequestMergeBatchResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestResponse;
 import ru.iakovlysenko.contest.dto.response.ReassignResponse;
 import ru.iakovlysenko.contest.entity.PullRequest;
@@ -20,19 +25,31 @@ import ru.iakovlysenko.contest.entity.User;
 import ru.iakovlysenko.contest.enums.PrStatus;
 import ru.iakovlysenko.contest.exception.*;
 import ru.iakovlysenko.contest.mapper.PullRequestMapper;
+import ru.iakovlysenko.contest.projection.PullRequestCreationProjection;
+import ru.iakovlysenko.contest.projection.PullRequestMergeProjection;
+import ru.iakovlysenko.contest.projection.UserMembershipProjection;
 import ru.iakovlysenko.contest.repository.PullRequestRepository;
 import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.MergeLatencyService;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+import ru.iakovlysenko.contest.service.TeamRosterService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -54,10 +71,22 @@ class PullRequestServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private PullRequestMapper pullRequestMapper;
+    private TeamRosterService teamRosterService;
+
+    @Mock
+    private ReviewerAssignmentPolicy reviewerAssignmentPolicy;
+
+    @Mock
+    private ReviewLoadService reviewLoadService;
 
     @Mock
-    private EntityManager entityManager;
+    private AssignmentStatisticsService assignmentStatisticsService;
+
+    @Mock
+    private MergeLatencyService mergeLatencyService;
+
+    @Mock
+    private PullRequestMapper pullRequestMapper;
 
     @InjectMocks
     private PullRequestServiceImpl pullRequestService;
@@ -124,14 +153,13 @@ class PullRequestServiceImplTest {
     @Test
     @DisplayName("Успешное создание PR с назначением ревьюверов")
     void createPullRequest_Success() {
-        when(pullRequestRepository.existsById("pr1")).thenReturn(false);
-        when(userRepository.findById("author1")).thenReturn(Optional.of(author));
-        when(pullRequestRepository.save(any(PullRequest.class))).thenReturn(pullRequest);
-        when(userRepository.findActiveUsersByTeamExcludingUser(team, "author1"))
-                .thenReturn(new ArrayList<>(List.of(reviewer1, reviewer2)));
-        when(pullRequestReviewerRepository.save(any(PullRequestReviewer.class)))
-                .thenReturn(new PullRequestReviewer());
-        when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
+        PullRequestCreationProjection creation = creation(true, true);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(creation);
+        when(teamRosterService.getActiveMemberIds("TestTeam"))
+                .thenReturn(List.of("author1", "reviewer1", "reviewer2"));
+        when(reviewerAssignmentPolicy.selectReviewers(List.of("author1", "reviewer1", "reviewer2"), 2, List.of("author1")))
+                .thenReturn(List.of("reviewer1", "reviewer2"));
 
         PullRequestResponse prResponse = new PullRequestResponse(
                 "pr1",
@@ -149,66 +177,83 @@ class PullRequestServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.pullRequestId()).isEqualTo("pr1");
         assertThat(result.assignedReviewers()).hasSize(2);
-        verify(pullRequestRepository).existsById("pr1");
-        verify(userRepository).findById("author1");
-        verify(pullRequestRepository).save(any(PullRequest.class));
-        verify(userRepository).findActiveUsersByTeamExcludingUser(team, "author1");
-        verify(pullRequestReviewerRepository, atMost(2)).save(any(PullRequestReviewer.class));
-        verify(entityManager).flush();
-        verify(entityManager).clear();
-        verify(pullRequestRepository).findByIdWithReviewers("pr1");
-        verify(pullRequestMapper).toResponse(pullRequest);
+        verify(pullRequestRepository).insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class));
+        verify(reviewerAssignmentPolicy).selectReviewers(List.of("author1", "reviewer1", "reviewer2"), 2, List.of("author1"));
+        verify(pullRequestRepository).insertReviewers(argThat(assignments -> assignments.size() == 2
+                && assignments.stream().allMatch(assignment -> assignment.getPullRequestId().equals("pr1"))));
+        verify(reviewLoadService).onReviewersAssigned(List.of("reviewer1", "reviewer2"));
+        verify(assignmentStatisticsService).onAssignmentsCreated(argThat(assignments -> assignments.size() == 2));
+        verify(pullRequestMapper).toResponse(argThat(created -> created.getId().equals("pr1")
+                && created.getAuthorId().equals("author1")
+                && created.getCreatedAt() != null
+                && created.getAssignedReviewerIds().equals(List.of("reviewer1", "reviewer2"))));
+        verifyNoMoreInteractions(pullRequestRepository);
+        verifyNoInteractions(userRepository, pullRequestReviewerRepository);
     }
 
     @Test
     @DisplayName("Создание PR с существующим ID должно выбрасывать исключение")
     void createPullRequest_PrExists_ThrowsException() {
-        when(pullRequestRepository.existsById("pr1")).thenReturn(true);
+        PullRequestCreationProjection creation = creation(true, false);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(creation);
+
+        assertThatThrownBy(() -> pullRequestService.createPullRequest(createRequest))
+                .isInstanceOf(PrExistsException.class);
+        verifyNoInteractions(reviewerAssignmentPolicy, reviewLoadService, assignmentStatisticsService, pullRequestMapper);
+    }
+
+    @Test
+    @DisplayName("Занятый ID приводит к PR_EXISTS раньше проверок автора")
+    void createPullRequest_PrExistsWithInvalidAuthor_ThrowsPrExists() {
+        PullRequestCreationProjection missingAuthor = creation(true, null, false, false);
+        PullRequestCreationProjection inactiveAuthor = creation(true, "author1", false, false);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(missingAuthor)
+                .thenReturn(inactiveAuthor);
 
         assertThatThrownBy(() -> pullRequestService.createPullRequest(createRequest))
                 .isInstanceOf(PrExistsException.class);
-        verify(pullRequestRepository).existsById("pr1");
-        verify(pullRequestRepository, never()).save(any(PullRequest.class));
+        assertThatThrownBy(() -> pullRequestService.createPullRequest(createRequest))
+                .isInstanceOf(PrExistsException.class);
+        verifyNoInteractions(reviewerAssignmentPolicy, reviewLoadService, assignmentStatisticsService, pullRequestMapper);
     }
 
     @Test
     @DisplayName("Создание PR с несуществующим автором должно выбрасывать исключение")
     void createPullRequest_AuthorNotFound_ThrowsException() {
-        when(pullRequestRepository.existsById("pr1")).thenReturn(false);
-        when(userRepository.findById("author1")).thenReturn(Optional.empty());
+        PullRequestCreationProjection creation = creation(false, null, false, false);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(creation);
 
         assertThatThrownBy(() -> pullRequestService.createPullRequest(createRequest))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Автор не найден");
-        verify(pullRequestRepository).existsById("pr1");
-        verify(userRepository).findById("author1");
-        verify(pullRequestRepository, never()).save(any(PullRequest.class));
+        verifyNoInteractions(reviewLoadService);
     }
 
     @Test
     @DisplayName("Создание PR с неактивным автором должно выбрасывать исключение")
     void createPullRequest_InactiveAuthor_ThrowsException() {
-        author.setIsActive(false);
-        when(pullRequestRepository.existsById("pr1")).thenReturn(false);
-        when(userRepository.findById("author1")).thenReturn(Optional.of(author));
+        PullRequestCreationProjection creation = creation(false, false);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(creation);
 
         assertThatThrownBy(() -> pullRequestService.createPullRequest(createRequest))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Автор не активен");
-        verify(pullRequestRepository).existsById("pr1");
-        verify(userRepository).findById("author1");
-        verify(pullRequestRepository, never()).save(any(PullRequest.class));
+        verifyNoInteractions(reviewLoadService);
     }
 
     @Test
     @DisplayName("Создание PR без доступных ревьюверов")
     void createPullRequest_NoReviewers_Success() {
-        when(pullRequestRepository.existsById("pr1")).thenReturn(false);
-        when(userRepository.findById("author1")).thenReturn(Optional.of(author));
-        when(pullRequestRepository.save(any(PullRequest.class))).thenReturn(pullRequest);
-        when(userRepository.findActiveUsersByTeamExcludingUser(team, "author1"))
+        PullRequestCreationProjection creation = creation(true, true);
+        when(pullRequestRepository.insertIfAbsent(eq("pr1"), eq("PR1"), eq("author1"), any(LocalDateTime.class)))
+                .thenReturn(creation);
+        when(teamRosterService.getActiveMemberIds("TestTeam")).thenReturn(List.of("author1"));
+        when(reviewerAssignmentPolicy.selectReviewers(List.of("author1"), 2, List.of("author1")))
                 .thenReturn(List.of());
-        when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
 
         PullRequestResponse prResponse = new PullRequestResponse(
                 "pr1",
@@ -225,96 +270,159 @@ class PullRequestServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.assignedReviewers()).isEmpty();
-        verify(pullRequestReviewerRepository, never()).save(any(PullRequestReviewer.class));
+        verify(pullRequestRepository).insertReviewers(List.of());
     }
 
     @Test
-    @DisplayName("Успешное слияние PR")
-    void mergePullRequest_Success() {
-        when(pullRequestRepository.findById("pr1")).thenReturn(Optional.of(pullRequest));
-        when(pullRequestRepository.save(any(PullRequest.class))).thenReturn(pullRequest);
-        when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
+    @DisplayName("Пакетное создание PR возвращает результат по каждому PR в порядке запроса")
+    void createPullRequests_ReturnsPerItemResults() {
+        CreatePullRequestBatchRequest request = new CreatePullRequestBatchRequest(List.of(
+                new CreatePullRequestRequest("pr1", "PR1", "author1"),
+                new CreatePullRequestRequest("pr1", "PR1 duplicate", "author1"),
+                new CreatePullRequestRequest("pr2", "PR2", "unknown"),
+                new CreatePullRequestRequest("pr3", "PR3", "inactive"),
+                new CreatePullRequestRequest("pr4", "PR4", "author1")
+        ));
+        List<UserMembershipProjection> memberships = List.of(
+                membership("author1", true),
+                membership("inactive", false),
+                membership("reviewer1", true)
+        );
+        when(userRepository.findWithActiveTeammates(Set.of("author1", "unknown", "inactive"))).thenReturn(memberships);
+        when(pullRequestRepository.insertAllSkippingExisting(anyList())).thenReturn(new int[]{1, 0});
+        when(reviewerAssignmentPolicy.selectReviewers(List.of("author1", "reviewer1"), 2, List.of("author1")))
+                .thenReturn(List.of("reviewer1"));
+        when(pullRequestMapper.toResponse(any(PullRequest.class))).thenAnswer(invocation -> {
+            PullRequest created = invocation.getArgument(0);
+            return PullRequestResponse.builder()
+                    .pullRequestId(created.getId())
+                    .assignedReviewers(created.getAssignedReviewerIds())
+                    .build();
+        });
+
+        PullRequestBatchResponse result = pullRequestService.createPullRequests(request);
+
+        assertThat(result.results()).extracting(PullRequestBatchResponse.Item::pullRequestId)
+                .containsExactly("pr1", "pr1", "pr2", "pr3", "pr4");
+        assertThat(result.results().get(0).pr().assignedReviewers()).containsExactly("reviewer1");
+        assertThat(result.results().get(0).error()).isNull();
+        List<PullRequestBatchResponse.Item> failed = result.results().subList(1, 5);
+        assertThat(failed).allSatisfy(item -> assertThat(item.pr()).isNull());
+        assertThat(failed).extracting(item -> item.error().code())
+                .containsExactly(ErrorCode.PR_EXISTS, ErrorCode.NOT_FOUND, ErrorCode.NOT_FOUND, ErrorCode.PR_EXISTS);
+
+        verify(userRepository).findWithActiveTeammates(anyCollection());
+        verify(pullRequestRepository).insertAllSkippingExisting(argThat(pullRequests -> pullRequests.size() == 2));
+        verify(pullRequestRepository).insertReviewers(argThat(reviewers -> reviewers.size() == 1
+                && reviewers.get(0).getPullRequestId().equals("pr1")
+                && reviewers.get(0).getReviewerId().equals("reviewer1")));
+        verify(reviewLoadService).onReviewersAssigned(List.of("reviewer1"));
+        verify(assignmentStatisticsService).onAssignmentsCreated(argThat(assignments -> assignments.size() == 1));
+        verifyNoInteractions(teamRosterService, pullRequestReviewerRepository);
+    }
 
-        PullRequestResponse prResponse = new PullRequestResponse(
-                "pr1",
-                "PR1",
-                "author1",
-                PrStatus.MERGED,
-                List.of(),
-                LocalDateTime.now(),
-                LocalDateTime.now()
+    @Test
+    @DisplayName("Успешное слияние PR одним запросом с освобождением ревьюверов")
+    void mergePullRequest_Success() {
+        LocalDateTime mergedAt = LocalDateTime.now();
+        List<PullRequestMergeProjection> rows = List.of(
+                mergeRow(true, mergedAt, "reviewer1"),
+                mergeRow(true, mergedAt, "reviewer2")
         );
-        when(pullRequestMapper.toResponse(any(PullRequest.class))).thenReturn(prResponse);
+        when(pullRequestRepository.mergeById(eq("pr1"), any(LocalDateTime.class))).thenReturn(rows);
 
         PullRequestResponse result = pullRequestService.mergePullRequest(mergeRequest);
 
-        assertThat(result).isNotNull();
+        assertThat(result.pullRequestId()).isEqualTo("pr1");
         assertThat(result.status()).isEqualTo(PrStatus.MERGED);
-        assertThat(pullRequest.getStatus()).isEqualTo(PrStatus.MERGED);
-        verify(pullRequestRepository).findById("pr1");
-        verify(pullRequestRepository).save(pullRequest);
-        verify(pullRequestRepository).findByIdWithReviewers("pr1");
+        assertThat(result.mergedAt()).isEqualTo(mergedAt);
+        assertThat(result.assignedReviewers()).containsExactly("reviewer1", "reviewer2");
+        verify(pullRequestRepository).mergeById(eq("pr1"), any(LocalDateTime.class));
+        verify(reviewLoadService).onReviewersReleased(List.of("reviewer1", "reviewer2"));
+        verify(assignmentStatisticsService).onPullRequestsMerged(List.of("pr1"));
+        verify(mergeLatencyService).onPullRequestMerged("TestTeam", mergedAt.minusHours(1), mergedAt);
+        verifyNoMoreInteractions(pullRequestRepository);
+        verifyNoInteractions(pullRequestMapper);
     }
 
     @Test
     @DisplayName("Идемпотентность merge - повторное слияние уже слитого PR")
     void mergePullRequest_AlreadyMerged_Idempotent() {
-        pullRequest.setStatus(PrStatus.MERGED);
-        pullRequest.setMergedAt(LocalDateTime.now());
-        when(pullRequestRepository.findById("pr1")).thenReturn(Optional.of(pullRequest));
-        when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
-
-        PullRequestResponse prResponse = new PullRequestResponse(
-                "pr1",
-                "PR1",
-                "author1",
-                PrStatus.MERGED,
-                List.of(),
-                LocalDateTime.now(),
-                LocalDateTime.now()
-        );
-        when(pullRequestMapper.toResponse(any(PullRequest.class))).thenReturn(prResponse);
+        LocalDateTime mergedAt = LocalDateTime.now().minusDays(1);
+        List<PullRequestMergeProjection> rows = List.of(mergeRow(false, mergedAt, null));
+        when(pullRequestRepository.mergeById(eq("pr1"), any(LocalDateTime.class))).thenReturn(rows);
 
         PullRequestResponse result = pullRequestService.mergePullRequest(mergeRequest);
 
-        assertThat(result).isNotNull();
         assertThat(result.status()).isEqualTo(PrStatus.MERGED);
-        verify(pullRequestRepository).findById("pr1");
-        verify(pullRequestRepository, never()).save(any(PullRequest.class));
-        verify(pullRequestRepository).findByIdWithReviewers("pr1");
+        assertThat(result.mergedAt()).isEqualTo(mergedAt);
+        assertThat(result.assignedReviewers()).isEmpty();
+        verify(pullRequestRepository).mergeById(eq("pr1"), any(LocalDateTime.class));
+        verifyNoInteractions(reviewLoadService, mergeLatencyService, assignmentStatisticsService);
     }
 
     @Test
     @DisplayName("Слияние несуществующего PR должно выбрасывать исключение")
     void mergePullRequest_NotFound_ThrowsException() {
-        when(pullRequestRepository.findById("pr1")).thenReturn(Optional.empty());
+        when(pullRequestRepository.mergeById(eq("pr1"), any(LocalDateTime.class))).thenReturn(List.of());
 
         assertThatThrownBy(() -> pullRequestService.mergePullRequest(mergeRequest))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Пулл реквест не найден");
-        verify(pullRequestRepository).findById("pr1");
-        verify(pullRequestRepository, never()).save(any(PullRequest.class));
+        verifyNoInteractions(reviewLoadService);
+    }
+
+    @Test
+    @DisplayName("Пакетное слияние возвращает результат по каждому ID и освобождает ревьюверов только слитых сейчас PR")
+    void mergePullRequests_ReturnsPerIdOutcomes() {
+        LocalDateTime mergedAt = LocalDateTime.now();
+        List<PullRequestMergeProjection> rows = List.of(
+                mergeRow("pr1", true, mergedAt, "reviewer1"),
+                mergeRow("pr1", true, mergedAt, "reviewer2"),
+                mergeRow("pr2", false, mergedAt.minusDays(1), "reviewer3")
+        );
+        when(pullRequestRepository.mergeAllById(anyCollection(), any(LocalDateTime.class))).thenReturn(rows);
+
+        PullRequestMergeBatchResponse result = pullRequestService.mergePullRequests(
+                new MergePullRequestBatchRequest(List.of("pr2", "missing", "pr1", "pr2")));
+
+        assertThat(result.results())
+                .extracting(PullRequestMergeBatchResponse.Item::pullRequestId)
+                .containsExactly("pr2", "missing", "pr1", "pr2");
+        assertThat(result.results())
+                .extracting(PullRequestMergeBatchResponse.Item::outcome)
+                .containsExactly(MergeOutcome.ALREADY_MERGED, MergeOutcome.NOT_FOUND,
+                        MergeOutcome.MERGED, MergeOutcome.ALREADY_MERGED);
+        assertThat(result.results().get(1).pr()).isNull();
+        assertThat(result.results().get(2).pr().assignedReviewers()).containsExactly("reviewer1", "reviewer2");
+        assertThat(result.results().get(2).pr().mergedAt()).isEqualTo(mergedAt);
+        assertThat(result.results().get(0).pr().assignedReviewers()).containsExactly("reviewer3");
+        verify(pullRequestRepository).mergeAllById(eq(Set.of("pr1", "pr2", "missing")), any(LocalDateTime.class));
+        verify(reviewLoadService).onReviewersReleased(List.of("reviewer1", "reviewer2"));
+        verify(assignmentStatisticsService).onPullRequestsMerged(List.of("pr1"));
+        verify(mergeLatencyService).onPullRequestMerged("TestTeam", mergedAt.minusHours(1), mergedAt);
+        verifyNoMoreInteractions(mergeLatencyService);
+        verifyNoMoreInteractions(pullRequestRepository);
     }
 
     @Test
     @DisplayName("Успешное переназначение ревьювера")
     void reassignReviewer_Success() {
         PullRequestReviewer reviewer = PullRequestReviewer.builder()
-                .pullRequestId("pr1")
-                .reviewerId("reviewer1")
+                .pullRequest(pullRequest)
+                .reviewer(reviewer1)
                 .build();
         pullRequest.getReviewers().add(reviewer);
 
         when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
-        when(pullRequestReviewerRepository.existsByPullRequestIdAndReviewerId("pr1", "reviewer1"))
+        when(pullRequestReviewerRepository.existsOpenByPullRequestIdAndReviewerId("pr1", "reviewer1"))
                 .thenReturn(true);
         when(userRepository.findById("reviewer1")).thenReturn(Optional.of(reviewer1));
-        when(userRepository.findActiveTeamMembersExcludingUser("reviewer1"))
-                .thenReturn(List.of(reviewer2));
-        doNothing().when(pullRequestReviewerRepository).deleteByPullRequestIdAndReviewerId("pr1", "reviewer1");
-        when(pullRequestReviewerRepository.save(any(PullRequestReviewer.class)))
-                .thenReturn(new PullRequestReviewer());
-        when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
+        when(teamRosterService.getActiveMemberIds("TestTeam"))
+                .thenReturn(List.of("author1", "reviewer1", "reviewer2"));
+        when(reviewerAssignmentPolicy.selectReviewers(eq(List.of("author1", "reviewer1", "reviewer2")), eq(1), anyCollection()))
+                .thenReturn(List.of("reviewer2"));
+        doNothing().when(pullRequestReviewerRepository).deleteOpenByPullRequestIdAndReviewerId("pr1", "reviewer1");
 
         PullRequestResponse prResponse = new PullRequestResponse(
                 "pr1",
@@ -331,12 +439,22 @@ class PullRequestServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.replacedBy()).isEqualTo("reviewer2");
-        verify(pullRequestRepository, times(2)).findByIdWithReviewers("pr1");
-        verify(pullRequestReviewerRepository).existsByPullRequestIdAndReviewerId("pr1", "reviewer1");
+        verify(pullRequestRepository).lockAllById(List.of("pr1"));
+        verify(pullRequestRepository).findByIdWithReviewers("pr1");
+        verify(pullRequestReviewerRepository).existsOpenByPullRequestIdAndReviewerId("pr1", "reviewer1");
         verify(userRepository).findById("reviewer1");
-        verify(userRepository).findActiveTeamMembersExcludingUser("reviewer1");
-        verify(pullRequestReviewerRepository).deleteByPullRequestIdAndReviewerId("pr1", "reviewer1");
-        verify(pullRequestReviewerRepository).save(any(PullRequestReviewer.class));
+        verify(reviewerAssignmentPolicy).selectReviewers(
+                List.of("author1", "reviewer1", "reviewer2"), 1, Set.of("reviewer1", "author1"));
+        verify(pullRequestReviewerRepository).deleteOpenByPullRequestIdAndReviewerId("pr1", "reviewer1");
+        verify(pullRequestRepository).insertReviewers(argThat(assignments -> assignments.size() == 1
+                && assignments.get(0).getReviewerId().equals("reviewer2")));
+        assertThat(pullRequest.getAssignedReviewerIds()).containsExactly("reviewer2");
+        verify(reviewLoadService).onReviewersReleased(List.of("reviewer1"));
+        verify(reviewLoadService).onReviewersAssigned(List.of("reviewer2"));
+        verify(assignmentStatisticsService).onAssignmentsDeleted(argThat(assignments -> assignments.stream()
+                .allMatch(assignment -> assignment.getReviewerId().equals("reviewer1"))));
+        verify(assignmentStatisticsService).onAssignmentsCreated(argThat(assignments -> assignments.stream()
+                .allMatch(assignment -> assignment.getReviewerId().equals("reviewer2"))));
     }
 
     @Test
@@ -348,37 +466,78 @@ class PullRequestServiceImplTest {
         assertThatThrownBy(() -> pullRequestService.reassignReviewer(reassignRequest))
                 .isInstanceOf(PrMergedException.class);
         verify(pullRequestRepository).findByIdWithReviewers("pr1");
-        verify(pullRequestReviewerRepository, never()).deleteByPullRequestIdAndReviewerId(anyString(), anyString());
+        verify(pullRequestReviewerRepository, never()).deleteOpenByPullRequestIdAndReviewerId(anyString(), anyString());
     }
 
     @Test
     @DisplayName("Переназначение не назначенного ревьювера должно выбрасывать исключение")
     void reassignReviewer_NotAssigned_ThrowsException() {
         when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
-        when(pullRequestReviewerRepository.existsByPullRequestIdAndReviewerId("pr1", "reviewer1"))
+        when(pullRequestReviewerRepository.existsOpenByPullRequestIdAndReviewerId("pr1", "reviewer1"))
                 .thenReturn(false);
 
         assertThatThrownBy(() -> pullRequestService.reassignReviewer(reassignRequest))
                 .isInstanceOf(NotAssignedException.class);
         verify(pullRequestRepository).findByIdWithReviewers("pr1");
-        verify(pullRequestReviewerRepository).existsByPullRequestIdAndReviewerId("pr1", "reviewer1");
-        verify(pullRequestReviewerRepository, never()).deleteByPullRequestIdAndReviewerId(anyString(), anyString());
+        verify(pullRequestReviewerRepository).existsOpenByPullRequestIdAndReviewerId("pr1", "reviewer1");
+        verify(pullRequestReviewerRepository, never()).deleteOpenByPullRequestIdAndReviewerId(anyString(), anyString());
     }
 
     @Test
     @DisplayName("Переназначение ревьювера без доступных кандидатов должно выбрасывать исключение")
     void reassignReviewer_NoCandidates_ThrowsException() {
         when(pullRequestRepository.findByIdWithReviewers("pr1")).thenReturn(Optional.of(pullRequest));
-        when(pullRequestReviewerRepository.existsByPullRequestIdAndReviewerId("pr1", "reviewer1"))
+        when(pullRequestReviewerRepository.existsOpenByPullRequestIdAndReviewerId("pr1", "reviewer1"))
                 .thenReturn(true);
         when(userRepository.findById("reviewer1")).thenReturn(Optional.of(reviewer1));
-        when(userRepository.findActiveTeamMembersExcludingUser("reviewer1"))
+        when(teamRosterService.getActiveMemberIds("TestTeam")).thenReturn(List.of("author1", "reviewer1"));
+        when(reviewerAssignmentPolicy.selectReviewers(eq(List.of("author1", "reviewer1")), eq(1), anyCollection()))
                 .thenReturn(List.of());
 
         assertThatThrownBy(() -> pullRequestService.reassignReviewer(reassignRequest))
                 .isInstanceOf(NoCandidateException.class);
-        verify(userRepository).findActiveTeamMembersExcludingUser("reviewer1");
-        verify(pullRequestReviewerRepository, never()).deleteByPullRequestIdAndReviewerId(anyString(), anyString());
+        verify(reviewerAssignmentPolicy).selectReviewers(eq(List.of("author1", "reviewer1")), eq(1), anyCollection());
+        verify(pullRequestReviewerRepository, never()).deleteOpenByPullRequestIdAndReviewerId(anyString(), anyString());
+    }
+
+    private static PullRequestCreationProjection creation(boolean isActive, boolean inserted) {
+        return creation(false, "author1", isActive, inserted);
     }
-}
 
+    private static PullRequestCreationProjection creation(boolean pullRequestExists, String authorId,
+                                                          boolean isActive, boolean inserted) {
+        PullRequestCreationProjection projection = mock(PullRequestCreationProjection.class);
+        when(projection.getPullRequestExists()).thenReturn(pullRequestExists);
+        lenient().when(projection.getAuthorId()).thenReturn(authorId);
+        lenient().when(projection.getTeamName()).thenReturn("TestTeam");
+        lenient().when(projection.getIsActive()).thenReturn(isActive);
+        lenient().when(projection.getInserted()).thenReturn(inserted);
+        return projection;
+    }
+
+    private static PullRequestMergeProjection mergeRow(boolean mergedNow, LocalDateTime mergedAt, String reviewerId) {
+        return mergeRow("pr1", mergedNow, mergedAt, reviewerId);
+    }
+
+    private static PullRequestMergeProjection mergeRow(String id, boolean mergedNow, LocalDateTime mergedAt,
+                                                       String reviewerId) {
+        PullRequestMergeProjection projection = mock(PullRequestMergeProjection.class);
+        lenient().when(projection.getId()).thenReturn(id);
+        lenient().when(projection.getPullRequestName()).thenReturn(id.toUpperCase());
+        lenient().when(projection.getAuthorId()).thenReturn("author1");
+        lenient().when(projection.getAuthorTeamName()).thenReturn("TestTeam");
+        lenient().when(projection.getCreatedAt()).thenReturn(mergedAt.minusHours(1));
+        lenient().when(projection.getMergedAt()).thenReturn(mergedAt);
+        lenient().when(projection.getMergedNow()).thenReturn(mergedNow);
+        when(projection.getReviewerId()).thenReturn(reviewerId);
+        return projection;
+    }
+
+    private static UserMembershipProjection membership(String id, boolean isActive) {
+        UserMembershipProjection projection = mock(UserMembershipProjection.class);
+        when(projection.getId()).thenReturn(id);
+        lenient().when(projection.getTeamName()).thenReturn("TestTeam");
+        when(projection.getIsActive()).thenReturn(isActive);
+        return projection;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тесты для {@link RandomReviewerAssignmentPolicy}.
+ *
+ * @author Iakov Lysenko
+ */
+@DisplayName("Тесты для RandomReviewerAssignmentPolicy")
+class RandomReviewerAssignmentPolicyTest {
+
+    private final RandomReviewerAssignmentPolicy policy = new RandomReviewerAssignmentPolicy();
+
+    @Test
+    @DisplayName("Выбор не возвращает исключенных кандидатов и не превышает лимит")
+    void selectReviewers_RespectsExclusionsAndLimit() {
+        List<String> candidates = List.of("author1", "user1", "user2", "user3", "user4");
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            List<String> result = policy.selectReviewers(candidates, 2, Set.of("author1", "user4"));
+            assertThat(result).hasSize(2).doesNotHaveDuplicates().doesNotContain("author1", "user4");
+            picked.addAll(result);
+        }
+        assertThat(picked).containsExactlyInAnyOrder("user1", "user2", "user3");
+    }
+
+    @Test
+    @DisplayName("При недостатке кандидатов возвращаются все доступные")
+    void selectReviewers_NotEnoughCandidates() {
+        List<String> candidates = List.of("author1", "user1");
+
+        assertThat(policy.selectReviewers(candidates, 2, List.of("author1"))).containsExactly("user1");
+        assertThat(policy.selectReviewers(candidates, 2, List.of("author1", "user1"))).isEmpty();
+        assertThat(policy.selectReviewers(List.of(), 2, List.of())).isEmpty();
+    }
+}
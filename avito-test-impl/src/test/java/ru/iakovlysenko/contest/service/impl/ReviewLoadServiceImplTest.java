@@ -0,0 +1,98 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit тесты для {@link ReviewLoadServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для ReviewLoadServiceImpl")
+class ReviewLoadServiceImplTest {
+
+    @Mock
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Mock
+    private ReviewerAssignmentCountProjection projection;
+
+    @InjectMocks
+    private ReviewLoadServiceImpl reviewLoadService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Счетчики инициализируются количеством открытых назначений из базы")
+    void loadOpenReviews_Success() {
+        when(projection.getReviewerId()).thenReturn("user1");
+        when(projection.getAssignmentsCount()).thenReturn(3L);
+        when(pullRequestReviewerRepository.countAssignmentsPerReviewerByStatus(PrStatus.OPEN))
+                .thenReturn(List.of(projection));
+
+        reviewLoadService.loadOpenReviews();
+
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isEqualTo(3L);
+        assertThat(reviewLoadService.getOpenReviewsCount("user2")).isZero();
+    }
+
+    @Test
+    @DisplayName("Назначение и освобождение ревьюверов изменяют счетчики")
+    void assignAndRelease_UpdateCounters() {
+        reviewLoadService.onReviewersAssigned(List.of("user1", "user2"));
+        reviewLoadService.onReviewersAssigned(List.of("user1"));
+        reviewLoadService.onReviewersReleased(List.of("user2"));
+        reviewLoadService.onReviewersReleased(List.of("user3"));
+
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isEqualTo(2L);
+        assertThat(reviewLoadService.getOpenReviewsCount("user2")).isZero();
+        assertThat(reviewLoadService.getOpenReviewsCount("user3")).isZero();
+    }
+
+    @Test
+    @DisplayName("Назначение внутри транзакции учитывается сразу и отменяется при откате")
+    void onReviewersAssigned_CompensatedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        reviewLoadService.onReviewersAssigned(List.of("user1"));
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isEqualTo(1L);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isZero();
+    }
+
+    @Test
+    @DisplayName("Освобождение внутри транзакции применяется только после коммита")
+    void onReviewersReleased_AppliedAfterCommit() {
+        reviewLoadService.onReviewersAssigned(List.of("user1"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        reviewLoadService.onReviewersReleased(List.of("user1"));
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isEqualTo(1L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(reviewLoadService.getOpenReviewsCount("user1")).isZero();
+    }
+}
@@ -0,0 +1,157 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
+import ru.iakovlysenko.contest.entity.PullRequestReviewer;
+import ru.iakovlysenko.contest.projection.OpenReviewAssignmentProjection;
+import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.ReviewLoadService;
+import ru.iakovlysenko.contest.service.ReviewerAssignmentPolicy;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link ReviewReassignmentServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для ReviewReassignmentServiceImpl")
+class ReviewReassignmentServiceImplTest {
+
+    @Mock
+    private PullRequestRepository pullRequestRepository;
+
+    @Mock
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Mock
+    private TeamRosterService teamRosterService;
+
+    @Mock
+    private ReviewerAssignmentPolicy reviewerAssignmentPolicy;
+
+    @Mock
+    private ReviewLoadService reviewLoadService;
+
+    @Mock
+    private AssignmentStatisticsService assignmentStatisticsService;
+
+    @InjectMocks
+    private ReviewReassignmentServiceImpl reviewReassignmentService;
+
+    @Test
+    @DisplayName("Открытые ревью переназначаются пакетно, а без кандидата пользователь снимается с PR")
+    void reassignOpenReviews_ReassignsAndUnassigns() {
+        List<OpenReviewAssignmentProjection> assignments = List.of(
+                assignment("pr1", "author1", "user1"),
+                assignment("pr1", "author1", "user2"),
+                assignment("pr2", "author2", "user1")
+        );
+        when(pullRequestReviewerRepository.lockOpenPullRequestIdsByReviewerIds(Set.of("user1")))
+                .thenReturn(List.of("pr1", "pr2"));
+        when(pullRequestReviewerRepository.findOpenAssignmentsByPullRequestIds(List.of("pr1", "pr2")))
+                .thenReturn(assignments);
+        when(teamRosterService.getActiveMemberIds("TestTeam"))
+                .thenReturn(List.of("author1", "user1", "user2", "user3"));
+        when(reviewerAssignmentPolicy.selectReviewers(anyList(), eq(1), anyCollection()))
+                .thenAnswer(invocation -> {
+                    List<String> candidates = invocation.getArgument(0);
+                    Collection<String> excluded = invocation.getArgument(2);
+                    return candidates.stream().filter(id -> !excluded.contains(id)).limit(1).toList();
+                })
+                .thenReturn(List.of());
+        when(pullRequestReviewerRepository.deleteOpenByReviewerIdsAndPullRequestIds(Set.of("user1"), Set.of("pr1", "pr2")))
+                .thenReturn(2);
+
+        ReviewReassignmentResponse result = reviewReassignmentService.reassignOpenReviews(List.of("user1"));
+
+        assertThat(result.reassigned()).containsExactly(new ReviewReassignmentResponse.Item("pr1", "user1", "user3"));
+        assertThat(result.unassigned()).containsExactly(new ReviewReassignmentResponse.Item("pr2", "user1", null));
+
+        verify(reviewerAssignmentPolicy).selectReviewers(anyList(), eq(1),
+                argThat(excluded -> excluded.containsAll(List.of("author1", "user1", "user2"))));
+        verify(pullRequestReviewerRepository).deleteOpenByReviewerIdsAndPullRequestIds(Set.of("user1"), Set.of("pr1", "pr2"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PullRequestReviewer>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(pullRequestRepository).insertReviewers(inserted.capture());
+        assertThat(inserted.getValue())
+                .extracting(PullRequestReviewer::getPullRequestId, PullRequestReviewer::getReviewerId)
+                .containsExactly(tuple("pr1", "user3"));
+        assertThat(inserted.getValue().get(0).getCreatedAt()).isNotNull();
+
+        verify(reviewLoadService).onReviewersAssigned(List.of("user3"));
+        verify(reviewLoadService).onReviewersReleased(List.of("user1", "user1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PullRequestReviewer>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(assignmentStatisticsService).onAssignmentsDeleted(deleted.capture());
+        assertThat(deleted.getValue())
+                .extracting(PullRequestReviewer::getPullRequestId, PullRequestReviewer::getReviewerId)
+                .containsExactly(tuple("pr1", "user1"), tuple("pr2", "user1"));
+        verify(assignmentStatisticsService).onAssignmentsCreated(inserted.getValue());
+    }
+
+    @Test
+    @DisplayName("Расхождение количества удаленных и прочитанных назначений откатывает переназначение")
+    void reassignOpenReviews_DeletedCountMismatch_Throws() {
+        List<OpenReviewAssignmentProjection> assignments = List.of(assignment("pr1", "author1", "user1"));
+        when(pullRequestReviewerRepository.lockOpenPullRequestIdsByReviewerIds(Set.of("user1")))
+                .thenReturn(List.of("pr1"));
+        when(pullRequestReviewerRepository.findOpenAssignmentsByPullRequestIds(List.of("pr1")))
+                .thenReturn(assignments);
+        when(teamRosterService.getActiveMemberIds("TestTeam")).thenReturn(List.of("author1", "user1"));
+        when(reviewerAssignmentPolicy.selectReviewers(anyList(), eq(1), anyCollection())).thenReturn(List.of());
+        when(pullRequestReviewerRepository.deleteOpenByReviewerIdsAndPullRequestIds(Set.of("user1"), Set.of("pr1")))
+                .thenReturn(2);
+
+        assertThatThrownBy(() -> reviewReassignmentService.reassignOpenReviews(List.of("user1")))
+                .isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(pullRequestRepository, assignmentStatisticsService);
+        verify(reviewLoadService, never()).onReviewersReleased(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Без открытых ревью ничего не изменяется")
+    void reassignOpenReviews_NoOpenReviews() {
+        when(pullRequestReviewerRepository.lockOpenPullRequestIdsByReviewerIds(Set.of("user1")))
+                .thenReturn(List.of());
+
+        ReviewReassignmentResponse result = reviewReassignmentService.reassignOpenReviews(List.of("user1"));
+
+        assertThat(result.reassigned()).isEmpty();
+        assertThat(result.unassigned()).isEmpty();
+        verifyNoMoreInteractions(pullRequestReviewerRepository);
+        verifyNoInteractions(pullRequestRepository, reviewLoadService, reviewerAssignmentPolicy, assignmentStatisticsService);
+    }
+
+    private static OpenReviewAssignmentProjection assignment(String pullRequestId, String authorId, String reviewerId) {
+        OpenReviewAssignmentProjection projection = mock(OpenReviewAssignmentProjection.class);
+        when(projection.getPullRequestId()).thenReturn(pullRequestId);
+        lenient().when(projection.getAuthorId()).thenReturn(authorId);
+        when(projection.getReviewerId()).thenReturn(reviewerId);
+        lenient().when(projection.getReviewerTeamName()).thenReturn("TestTeam");
+        return projection;
+    }
+}
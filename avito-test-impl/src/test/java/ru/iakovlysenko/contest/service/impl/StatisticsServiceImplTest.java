@@ -1,20 +1,46 @@
 package ru.iakovlysenko.contest.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.Limit;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.dto.enums.TimeseriesGranularity;
+import ru.iakovlysenko.contest.dto.response.MergeLatencyResponse;
 import ru.iakovlysenko.contest.dto.response.StatisticsResponse;
+import ru.iakovlysenko.contest.dto.response.StatisticsSnapshot;
+import ru.iakovlysenko.contest.dto.response.StatisticsTimeseriesResponse;
+import ru.iakovlysenko.contest.dto.response.TeamStatisticsResponse;
+import ru.iakovlysenko.contest.exception.InvalidCursorException;
+import ru.iakovlysenko.contest.exception.InvalidRangeException;
+import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.projection.PullRequestReviewersCountProjection;
 import ru.iakovlysenko.contest.projection.ReviewerAssignmentCountProjection;
+import ru.iakovlysenko.contest.projection.ReviewerAssignmentsPeriodProjection;
+import ru.iakovlysenko.contest.projection.TeamStatisticsProjection;
 import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
-
+import ru.iakovlysenko.contest.repository.ReviewerAssignmentsDailyRepository;
+import ru.iakovlysenko.contest.repository.TeamRepository;
+import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.AssignmentStatisticsService;
+import ru.iakovlysenko.contest.service.MergeLatencyService;
+import ru.iakovlysenko.contest.util.LatencyHistogram;
+import ru.iakovlysenko.contest.util.PullRequestCursor;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
 
 /**
  * Unit тесты для {@link StatisticsServiceImpl}.
@@ -26,19 +52,25 @@ import static org.mockito.Mockito.when;
 class StatisticsServiceImplTest {
 
     @Mock
-    private PullRequestReviewerRepository pullRequestReviewerRepository;
+    private AssignmentStatisticsService assignmentStatisticsService;
 
     @Mock
-    private ReviewerAssignmentCountProjection assignmentProjection1;
+    private MergeLatencyService mergeLatencyService;
+
+    @Mock
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
 
     @Mock
-    private ReviewerAssignmentCountProjection assignmentProjection2;
+    private TeamRepository teamRepository;
 
     @Mock
-    private PullRequestReviewersCountProjection reviewersProjection1;
+    private UserRepository userRepository;
 
     @Mock
-    private PullRequestReviewersCountProjection reviewersProjection2;
+    private ReviewerAssignmentsDailyRepository reviewerAssignmentsDailyRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private StatisticsServiceImpl statisticsService;
@@ -46,20 +78,11 @@ class StatisticsServiceImplTest {
     @Test
     @DisplayName("Успешное получение статистики с данными")
     void getStatistics_Success() {
-        when(assignmentProjection1.getReviewerId()).thenReturn("user1");
-        when(assignmentProjection1.getAssignmentsCount()).thenReturn(5L);
-        when(assignmentProjection2.getReviewerId()).thenReturn("user2");
-        when(assignmentProjection2.getAssignmentsCount()).thenReturn(3L);
-        when(reviewersProjection1.getPullRequestId()).thenReturn("pr1");
-        when(reviewersProjection1.getReviewersCount()).thenReturn(2L);
-        when(reviewersProjection2.getPullRequestId()).thenReturn("pr2");
-        when(reviewersProjection2.getReviewersCount()).thenReturn(1L);
-
-        when(pullRequestReviewerRepository.countAssignmentsPerReviewer())
-                .thenReturn(List.of(assignmentProjection1, assignmentProjection2));
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
+                .thenReturn(orderedMap("user1", 5L, "user2", 3L));
 
-        when(pullRequestReviewerRepository.countReviewersPerPullRequest())
-                .thenReturn(List.of(reviewersProjection1, reviewersProjection2));
+        when(assignmentStatisticsService.getReviewersByPullRequest())
+                .thenReturn(orderedMap("pr1", 2L, "pr2", 1L));
 
         StatisticsResponse result = statisticsService.getStatistics();
 
@@ -87,11 +110,11 @@ class StatisticsServiceImplTest {
     @Test
     @DisplayName("Получение статистики с пустыми данными")
     void getStatistics_EmptyData_Success() {
-        when(pullRequestReviewerRepository.countAssignmentsPerReviewer())
-                .thenReturn(List.of());
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
+                .thenReturn(Map.of());
 
-        when(pullRequestReviewerRepository.countReviewersPerPullRequest())
-                .thenReturn(List.of());
+        when(assignmentStatisticsService.getReviewersByPullRequest())
+                .thenReturn(Map.of());
 
         StatisticsResponse result = statisticsService.getStatistics();
 
@@ -103,14 +126,11 @@ class StatisticsServiceImplTest {
     @Test
     @DisplayName("Получение статистики с одним назначением по пользователю")
     void getStatistics_SingleAssignment_Success() {
-        when(assignmentProjection1.getReviewerId()).thenReturn("user1");
-        when(assignmentProjection1.getAssignmentsCount()).thenReturn(5L);
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
+                .thenReturn(Map.of("user1", 5L));
 
-        when(pullRequestReviewerRepository.countAssignmentsPerReviewer())
-                .thenReturn(List.of(assignmentProjection1));
-
-        when(pullRequestReviewerRepository.countReviewersPerPullRequest())
-                .thenReturn(List.of());
+        when(assignmentStatisticsService.getReviewersByPullRequest())
+                .thenReturn(Map.of());
 
         StatisticsResponse result = statisticsService.getStatistics();
 
@@ -126,14 +146,11 @@ class StatisticsServiceImplTest {
     @Test
     @DisplayName("Получение статистики с одним количеством ревьюверов по PR")
     void getStatistics_SingleReviewersCount_Success() {
-        when(reviewersProjection1.getPullRequestId()).thenReturn("pr1");
-        when(reviewersProjection1.getReviewersCount()).thenReturn(2L);
-
-        when(pullRequestReviewerRepository.countAssignmentsPerReviewer())
-                .thenReturn(List.of());
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
+                .thenReturn(Map.of());
 
-        when(pullRequestReviewerRepository.countReviewersPerPullRequest())
-                .thenReturn(List.of(reviewersProjection1));
+        when(assignmentStatisticsService.getReviewersByPullRequest())
+                .thenReturn(Map.of("pr1", 2L));
 
         StatisticsResponse result = statisticsService.getStatistics();
 
@@ -149,27 +166,16 @@ class StatisticsServiceImplTest {
     @Test
     @DisplayName("Получение статистики с большим количеством данных")
     void getStatistics_LargeDataSet_Success() {
-        when(assignmentProjection1.getReviewerId()).thenReturn("user1");
-        when(assignmentProjection1.getAssignmentsCount()).thenReturn(5L);
-        when(assignmentProjection2.getReviewerId()).thenReturn("user2");
-        when(assignmentProjection2.getAssignmentsCount()).thenReturn(3L);
-        when(reviewersProjection1.getPullRequestId()).thenReturn("pr1");
-        when(reviewersProjection1.getReviewersCount()).thenReturn(2L);
-        when(reviewersProjection2.getPullRequestId()).thenReturn("pr2");
-        when(reviewersProjection2.getReviewersCount()).thenReturn(1L);
-
-        List<ReviewerAssignmentCountProjection> manyAssignments = List.of(
-                assignmentProjection1, assignmentProjection2, assignmentProjection1, assignmentProjection2
-        );
+        Map<String, Long> manyAssignments = new LinkedHashMap<>();
+        IntStream.range(0, 4).forEach(i -> manyAssignments.put("user" + i, (long) i + 1));
 
-        List<PullRequestReviewersCountProjection> manyReviewers = List.of(
-                reviewersProjection1, reviewersProjection2, reviewersProjection1
-        );
+        Map<String, Long> manyReviewers = new LinkedHashMap<>();
+        IntStream.range(0, 3).forEach(i -> manyReviewers.put("pr" + i, 2L));
 
-        when(pullRequestReviewerRepository.countAssignmentsPerReviewer())
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
                 .thenReturn(manyAssignments);
 
-        when(pullRequestReviewerRepository.countReviewersPerPullRequest())
+        when(assignmentStatisticsService.getReviewersByPullRequest())
                 .thenReturn(manyReviewers);
 
         StatisticsResponse result = statisticsService.getStatistics();
@@ -179,4 +185,260 @@ class StatisticsServiceImplTest {
         assertThat(result.reviewersPerPullRequest()).hasSize(3);
     }
 
+    @Test
+    @DisplayName("Снимок рассчитывается один раз и содержит готовый JSON")
+    void getSnapshot_ComputedOnceWithJson() throws Exception {
+        when(assignmentStatisticsService.getAssignmentsByReviewer()).thenReturn(Map.of("user1", 5L));
+        when(assignmentStatisticsService.getReviewersByPullRequest()).thenReturn(Map.of("pr1", 2L));
+
+        StatisticsSnapshot first = statisticsService.getSnapshot();
+        StatisticsSnapshot second = statisticsService.getSnapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(objectMapper.readValue(first.json(), StatisticsResponse.class)).isEqualTo(first.statistics());
+        assertThat(first.statistics().assignmentsByUser())
+                .containsExactly(new StatisticsResponse.UserAssignmentsStatistic("user1", 5L));
+        verify(assignmentStatisticsService, times(1)).getAssignmentsByReviewer();
+    }
+
+    @Test
+    @DisplayName("Пересчет подменяет снимок новыми значениями счетчиков")
+    void refreshSnapshot_SwapsSnapshot() {
+        when(assignmentStatisticsService.getAssignmentsByReviewer())
+                .thenReturn(Map.of("user1", 5L))
+                .thenReturn(Map.of("user1", 6L));
+        when(assignmentStatisticsService.getReviewersByPullRequest()).thenReturn(Map.of());
+
+        StatisticsSnapshot initial = statisticsService.getSnapshot();
+        StatisticsSnapshot refreshed = statisticsService.refreshSnapshot();
+
+        assertThat(refreshed).isNotSameAs(initial);
+        assertThat(statisticsService.getSnapshot()).isSameAs(refreshed);
+        assertThat(refreshed.statistics().assignmentsByUser())
+                .containsExactly(new StatisticsResponse.UserAssignmentsStatistic("user1", 6L));
+    }
+
+    @Test
+    @DisplayName("Выборка по команде ограничивает топ и страницу PR запросами к базе")
+    void getStatistics_TeamTopAndPage() {
+        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(true);
+        List<ReviewerAssignmentCountProjection> topReviewers = List.of(reviewerCount("user1", 5L));
+        when(pullRequestReviewerRepository.findTopReviewersByAssignmentsInTeam("TestTeam", Limit.of(1)))
+                .thenReturn(topReviewers);
+        List<PullRequestReviewersCountProjection> page = List.of(
+                pullRequestCount("pr2", 2L),
+                pullRequestCount("pr3", 1L),
+                pullRequestCount("pr4", 2L)
+        );
+        when(pullRequestReviewerRepository.findReviewersPerPullRequestPageInTeam("TestTeam", "pr1", Limit.of(3)))
+                .thenReturn(page);
+
+        StatisticsResponse result = statisticsService.getStatistics(
+                "TestTeam", 1, 2, new PullRequestCursor("pr1").encode());
+
+        assertThat(result.assignmentsByUser())
+                .containsExactly(new StatisticsResponse.UserAssignmentsStatistic("user1", 5L));
+        assertThat(result.reviewersPerPullRequest()).containsExactly(
+                new StatisticsResponse.PullRequestReviewersStatistic("pr2", 2L),
+                new StatisticsResponse.PullRequestReviewersStatistic("pr3", 1L));
+        assertThat(PullRequestCursor.decode(result.nextCursor())).isEqualTo(new PullRequestCursor("pr3"));
+        verifyNoInteractions(assignmentStatisticsService);
+    }
+
+    @Test
+    @DisplayName("Последняя страница PR возвращается без курсора, топ на первой странице ограничен размером по умолчанию")
+    void getStatistics_LastPageWithoutCursor() {
+        when(pullRequestReviewerRepository.findTopReviewersByAssignments(Limit.of(10))).thenReturn(List.of());
+        List<PullRequestReviewersCountProjection> page = List.of(pullRequestCount("pr1", 2L));
+        when(pullRequestReviewerRepository.findReviewersPerPullRequestPage("", Limit.of(101))).thenReturn(page);
+
+        StatisticsResponse result = statisticsService.getStatistics(null, null, null, null);
+
+        assertThat(result.reviewersPerPullRequest()).hasSize(1);
+        assertThat(result.nextCursor()).isNull();
+        verifyNoInteractions(teamRepository);
+    }
+
+    @Test
+    @DisplayName("Следующая страница PR без явного топа не считает назначения по пользователям")
+    void getStatistics_NextPageWithoutTop_SkipsTopReviewers() {
+        List<PullRequestReviewersCountProjection> page = List.of(pullRequestCount("pr2", 1L));
+        when(pullRequestReviewerRepository.findReviewersPerPullRequestPage("pr1", Limit.of(11))).thenReturn(page);
+
+        StatisticsResponse result = statisticsService.getStatistics(null, null, 10, new PullRequestCursor("pr1").encode());
+
+        assertThat(result.assignmentsByUser()).isEmpty();
+        assertThat(result.reviewersPerPullRequest())
+                .containsExactly(new StatisticsResponse.PullRequestReviewersStatistic("pr2", 1L));
+        verify(pullRequestReviewerRepository, never()).findTopReviewersByAssignments(any());
+        verify(pullRequestReviewerRepository, never()).findTopReviewersByAssignmentsInTeam(any(), any());
+    }
+
+    @Test
+    @DisplayName("Выборка по несуществующей команде должна выбрасывать исключение")
+    void getStatistics_TeamNotFound_ThrowsException() {
+        when(teamRepository.existsByTeamName("Unknown")).thenReturn(false);
+
+        assertThatThrownBy(() -> statisticsService.getStatistics("Unknown", 5, null, null))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(pullRequestReviewerRepository);
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор страницы PR должен выбрасывать исключение")
+    void getStatistics_InvalidCursor_ThrowsException() {
+        assertThatThrownBy(() -> statisticsService.getStatistics(null, null, 10, "%%%"))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(pullRequestReviewerRepository, teamRepository);
+    }
+
+    @Test
+    @DisplayName("Временной ряд по неделям собирается из дневной свертки")
+    void getAssignmentsTimeseries_Weeks() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        List<ReviewerAssignmentsPeriodProjection> periods = List.of(
+                period("user1", LocalDate.of(2024, 12, 30), 2L),
+                period("user2", LocalDate.of(2025, 1, 6), 5L)
+        );
+        when(reviewerAssignmentsDailyRepository.sumAssignmentsByPeriod("week", from, to)).thenReturn(periods);
+
+        StatisticsTimeseriesResponse result = statisticsService.getAssignmentsTimeseries(
+                from, to, TimeseriesGranularity.WEEK, null);
+
+        assertThat(result.granularity()).isEqualTo(TimeseriesGranularity.WEEK);
+        assertThat(result.points()).containsExactly(
+                new StatisticsTimeseriesResponse.Point("user1", LocalDate.of(2024, 12, 30), 2L),
+                new StatisticsTimeseriesResponse.Point("user2", LocalDate.of(2025, 1, 6), 5L)
+        );
+        verifyNoInteractions(userRepository, pullRequestReviewerRepository);
+    }
+
+    @Test
+    @DisplayName("Временной ряд одного ревьювера запрашивается по его идентификатору")
+    void getAssignmentsTimeseries_Reviewer() {
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        List<ReviewerAssignmentsPeriodProjection> periods = List.of(period("user1", day, 3L));
+        when(userRepository.existsById("user1")).thenReturn(true);
+        when(reviewerAssignmentsDailyRepository.sumReviewerAssignmentsByPeriod("user1", "day", day, day))
+                .thenReturn(periods);
+
+        StatisticsTimeseriesResponse result = statisticsService.getAssignmentsTimeseries(
+                day, day, TimeseriesGranularity.DAY, "user1");
+
+        assertThat(result.points()).containsExactly(new StatisticsTimeseriesResponse.Point("user1", day, 3L));
+    }
+
+    @Test
+    @DisplayName("Некорректный диапазон дат должен выбрасывать исключение")
+    void getAssignmentsTimeseries_InvalidRange_ThrowsException() {
+        LocalDate day = LocalDate.of(2025, 1, 10);
+
+        assertThatThrownBy(() -> statisticsService.getAssignmentsTimeseries(
+                day, day.minusDays(1), TimeseriesGranularity.DAY, null))
+                .isInstanceOf(InvalidRangeException.class);
+        assertThatThrownBy(() -> statisticsService.getAssignmentsTimeseries(
+                day, day.plusDays(366), TimeseriesGranularity.DAY, null))
+                .isInstanceOf(InvalidRangeException.class);
+        verifyNoInteractions(reviewerAssignmentsDailyRepository);
+    }
+
+    @Test
+    @DisplayName("Временной ряд несуществующего пользователя должен выбрасывать исключение")
+    void getAssignmentsTimeseries_UserNotFound_ThrowsException() {
+        LocalDate day = LocalDate.of(2025, 1, 10);
+        when(userRepository.existsById("unknown")).thenReturn(false);
+
+        assertThatThrownBy(() -> statisticsService.getAssignmentsTimeseries(
+                day, day, TimeseriesGranularity.DAY, "unknown"))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(reviewerAssignmentsDailyRepository);
+    }
+
+    @Test
+    @DisplayName("Процентили времени до слияния считаются по гистограммам команд без запросов к базе")
+    void getMergeLatency_Success() {
+        LatencyHistogram backend = new LatencyHistogram();
+        for (long millis = 1; millis <= 100; millis++) {
+            backend.recordMillis(millis);
+        }
+        LatencyHistogram android = new LatencyHistogram();
+        android.recordMillis(42);
+        when(mergeLatencyService.getHistograms()).thenReturn(Map.of("backend", backend, "android", android));
+
+        MergeLatencyResponse result = statisticsService.getMergeLatency();
+
+        assertThat(result.teams()).containsExactly(
+                new MergeLatencyResponse.TeamMergeLatency("android", 1L, 42L, 42L, 42L),
+                new MergeLatencyResponse.TeamMergeLatency("backend", 100L, 50L, 90L, 99L)
+        );
+        verifyNoInteractions(pullRequestReviewerRepository, reviewerAssignmentsDailyRepository);
+    }
+
+    @Test
+    @DisplayName("Статистика по командам строится из одного агрегирующего запроса, средние считаются по счетчикам")
+    void getTeamStatistics_Success() {
+        TeamStatisticsProjection backend = mock(TeamStatisticsProjection.class);
+        when(backend.getTeamName()).thenReturn("backend");
+        when(backend.getMembersCount()).thenReturn(4L);
+        when(backend.getOpenPullRequestsCount()).thenReturn(2L);
+        when(backend.getPullRequestsCount()).thenReturn(3L);
+        when(backend.getAssignmentsCount()).thenReturn(6L);
+        when(backend.getPullRequestReviewersCount()).thenReturn(5L);
+        TeamStatisticsProjection empty = mock(TeamStatisticsProjection.class);
+        when(empty.getTeamName()).thenReturn("empty");
+        when(empty.getMembersCount()).thenReturn(0L);
+        when(empty.getOpenPullRequestsCount()).thenReturn(0L);
+        when(empty.getPullRequestsCount()).thenReturn(0L);
+        when(empty.getAssignmentsCount()).thenReturn(0L);
+        when(empty.getPullRequestReviewersCount()).thenReturn(0L);
+        when(teamRepository.getTeamStatistics()).thenReturn(List.of(backend, empty));
+
+        TeamStatisticsResponse result = statisticsService.getTeamStatistics();
+
+        assertThat(result.teams()).hasSize(2);
+        TeamStatisticsResponse.TeamStatistic backendStatistic = result.teams().get(0);
+        assertThat(backendStatistic.teamName()).isEqualTo("backend");
+        assertThat(backendStatistic.membersCount()).isEqualTo(4L);
+        assertThat(backendStatistic.openPullRequestsCount()).isEqualTo(2L);
+        assertThat(backendStatistic.assignmentsCount()).isEqualTo(6L);
+        assertThat(backendStatistic.assignmentsPerMember()).isEqualTo(1.5);
+        assertThat(backendStatistic.averageReviewersPerPullRequest()).isCloseTo(5.0 / 3, within(1e-9));
+        TeamStatisticsResponse.TeamStatistic emptyStatistic = result.teams().get(1);
+        assertThat(emptyStatistic.assignmentsPerMember()).isZero();
+        assertThat(emptyStatistic.averageReviewersPerPullRequest()).isZero();
+        verify(teamRepository).getTeamStatistics();
+        verifyNoMoreInteractions(teamRepository);
+        verifyNoInteractions(pullRequestReviewerRepository);
+    }
+
+    private static ReviewerAssignmentsPeriodProjection period(String reviewerId, LocalDate periodStart, Long count) {
+        ReviewerAssignmentsPeriodProjection projection = mock(ReviewerAssignmentsPeriodProjection.class);
+        when(projection.getReviewerId()).thenReturn(reviewerId);
+        when(projection.getPeriodStart()).thenReturn(periodStart);
+        when(projection.getAssignmentsCount()).thenReturn(count);
+        return projection;
+    }
+
+    private static ReviewerAssignmentCountProjection reviewerCount(String reviewerId, Long assignmentsCount) {
+        ReviewerAssignmentCountProjection projection = mock(ReviewerAssignmentCountProjection.class);
+        when(projection.getReviewerId()).thenReturn(reviewerId);
+        when(projection.getAssignmentsCount()).thenReturn(assignmentsCount);
+        return projection;
+    }
+
+    private static PullRequestReviewersCountProjection pullRequestCount(String pullRequestId, Long reviewersCount) {
+        PullRequestReviewersCountProjection projection = mock(PullRequestReviewersCountProjection.class);
+        lenient().when(projection.getPullRequestId()).thenReturn(pullRequestId);
+        lenient().when(projection.getReviewersCount()).thenReturn(reviewersCount);
+        return projection;
+    }
+
+    private static Map<String, Long> orderedMap(String firstKey, Long firstValue, String secondKey, Long secondValue) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        map.put(firstKey, firstValue);
+        map.put(secondKey, secondValue);
+        return map;
+    }
+
 }
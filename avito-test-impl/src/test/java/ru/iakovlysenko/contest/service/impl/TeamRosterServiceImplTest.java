@@ -0,0 +1,130 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.iakovlysenko.contest.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link TeamRosterServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для TeamRosterServiceImpl")
+class TeamRosterServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TeamRosterServiceImpl teamRosterService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Состав команды загружается из базы только при первом обращении")
+    void getActiveMemberIds_LoadsOnce() {
+        when(userRepository.findActiveUserIdsByTeamName("TestTeam")).thenReturn(List.of("user1", "user2"));
+
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user1", "user2");
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user1", "user2");
+        verify(userRepository, times(1)).findActiveUserIdsByTeamName("TestTeam");
+    }
+
+    @Test
+    @DisplayName("Деактивация и активация пользователя обновляют загруженный состав без обращения к базе")
+    void onMemberChanged_UpdatesLoadedRoster() {
+        when(userRepository.findActiveUserIdsByTeamName("TestTeam")).thenReturn(List.of("user1", "user2"));
+        teamRosterService.getActiveMemberIds("TestTeam");
+
+        teamRosterService.onMemberChanged("user1", "TestTeam", false);
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user2");
+
+        teamRosterService.onMemberChanged("user3", "TestTeam", true);
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user2", "user3");
+
+        verify(userRepository, times(1)).findActiveUserIdsByTeamName("TestTeam");
+    }
+
+    @Test
+    @DisplayName("Переход пользователя в другую команду удаляет его из прежнего состава")
+    void onMemberChanged_MovesUserBetweenTeams() {
+        when(userRepository.findActiveUserIdsByTeamName("OldTeam")).thenReturn(List.of("user1", "user2"));
+        when(userRepository.findActiveUserIdsByTeamName("NewTeam")).thenReturn(List.of("user3"));
+        teamRosterService.getActiveMemberIds("OldTeam");
+        teamRosterService.getActiveMemberIds("NewTeam");
+
+        teamRosterService.onMemberChanged("user1", "NewTeam", true);
+
+        assertThat(teamRosterService.getActiveMemberIds("OldTeam")).containsExactly("user2");
+        assertThat(teamRosterService.getActiveMemberIds("NewTeam")).containsExactly("user3", "user1");
+    }
+
+    @Test
+    @DisplayName("Изменение внутри транзакции применяется только после коммита")
+    void onMemberChanged_AppliedAfterCommit() {
+        when(userRepository.findActiveUserIdsByTeamName("TestTeam")).thenReturn(List.of("user1", "user2"));
+        teamRosterService.getActiveMemberIds("TestTeam");
+
+        TransactionSynchronizationManager.initSynchronization();
+        teamRosterService.onMemberChanged("user1", "TestTeam", false);
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user1", "user2");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user2");
+    }
+
+    @Test
+    @DisplayName("Массовое изменение перестраивает каждый загруженный состав одним изменением")
+    void onMembersChanged_UpdatesLoadedRosters() {
+        when(userRepository.findActiveUserIdsByTeamName("TeamA")).thenReturn(List.of("user1", "user2", "user3"));
+        when(userRepository.findActiveUserIdsByTeamName("TeamB")).thenReturn(List.of("user4"));
+        teamRosterService.getActiveMemberIds("TeamA");
+        List<String> teamB = teamRosterService.getActiveMemberIds("TeamB");
+
+        teamRosterService.onMembersChanged(Map.of("user1", "TeamA", "user3", "TeamA"), false);
+
+        assertThat(teamRosterService.getActiveMemberIds("TeamA")).containsExactly("user2");
+        assertThat(teamRosterService.getActiveMemberIds("TeamB")).isSameAs(teamB);
+
+        teamRosterService.onMembersChanged(Map.of("user1", "TeamA", "user2", "TeamA"), true);
+
+        assertThat(teamRosterService.getActiveMemberIds("TeamA")).containsExactly("user2", "user1");
+        verify(userRepository, times(1)).findActiveUserIdsByTeamName("TeamA");
+    }
+
+    @Test
+    @DisplayName("Сброс после коммита заставляет перечитать состав из базы")
+    void invalidateAll_ReloadsAfterCommit() {
+        when(userRepository.findActiveUserIdsByTeamName("TestTeam"))
+                .thenReturn(List.of("user1"))
+                .thenReturn(List.of("user1", "user2"));
+        teamRosterService.getActiveMemberIds("TestTeam");
+        TransactionSynchronizationManager.initSynchronization();
+
+        teamRosterService.invalidateAll();
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user1");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(teamRosterService.getActiveMemberIds("TestTeam")).containsExactly("user1", "user2");
+        verify(userRepository, times(2)).findActiveUserIdsByTeamName("TestTeam");
+    }
+}
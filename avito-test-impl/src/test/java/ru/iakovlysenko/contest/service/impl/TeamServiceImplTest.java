@@ -8,25 +8,36 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.iakovlysenko.contest.dto.request.TeamRequest;
+import ru.iakovlysenko.contest.dto.request.UpdateTeamMembersRequest;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
 import ru.iakovlysenko.contest.dto.response.TeamMemberResponse;
 import ru.iakovlysenko.contest.dto.response.TeamResponse;
+import ru.iakovlysenko.contest.dto.response.UpdateTeamMembersResponse;
 import ru.iakovlysenko.contest.entity.Team;
 import ru.iakovlysenko.contest.entity.User;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.exception.TeamExistsException;
 import ru.iakovlysenko.contest.mapper.TeamMapper;
+import ru.iakovlysenko.contest.projection.UserActivityChangeProjection;
+import ru.iakovlysenko.contest.projection.UserRemovalProjection;
 import ru.iakovlysenko.contest.repository.TeamRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.ReviewReassignmentService;
+import ru.iakovlysenko.contest.service.TeamRosterService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -47,6 +58,12 @@ class TeamServiceImplTest {
     @Mock
     private TeamMapper teamMapper;
 
+    @Mock
+    private TeamRosterService teamRosterService;
+
+    @Mock
+    private ReviewReassignmentService reviewReassignmentService;
+
     @InjectMocks
     private TeamServiceImpl teamService;
 
@@ -92,13 +109,9 @@ class TeamServiceImplTest {
     }
 
     @Test
-    @DisplayName("Успешное создание команды")
+    @DisplayName("Успешное создание команды вставкой команды и одним пакетом участников")
     void createTeam_Success() {
-        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(false);
-        when(teamRepository.save(any(Team.class))).thenReturn(team);
-        when(userRepository.findById("user1")).thenReturn(Optional.empty());
-        when(userRepository.findById("user2")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(user1, user2);
+        when(teamRepository.insertIfAbsent(eq("TestTeam"), any(LocalDateTime.class))).thenReturn(1);
 
         TeamResponse teamResponse = new TeamResponse(
                 "TestTeam",
@@ -114,65 +127,49 @@ class TeamServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.teamName()).isEqualTo("TestTeam");
         assertThat(result.members()).hasSize(2);
-        verify(teamRepository).existsByTeamName("TestTeam");
-        verify(teamRepository).save(any(Team.class));
-        verify(userRepository, times(2)).findById(anyString());
-        verify(userRepository, times(2)).save(any(User.class));
-        verify(teamMapper).toResponse(any(Team.class));
+        verify(teamRepository).insertIfAbsent(eq("TestTeam"), any(LocalDateTime.class));
+        verify(userRepository).upsertAll(argThat(users -> users.size() == 2
+                && users.get(0).getId().equals("user1")
+                && users.get(1).getId().equals("user2")
+                && users.stream().allMatch(user -> "TestTeam".equals(user.getTeamName())
+                        && user.getCreatedAt() != null && user.getUpdatedAt() != null)));
+        verify(teamRosterService).onMembersChanged(Map.of("user1", "TestTeam", "user2", "TestTeam"), true);
+        verify(teamRosterService).onMembersChanged(Map.of(), false);
+        verify(teamMapper).toResponse(argThat(created -> created.getMembers().size() == 2));
+        verifyNoMoreInteractions(teamRepository, userRepository);
     }
 
     @Test
     @DisplayName("Создание команды с существующим именем должно выбрасывать исключение")
     void createTeam_TeamExists_ThrowsException() {
-        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(true);
+        when(teamRepository.insertIfAbsent(eq("TestTeam"), any(LocalDateTime.class))).thenReturn(0);
 
         assertThatThrownBy(() -> teamService.createTeam(teamRequest))
                 .isInstanceOf(TeamExistsException.class)
                 .hasMessageContaining("TestTeam");
-        verify(teamRepository).existsByTeamName("TestTeam");
-        verify(teamRepository, never()).save(any(Team.class));
+        verifyNoInteractions(userRepository, teamRosterService);
     }
 
     @Test
-    @DisplayName("Создание команды с обновлением существующих пользователей")
-    void createTeam_UpdateExistingUsers_Success() {
-        User existingUser = User.builder()
-                .id("user1")
-                .username("OldUsername")
-                .isActive(false)
-                .team(null)
-                .build();
-
-        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(false);
-        when(teamRepository.save(any(Team.class))).thenReturn(team);
-        when(userRepository.findById("user1")).thenReturn(Optional.of(existingUser));
-        when(userRepository.findById("user2")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
-            User user = invocation.getArgument(0);
-            if (user.getId().equals("user1")) {
-                return user1;
-            } else {
-                return user2;
-            }
-        });
-
-        TeamResponse teamResponse = new TeamResponse(
+    @DisplayName("Повтор пользователя в запросе записывается один раз по последнему вхождению, активность учитывается в составах")
+    void createTeam_DuplicateAndInactiveMembers_Success() {
+        TeamRequest request = new TeamRequest(
                 "TestTeam",
                 List.of(
-                        new TeamMemberResponse("user1", "User1", true),
-                        new TeamMemberResponse("user2", "User2", true)
+                        new TeamRequest.TeamMemberRequest("user1", "OldName", true),
+                        new TeamRequest.TeamMemberRequest("user2", "User2", false),
+                        new TeamRequest.TeamMemberRequest("user1", "User1", true)
                 )
         );
-        when(teamMapper.toResponse(any(Team.class))).thenReturn(teamResponse);
+        when(teamRepository.insertIfAbsent(eq("TestTeam"), any(LocalDateTime.class))).thenReturn(1);
 
-        TeamResponse result = teamService.createTeam(teamRequest);
+        teamService.createTeam(request);
 
-        assertThat(result).isNotNull();
-        verify(userRepository).findById("user1");
-        verify(userRepository, atLeastOnce()).save(any(User.class));
-        assertThat(existingUser.getUsername()).isEqualTo("User1");
-        assertThat(existingUser.getIsActive()).isTrue();
-        assertThat(existingUser.getTeam()).isEqualTo(team);
+        verify(userRepository).upsertAll(argThat(users -> users.size() == 2
+                && users.get(0).getId().equals("user1") && users.get(0).getUsername().equals("User1")
+                && users.get(1).getId().equals("user2") && !users.get(1).getIsActive()));
+        verify(teamRosterService).onMembersChanged(Map.of("user1", "TestTeam"), true);
+        verify(teamRosterService).onMembersChanged(Map.of("user2", "TestTeam"), false);
     }
 
     @Test
@@ -211,5 +208,91 @@ class TeamServiceImplTest {
         verify(teamRepository).findByTeamName("NonExistentTeam");
         verify(userRepository, never()).findByTeamName(anyString());
     }
-}
 
+    @Test
+    @DisplayName("Изменение состава применяет каждый вид изменения одним запросом и обновляет составы без перечитывания")
+    void updateMembers_Success() {
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "TestTeam",
+                List.of(new TeamRequest.TeamMemberRequest("user3", "User3", true),
+                        new TeamRequest.TeamMemberRequest("user4", "User4", false)),
+                List.of("user5", "user6", "missing1"),
+                List.of("user1"),
+                List.of("user2", "user7", "missing2"),
+                true
+        );
+        List<UserActivityChangeProjection> activation = List.of(activityChange("user1", true));
+        List<UserActivityChangeProjection> deactivation = List.of(activityChange("user2", true), activityChange("user7", false));
+        List<UserRemovalProjection> removal = List.of(removal("user5", true), removal("user6", false));
+        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(true);
+        when(userRepository.setIsActiveByTeamNameAndIds(eq("TestTeam"), eq(Set.of("user1")), eq(true), any(LocalDateTime.class)))
+                .thenReturn(activation);
+        when(userRepository.setIsActiveByTeamNameAndIds(eq("TestTeam"), eq(Set.of("user2", "user7", "missing2")), eq(false),
+                any(LocalDateTime.class)))
+                .thenReturn(deactivation);
+        when(userRepository.deleteRemovableByTeamNameAndIds("TestTeam", Set.of("user5", "user6", "missing1")))
+                .thenReturn(removal);
+        ReviewReassignmentResponse reassignment = new ReviewReassignmentResponse(List.of(), List.of());
+        when(reviewReassignmentService.reassignOpenReviews(List.of("user2", "user7"))).thenReturn(reassignment);
+
+        UpdateTeamMembersResponse result = teamService.updateMembers(request);
+
+        assertThat(result.added()).containsExactly("user3", "user4");
+        assertThat(result.activated()).containsExactly("user1");
+        assertThat(result.deactivated()).containsExactly("user2");
+        assertThat(result.unchanged()).containsExactly("user7");
+        assertThat(result.removed()).containsExactly("user5");
+        assertThat(result.notRemoved()).containsExactly("user6");
+        assertThat(result.notFound()).containsExactly("missing2", "missing1");
+        assertThat(result.reassignment()).isSameAs(reassignment);
+        verify(userRepository).upsertAll(argThat(users -> users.size() == 2
+                && users.stream().allMatch(user -> "TestTeam".equals(user.getTeamName()))));
+        verify(teamRosterService).onMembersChanged(Map.of("user3", "TestTeam", "user1", "TestTeam"), true);
+        verify(teamRosterService).onMembersChanged(
+                Map.of("user4", "TestTeam", "user2", "TestTeam", "user5", "TestTeam"), false);
+        verify(teamRepository, never()).findByTeamName(anyString());
+    }
+
+    @Test
+    @DisplayName("Пустые изменения не выполняют запросов, а переназначение без деактивации не вызывается")
+    void updateMembers_OnlyAdd_SkipsOtherStatements() {
+        UpdateTeamMembersRequest request = new UpdateTeamMembersRequest(
+                "TestTeam", List.of(new TeamRequest.TeamMemberRequest("user3", "User3", true)), null, List.of(), null, true);
+        when(teamRepository.existsByTeamName("TestTeam")).thenReturn(true);
+
+        UpdateTeamMembersResponse result = teamService.updateMembers(request);
+
+        assertThat(result.added()).containsExactly("user3");
+        assertThat(result.notFound()).isEmpty();
+        assertThat(result.reassignment()).isNull();
+        verify(userRepository, never()).setIsActiveByTeamNameAndIds(any(), any(), anyBoolean(), any());
+        verify(userRepository, never()).deleteRemovableByTeamNameAndIds(any(), any());
+        verifyNoInteractions(reviewReassignmentService);
+    }
+
+    @Test
+    @DisplayName("Изменение состава несуществующей команды должно выбрасывать исключение")
+    void updateMembers_TeamNotFound_ThrowsException() {
+        when(teamRepository.existsByTeamName("NonExistentTeam")).thenReturn(false);
+
+        assertThatThrownBy(() -> teamService.updateMembers(new UpdateTeamMembersRequest(
+                "NonExistentTeam", null, List.of("user1"), null, null, null)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("NonExistentTeam");
+        verifyNoInteractions(userRepository, teamRosterService);
+    }
+
+    private static UserActivityChangeProjection activityChange(String id, boolean changed) {
+        UserActivityChangeProjection projection = mock(UserActivityChangeProjection.class);
+        lenient().when(projection.getId()).thenReturn(id);
+        when(projection.getChanged()).thenReturn(changed);
+        return projection;
+    }
+
+    private static UserRemovalProjection removal(String id, boolean removed) {
+        UserRemovalProjection projection = mock(UserRemovalProjection.class);
+        when(projection.getId()).thenReturn(id);
+        when(projection.getRemoved()).thenReturn(removed);
+        return projection;
+    }
+}
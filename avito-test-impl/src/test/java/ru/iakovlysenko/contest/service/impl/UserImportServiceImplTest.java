@@ -0,0 +1,153 @@
+package ru.iakovlysenko.contest.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.dto.enums.UserImportFormat;
+import ru.iakovlysenko.contest.dto.response.UserImportResponse;
+import ru.iakovlysenko.contest.exception.InvalidImportException;
+import ru.iakovlysenko.contest.projection.UserImportResultProjection;
+import ru.iakovlysenko.contest.projection.UserImportRowProjection;
+import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit тесты для {@link UserImportServiceImpl}.
+ *
+ * @author Iakov Lysenko
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты для UserImportServiceImpl")
+class UserImportServiceImplTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TeamRosterService teamRosterService;
+
+    private UserImportServiceImpl userImportService;
+
+    private final List<UserImportRowProjection> copiedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportServiceImpl(userRepository, teamRosterService, new ObjectMapper(), VALIDATOR);
+    }
+
+    @Test
+    @DisplayName("CSV с колонками в любом порядке передается в базу, а ошибочные строки попадают в отчет")
+    void importUsers_Csv_Success() {
+        stubImport(new UserImportResultProjection(1, 2, 0));
+        String csv = """
+                \uFEFFisActive,teamName,username,id
+
+                true,Team1,"Doe, ""John"" Jr.",user1
+                FALSE,Team1,User2,user2
+                true,Team1,,user3
+                maybe,Team1,User4,user4
+                true,Team1,user5
+                """;
+
+        UserImportResponse response = userImportService.importUsers(input(csv), UserImportFormat.CSV);
+
+        assertThat(copiedRows).containsExactly(
+                new UserImportRowProjection("user1", "Doe, \"John\" Jr.", "Team1", true),
+                new UserImportRowProjection("user2", "User2", "Team1", false)
+        );
+        assertThat(response.acceptedCount()).isEqualTo(2);
+        assertThat(response.rejectedCount()).isEqualTo(3);
+        assertThat(response.usersCreatedCount()).isEqualTo(2);
+        assertThat(response.teamsCreatedCount()).isEqualTo(1);
+        assertThat(response.errorsTruncated()).isFalse();
+        assertThat(response.errors()).extracting(UserImportResponse.RowError::line).containsExactly(5L, 6L, 7L);
+        assertThat(response.errors().get(0).userId()).isEqualTo("user3");
+        assertThat(response.errors().get(0).message()).startsWith("username:");
+        assertThat(response.errors().get(1).message()).isEqualTo("isActive: ожидалось true или false");
+        assertThat(response.errors().get(2).message()).isEqualTo("ожидалось полей: 4, получено: 3");
+        verify(teamRosterService).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Строки NDJSON разбираются по одной, некорректный JSON не прерывает импорт")
+    void importUsers_Ndjson_Success() {
+        stubImport(new UserImportResultProjection(0, 0, 1));
+        String ndjson = """
+                {"id":"user1","username":"User1","teamName":"Team1","isActive":true}
+                {"id":"user2","username":
+                null
+                {"id":"user3","username":"User3","teamName":"Team1"}
+                """;
+
+        UserImportResponse response = userImportService.importUsers(input(ndjson), UserImportFormat.NDJSON);
+
+        assertThat(copiedRows).containsExactly(new UserImportRowProjection("user1", "User1", "Team1", true));
+        assertThat(response.usersUpdatedCount()).isEqualTo(1);
+        assertThat(response.errors()).extracting(UserImportResponse.RowError::line).containsExactly(2L, 3L, 4L);
+        assertThat(response.errors().get(0).message()).startsWith("некорректный JSON");
+        assertThat(response.errors().get(1).message()).isEqualTo("ожидался JSON объект");
+        assertThat(response.errors().get(2).userId()).isEqualTo("user3");
+        assertThat(response.errors().get(2).message()).startsWith("isActive:");
+        verify(teamRosterService).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Отчет об ошибках ограничен, а составы не сбрасываются, если пользователи не изменились")
+    void importUsers_ErrorsTruncated() {
+        stubImport(new UserImportResultProjection(0, 0, 0));
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            ndjson.append("{\"id\":\"user").append(i).append("\"}\n");
+        }
+
+        UserImportResponse response = userImportService.importUsers(input(ndjson.toString()), UserImportFormat.NDJSON);
+
+        assertThat(copiedRows).isEmpty();
+        assertThat(response.rejectedCount()).isEqualTo(1500);
+        assertThat(response.errors()).hasSize(1000);
+        assertThat(response.errorsTruncated()).isTrue();
+        verifyNoInteractions(teamRosterService);
+    }
+
+    @Test
+    @DisplayName("CSV без обязательных колонок отклоняется до обращения к базе")
+    void importUsers_CsvMissingColumns_Error() {
+        assertThatThrownBy(() -> userImportService.importUsers(input("id,username\nuser1,User1\n"), UserImportFormat.CSV))
+                .isInstanceOf(InvalidImportException.class)
+                .hasMessage("В заголовке CSV нет колонок: teamName, isActive");
+
+        verifyNoInteractions(userRepository, teamRosterService);
+    }
+
+    private void stubImport(UserImportResultProjection result) {
+        when(userRepository.importUsers(any(), any())).thenAnswer(invocation -> {
+            Iterator<UserImportRowProjection> rows = invocation.getArgument(0);
+            rows.forEachRemaining(copiedRows::add);
+            return result;
+        });
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
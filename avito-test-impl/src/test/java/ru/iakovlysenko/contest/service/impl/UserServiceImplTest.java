@@ -7,29 +7,44 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.iakovlysenko.contest.dto.request.BulkSetIsActiveRequest;
 import ru.iakovlysenko.contest.dto.request.SetIsActiveRequest;
+import ru.iakovlysenko.contest.dto.response.BulkSetIsActiveResponse;
 import ru.iakovlysenko.contest.dto.response.GetReviewResponse;
 import ru.iakovlysenko.contest.dto.response.PullRequestShortResponse;
+import ru.iakovlysenko.contest.dto.response.ReviewReassignmentResponse;
 import ru.iakovlysenko.contest.dto.response.UserResponse;
+import ru.iakovlysenko.contest.dto.response.UserWrapperResponse;
 import ru.iakovlysenko.contest.entity.PullRequest;
 import ru.iakovlysenko.contest.entity.Team;
 import ru.iakovlysenko.contest.entity.User;
 import ru.iakovlysenko.contest.enums.PrStatus;
+import ru.iakovlysenko.contest.exception.InvalidCursorException;
 import ru.iakovlysenko.contest.exception.NotFoundException;
 import ru.iakovlysenko.contest.mapper.PullRequestMapper;
 import ru.iakovlysenko.contest.mapper.UserMapper;
-import ru.iakovlysenko.contest.repository.PullRequestRepository;
+import ru.iakovlysenko.contest.projection.ReviewAssignmentProjection;
+import ru.iakovlysenko.contest.projection.UserActivityChangeProjection;
+import ru.iakovlysenko.contest.repository.PullRequestReviewerRepository;
+import ru.iakovlysenko.contest.repository.TeamRepository;
 import ru.iakovlysenko.contest.repository.UserRepository;
+import ru.iakovlysenko.contest.service.ReviewReassignmentService;
+import ru.iakovlysenko.contest.service.TeamRosterService;
+import ru.iakovlysenko.contest.util.ReviewCursor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,7 +60,10 @@ class UserServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private PullRequestRepository pullRequestRepository;
+    private PullRequestReviewerRepository pullRequestReviewerRepository;
+
+    @Mock
+    private TeamRepository teamRepository;
 
     @Mock
     private UserMapper userMapper;
@@ -53,6 +71,12 @@ class UserServiceImplTest {
     @Mock
     private PullRequestMapper pullRequestMapper;
 
+    @Mock
+    private TeamRosterService teamRosterService;
+
+    @Mock
+    private ReviewReassignmentService reviewReassignmentService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -87,7 +111,7 @@ class UserServiceImplTest {
                 .reviewers(new ArrayList<>())
                 .build();
 
-        setIsActiveRequest = new SetIsActiveRequest("user1", false);
+        setIsActiveRequest = new SetIsActiveRequest("user1", false, null);
     }
 
     @Test
@@ -104,15 +128,50 @@ class UserServiceImplTest {
         );
         when(userMapper.toResponse(any(User.class))).thenReturn(userResponse);
 
-        UserResponse result = userService.setIsActive(setIsActiveRequest);
+        UserWrapperResponse result = userService.setIsActive(setIsActiveRequest);
 
         assertThat(result).isNotNull();
-        assertThat(result.userId()).isEqualTo("user1");
-        assertThat(result.isActive()).isFalse();
+        assertThat(result.user().userId()).isEqualTo("user1");
+        assertThat(result.user().isActive()).isFalse();
+        assertThat(result.reassignment()).isNull();
         verify(userRepository).findById("user1");
         verify(userRepository).save(user);
         assertThat(user.getIsActive()).isFalse();
+        verify(teamRosterService).onMemberChanged("user1", "TestTeam", false);
         verify(userMapper).toResponse(user);
+        verifyNoInteractions(reviewReassignmentService);
+    }
+
+    @Test
+    @DisplayName("Деактивация с флагом переназначения переносит открытые ревью пользователя")
+    void setIsActive_Deactivate_ReassignsOpenReviews() {
+        when(userRepository.findById("user1")).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toResponse(any(User.class))).thenReturn(new UserResponse("user1", "User1", "TestTeam", false));
+        ReviewReassignmentResponse reassignment = new ReviewReassignmentResponse(
+                List.of(new ReviewReassignmentResponse.Item("pr1", "user1", "user2")),
+                List.of()
+        );
+        when(reviewReassignmentService.reassignOpenReviews(List.of("user1"))).thenReturn(reassignment);
+
+        UserWrapperResponse result = userService.setIsActive(new SetIsActiveRequest("user1", false, true));
+
+        assertThat(result.reassignment()).isSameAs(reassignment);
+        verify(teamRosterService).onMemberChanged("user1", "TestTeam", false);
+    }
+
+    @Test
+    @DisplayName("Флаг переназначения игнорируется при активации пользователя")
+    void setIsActive_Activate_IgnoresReassignFlag() {
+        user.setIsActive(false);
+        when(userRepository.findById("user1")).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userMapper.toResponse(any(User.class))).thenReturn(new UserResponse("user1", "User1", "TestTeam", true));
+
+        UserWrapperResponse result = userService.setIsActive(new SetIsActiveRequest("user1", true, true));
+
+        assertThat(result.reassignment()).isNull();
+        verifyNoInteractions(reviewReassignmentService);
     }
 
     @Test
@@ -120,20 +179,76 @@ class UserServiceImplTest {
     void setIsActive_UserNotFound_ThrowsException() {
         when(userRepository.findById("nonexistent")).thenReturn(Optional.empty());
 
-        SetIsActiveRequest request = new SetIsActiveRequest("nonexistent", false);
+        SetIsActiveRequest request = new SetIsActiveRequest("nonexistent", false, null);
 
         assertThatThrownBy(() -> userService.setIsActive(request))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("nonexistent");
         verify(userRepository).findById("nonexistent");
         verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(teamRosterService);
+    }
+
+    @Test
+    @DisplayName("Массовая деактивация команды одним запросом с переназначением ревью")
+    void bulkSetIsActive_ByTeam_ReassignsOpenReviews() {
+        List<UserActivityChangeProjection> users = List.of(
+                activityChange("user1", true),
+                activityChange("user2", false)
+        );
+        when(userRepository.setIsActiveByTeamName(eq("TestTeam"), eq(false), any(LocalDateTime.class)))
+                .thenReturn(users);
+        ReviewReassignmentResponse reassignment = new ReviewReassignmentResponse(List.of(), List.of());
+        when(reviewReassignmentService.reassignOpenReviews(List.of("user1", "user2"))).thenReturn(reassignment);
+
+        BulkSetIsActiveResponse result = userService.bulkSetIsActive(
+                new BulkSetIsActiveRequest("TestTeam", null, false, true));
+
+        assertThat(result.updated()).containsExactly("user1");
+        assertThat(result.unchanged()).containsExactly("user2");
+        assertThat(result.notFound()).isEmpty();
+        assertThat(result.reassignment()).isSameAs(reassignment);
+        verify(teamRosterService).onMembersChanged(Map.of("user1", "TestTeam"), false);
+        verifyNoInteractions(teamRepository);
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    @DisplayName("Успешное получение списка PR для ревьювера")
+    @DisplayName("Массовая активация по списку ID возвращает ненайденных пользователей")
+    void bulkSetIsActive_ByIds_ReportsNotFound() {
+        List<UserActivityChangeProjection> users = List.of(activityChange("user1", true));
+        when(userRepository.setIsActiveByIds(anyCollection(), eq(true), any(LocalDateTime.class))).thenReturn(users);
+
+        BulkSetIsActiveResponse result = userService.bulkSetIsActive(
+                new BulkSetIsActiveRequest(null, List.of("user1", "missing", "user1"), true, true));
+
+        assertThat(result.updated()).containsExactly("user1");
+        assertThat(result.notFound()).containsExactly("missing");
+        assertThat(result.reassignment()).isNull();
+        verify(teamRosterService).onMembersChanged(Map.of("user1", "TestTeam"), true);
+        verifyNoInteractions(reviewReassignmentService);
+    }
+
+    @Test
+    @DisplayName("Массовая установка флага для несуществующей команды должна выбрасывать исключение")
+    void bulkSetIsActive_TeamNotFound_ThrowsException() {
+        when(userRepository.setIsActiveByTeamName(eq("Missing"), eq(false), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(teamRepository.existsByTeamName("Missing")).thenReturn(false);
+
+        assertThatThrownBy(() -> userService.bulkSetIsActive(new BulkSetIsActiveRequest("Missing", null, false, null)))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Missing");
+        verifyNoInteractions(teamRosterService, reviewReassignmentService);
+    }
+
+    @Test
+    @DisplayName("Успешное получение первой страницы PR для ревьювера")
     void getReview_Success() {
         when(userRepository.existsById("user1")).thenReturn(true);
-        when(pullRequestRepository.findByReviewerIdWithDetails("user1")).thenReturn(List.of(pullRequest));
+        LocalDateTime assignedAt = LocalDateTime.now();
+        when(pullRequestReviewerRepository.findReviewPage("user1", null, null, null, 101))
+                .thenReturn(List.of(assignment(pullRequest, assignedAt)));
 
         PullRequestShortResponse prResponse = new PullRequestShortResponse(
                 "pr1",
@@ -141,17 +256,101 @@ class UserServiceImplTest {
                 "user1",
                 PrStatus.OPEN
         );
-        when(pullRequestMapper.toShortResponse(any(PullRequest.class))).thenReturn(prResponse);
+        when(pullRequestMapper.toShortResponse(any(ReviewAssignmentProjection.class))).thenReturn(prResponse);
 
-        GetReviewResponse result = userService.getReview("user1");
+        GetReviewResponse result = userService.getReview("user1", null, null, null);
 
         assertThat(result).isNotNull();
         assertThat(result.userId()).isEqualTo("user1");
         assertThat(result.pullRequests()).hasSize(1);
         assertThat(result.pullRequests().get(0).pullRequestId()).isEqualTo("pr1");
+        assertThat(result.nextCursor()).isNull();
         verify(userRepository).existsById("user1");
-        verify(pullRequestRepository).findByReviewerIdWithDetails("user1");
-        verify(pullRequestMapper).toShortResponse(pullRequest);
+        verify(pullRequestReviewerRepository).findReviewPage("user1", null, null, null, 101);
+        verify(pullRequestMapper).toShortResponse(assignment(pullRequest, assignedAt));
+    }
+
+    @Test
+    @DisplayName("Полная страница возвращает курсор последнего назначения, по которому читается следующая")
+    void getReview_NextPage_UsesCursor() {
+        LocalDateTime assignedAt = LocalDateTime.of(2025, 1, 10, 12, 0);
+        PullRequest second = PullRequest.builder().id("pr2").author(user).status(PrStatus.OPEN).build();
+        PullRequest third = PullRequest.builder().id("pr3").author(user).status(PrStatus.OPEN).build();
+        when(userRepository.existsById("user1")).thenReturn(true);
+        List<ReviewAssignmentProjection> firstPage = List.of(
+                assignment(pullRequest, assignedAt.plusMinutes(2)),
+                assignment(second, assignedAt.plusMinutes(1)),
+                assignment(third, assignedAt)
+        );
+        when(pullRequestReviewerRepository.findReviewPage("user1", null, null, null, 3)).thenReturn(firstPage);
+
+        GetReviewResponse result = userService.getReview("user1", null, 2, null);
+
+        assertThat(result.pullRequests()).hasSize(2);
+        assertThat(result.nextCursor()).isNotNull();
+        assertThat(ReviewCursor.decode(result.nextCursor()))
+                .isEqualTo(new ReviewCursor(assignedAt.plusMinutes(1), "pr2"));
+
+        when(pullRequestReviewerRepository.findReviewPage("user1", null, assignedAt.plusMinutes(1), "pr2", 3))
+                .thenReturn(List.of(assignment(third, assignedAt)));
+
+        GetReviewResponse next = userService.getReview("user1", null, 2, result.nextCursor());
+
+        assertThat(next.pullRequests()).hasSize(1);
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Фильтр по статусу передается в запрос страницы")
+    void getReview_StatusFilter() {
+        when(userRepository.existsById("user1")).thenReturn(true);
+        when(pullRequestReviewerRepository.findReviewPage("user1", PrStatus.OPEN, null, null, 11))
+                .thenReturn(List.of(assignment(pullRequest, LocalDateTime.now())));
+        when(pullRequestMapper.toShortResponse(any(ReviewAssignmentProjection.class)))
+                .thenReturn(new PullRequestShortResponse("pr1", "PR1", "user1", PrStatus.OPEN));
+
+        GetReviewResponse result = userService.getReview("user1", PrStatus.OPEN, 10, null);
+
+        assertThat(result.pullRequests()).extracting(PullRequestShortResponse::status).containsExactly(PrStatus.OPEN);
+        verify(pullRequestReviewerRepository).findReviewPage("user1", PrStatus.OPEN, null, null, 11);
+    }
+
+    @Test
+    @DisplayName("Потоковое получение передает обработчику каждый PR ревьювера")
+    void streamReview_PassesEveryPullRequest() {
+        ReviewAssignmentProjection assignment = assignment(pullRequest, LocalDateTime.now());
+        PullRequestShortResponse prResponse = new PullRequestShortResponse("pr1", "PR1", "user1", PrStatus.OPEN);
+        when(userRepository.existsById("user1")).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<ReviewAssignmentProjection> action = invocation.getArgument(2);
+            action.accept(assignment);
+            action.accept(assignment);
+            return null;
+        }).when(pullRequestReviewerRepository).streamReviews(eq("user1"), eq(PrStatus.OPEN), any());
+        when(pullRequestMapper.toShortResponse(assignment)).thenReturn(prResponse);
+
+        List<PullRequestShortResponse> streamed = new ArrayList<>();
+        userService.streamReview("user1", PrStatus.OPEN, streamed::add);
+
+        assertThat(streamed).containsExactly(prResponse, prResponse);
+    }
+
+    @Test
+    @DisplayName("Потоковое получение для несуществующего пользователя выбрасывает исключение до чтения назначений")
+    void streamReview_UserNotFound_ThrowsException() {
+        when(userRepository.existsById("nonexistent")).thenReturn(false);
+
+        assertThatThrownBy(() -> userService.streamReview("nonexistent", null, pr -> { }))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(pullRequestReviewerRepository);
+    }
+
+    @Test
+    @DisplayName("Некорректный курсор должен выбрасывать исключение без обращения к базе")
+    void getReview_InvalidCursor_ThrowsException() {
+        assertThatThrownBy(() -> userService.getReview("user1", null, null, "not a cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(userRepository, pullRequestReviewerRepository);
     }
 
     @Test
@@ -159,26 +358,43 @@ class UserServiceImplTest {
     void getReview_UserNotFound_ThrowsException() {
         when(userRepository.existsById("nonexistent")).thenReturn(false);
 
-        assertThatThrownBy(() -> userService.getReview("nonexistent"))
+        assertThatThrownBy(() -> userService.getReview("nonexistent", null, null, null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("nonexistent");
         verify(userRepository).existsById("nonexistent");
-        verify(pullRequestRepository, never()).findByReviewerIdWithDetails(anyString());
+        verifyNoInteractions(pullRequestReviewerRepository);
     }
 
     @Test
     @DisplayName("Получение пустого списка PR для ревьювера")
     void getReview_EmptyList_Success() {
         when(userRepository.existsById("user1")).thenReturn(true);
-        when(pullRequestRepository.findByReviewerIdWithDetails("user1")).thenReturn(List.of());
+        when(pullRequestReviewerRepository.findReviewPage("user1", null, null, null, 101)).thenReturn(List.of());
 
-        GetReviewResponse result = userService.getReview("user1");
+        GetReviewResponse result = userService.getReview("user1", null, null, null);
 
         assertThat(result).isNotNull();
         assertThat(result.userId()).isEqualTo("user1");
         assertThat(result.pullRequests()).isEmpty();
+        assertThat(result.nextCursor()).isNull();
         verify(userRepository).existsById("user1");
-        verify(pullRequestRepository).findByReviewerIdWithDetails("user1");
     }
-}
 
+    private static ReviewAssignmentProjection assignment(PullRequest pullRequest, LocalDateTime assignedAt) {
+        return new ReviewAssignmentProjection(
+                pullRequest.getId(),
+                pullRequest.getPullRequestName(),
+                pullRequest.getAuthorId(),
+                pullRequest.getStatus(),
+                assignedAt
+        );
+    }
+
+    private static UserActivityChangeProjection activityChange(String id, boolean changed) {
+        UserActivityChangeProjection projection = mock(UserActivityChangeProjection.class);
+        lenient().when(projection.getId()).thenReturn(id);
+        lenient().when(projection.getTeamName()).thenReturn("TestTeam");
+        when(projection.getChanged()).thenReturn(changed);
+        return projection;
+    }
+}
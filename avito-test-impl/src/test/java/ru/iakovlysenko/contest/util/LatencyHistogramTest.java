@@ -0,0 +1,77 @@
+package ru.iakovlysenko.contest.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit тесты для {@link LatencyHistogram}.
+ *
+ * @author Iakov Lysenko
+ */
+@DisplayName("Тесты для LatencyHistogram")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Малые значения хранятся точно, пустая гистограмма возвращает ноль")
+    void smallValues_Exact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+
+        for (long millis = 1; millis <= 100; millis++) {
+            histogram.recordMillis(millis);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.getValueAtPercentile(90)).isEqualTo(90);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Большие значения возвращаются с относительной погрешностью не больше 1/64")
+    void largeValues_BoundedRelativeError() {
+        for (long millis : new long[]{129, 1_000, 3_600_000, 86_400_000, 30L * 86_400_000}) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(Duration.ofMillis(millis));
+
+            assertThat(histogram.getValueAtPercentile(50))
+                    .isGreaterThanOrEqualTo(millis)
+                    .isCloseTo(millis, within(millis / 64));
+        }
+    }
+
+    @Test
+    @DisplayName("Отрицательные и слишком большие значения ограничиваются диапазоном гистограммы")
+    void outOfRangeValues_Clamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMillis(-5);
+        histogram.recordMillis(Long.MAX_VALUE);
+
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(LatencyHistogram.HIGHEST_TRACKABLE_MILLIS);
+    }
+
+    @Test
+    @DisplayName("Объединение гистограмм складывает их значения, копия не зависит от оригинала")
+    void addAndCopy() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.recordMillis(10);
+        LatencyHistogram second = new LatencyHistogram();
+        second.recordMillis(20);
+        second.recordMillis(30);
+
+        LatencyHistogram merged = first.copy();
+        merged.add(second);
+        first.recordMillis(40);
+
+        assertThat(merged.getTotalCount()).isEqualTo(3);
+        assertThat(merged.getValueAtPercentile(50)).isEqualTo(20);
+        assertThat(first.getTotalCount()).isEqualTo(2);
+    }
+}